@@ -7,6 +7,14 @@ import org.codehaus.plexus.component.annotations.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
 @Component(
     role = DevelocityListener.class,
     hint = "develocity-configurer"
@@ -19,8 +27,13 @@ public class DevelocityConfigurerListener implements DevelocityListener {
     private static final String JENKINSGRADLEPLUGIN_MAVEN_PLUGIN_CONFIG_SERVER_URL = "JENKINSGRADLEPLUGIN_MAVEN_PLUGIN_CONFIG_SERVER_URL";
     private static final String JENKINSGRADLEPLUGIN_MAVEN_PLUGIN_CONFIG_ALLOW_UNTRUSTED_SERVER = "JENKINSGRADLEPLUGIN_MAVEN_PLUGIN_CONFIG_ALLOW_UNTRUSTED_SERVER";
 
+    // Has to be in sync with what is set in BuildScanLinksFile
+    private static final String DEVELOCITY_INJECTION_BUILD_SCAN_LINKS_FILE = "DEVELOCITY_INJECTION_BUILD_SCAN_LINKS_FILE";
+
     @Override
     public void configure(DevelocityApi api, MavenSession session) {
+        captureBuildScanLinks(api);
+
         if (api.getServer() != null) {
             LOGGER.debug("Develocity server is already configured");
             return;
@@ -42,4 +55,27 @@ public class DevelocityConfigurerListener implements DevelocityListener {
             LOGGER.debug("Allow communication with a Develocity server using an untrusted SSL certificate");
         }
     }
+
+    private static void captureBuildScanLinks(DevelocityApi api) {
+        String linksFile = System.getenv(DEVELOCITY_INJECTION_BUILD_SCAN_LINKS_FILE);
+        if (linksFile == null || linksFile.isEmpty()) {
+            return;
+        }
+
+        api.getBuildScan().buildScanPublished(scan -> writeBuildScanLink(linksFile, scan.getBuildScanUri()));
+    }
+
+    private static void writeBuildScanLink(String linksFile, URI buildScanUri) {
+        String line = buildScanUri + System.lineSeparator();
+        try {
+            Path path = Paths.get(linksFile);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            Files.write(path, line.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            // The build scan link is still printed to the build log
+            LOGGER.debug("Unable to write build scan link to {}", linksFile, e);
+        }
+    }
 }
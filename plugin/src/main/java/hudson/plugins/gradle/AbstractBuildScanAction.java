@@ -4,31 +4,56 @@ import com.google.common.collect.ImmutableList;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import hudson.model.Action;
 import hudson.model.Actionable;
+import hudson.model.Run;
 import hudson.plugins.gradle.enriched.ScanDetail;
-import hudson.plugins.gradle.util.CollectionUtil;
+import hudson.plugins.gradle.enriched.ScanDetailEnricher;
+import hudson.plugins.gradle.enriched.ScanDetailService;
+import jenkins.util.SystemProperties;
+import jenkins.util.Timer;
 import org.kohsuke.stapler.export.Exported;
 import org.kohsuke.stapler.export.ExportedBean;
 
+import javax.annotation.CheckForNull;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
 import java.util.Set;
-import java.util.function.Function;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 @ExportedBean
 public abstract class AbstractBuildScanAction implements Action {
 
+    private static final Logger LOGGER = Logger.getLogger(AbstractBuildScanAction.class.getName());
+
+    private static final long SAVE_DELAY_SECONDS =
+        SystemProperties.getLong(AbstractBuildScanAction.class.getName() + ".saveDelaySeconds", 5L);
+
     protected transient Actionable target;
-    private List<String> scanUrls = new ArrayList<>();
-    private final List<ScanDetail> scanDetails = new ArrayList<>();
-    private final Set<BuildAgentError> buildAgentErrors = new HashSet<>();
 
+    // Scans are added by the threads reading the build logs, they are saved in the background at most once per delay,
+    // and when the run is finalized, rather than every time a scan is added
+    private transient volatile boolean dirty;
+    private transient Object saveLock = new Object();
+    private transient boolean saveScheduled;
+
+    // Adding an error replaces the set with a copy, so that readers and XStream never see it being modified
+    private volatile Set<BuildAgentError> buildAgentErrors = new HashSet<>();
+    private transient Set<BuildAgentError> buildAgentErrorIndex = new HashSet<>();
+
+    // Backward compatibility for old plugins versions which stored the scans in the action
+    private transient List<String> scanUrls;
+    private transient List<ScanDetail> scanDetails;
     // Backward compatibility for old plugins versions which created an action per-scan
     private transient String scanUrl;
 
+    // Scans read from an action persisted by an old plugin version, to be migrated by the subclass
+    private transient BuildScans legacyBuildScans;
+
     @Override
     public String getIconFileName() {
         return "/plugin/gradle/images/svgs/gradle-build-scan.svg";
@@ -45,38 +70,126 @@ public abstract class AbstractBuildScanAction implements Action {
     }
 
     public void addBuildAgentError(BuildAgentError buildAgentError) {
-        buildAgentErrors.add(buildAgentError);
+        synchronized (buildAgentErrorIndex) {
+            if (buildAgentErrorIndex.add(buildAgentError)) {
+                Set<BuildAgentError> copy = new HashSet<>(buildAgentErrors);
+                copy.add(buildAgentError);
+                buildAgentErrors = copy;
+            }
+        }
     }
 
-    public synchronized void addScanUrls(Collection<String> scanUrls, Function<String, Optional<ScanDetail>> scanDetailsFactory) {
+    /**
+     * Adds the given build scans, their details are fetched in the background by {@link ScanDetailEnricher}.
+     */
+    public void addScanUrls(Collection<String> scanUrls, ScanDetailService scanDetailService) {
+        BuildScans buildScans = getBuildScans();
+        List<String> added = new ArrayList<>(scanUrls.size());
         for (String scanUrl : scanUrls) {
-            if (!this.scanUrls.contains(scanUrl)) {
-                this.scanUrls.add(scanUrl);
-                scanDetailsFactory.apply(scanUrl).ifPresent(this::addScanDetail);
+            if (buildScans.addScanUrl(scanUrl)) {
+                added.add(scanUrl);
+            }
+        }
+        if (!added.isEmpty()) {
+            scheduleSave();
+            added.forEach(this::indexScanUrl);
+            added.forEach(scanUrl -> ScanDetailEnricher.get().enrich(scanUrl, scanDetailService, this::addScanDetail));
+        }
+    }
+
+    public void addScanUrl(String scanUrl) {
+        if (getBuildScans().addScanUrl(scanUrl)) {
+            scheduleSave();
+            indexScanUrl(scanUrl);
+        }
+    }
+
+    public void addScanDetail(ScanDetail scanDetail) {
+        if (getBuildScans().addScanDetail(scanDetail)) {
+            scheduleSave();
+            BuildScanSearchIndex index = BuildScanSearchIndex.getIfAvailable();
+            Run<?, ?> run = index != null ? getRun() : null;
+            if (run != null) {
+                index.addScanDetail(run, scanDetail);
             }
         }
     }
 
-    public synchronized void addScanUrl(String scanUrl) {
-        if (!scanUrls.contains(scanUrl)) {
-            scanUrls.add(scanUrl);
+    private void indexScanUrl(String scanUrl) {
+        BuildScanSearchIndex index = BuildScanSearchIndex.getIfAvailable();
+        Run<?, ?> run = index != null ? getRun() : null;
+        if (run != null) {
+            index.addScanUrl(run, scanUrl);
         }
     }
 
-    public synchronized void addScanDetail(ScanDetail scanDetail) {
-        if (!scanDetails.contains(scanDetail)) {
-            scanDetails.add(scanDetail);
+    final void scheduleSave() {
+        dirty = true;
+        synchronized (saveLock) {
+            if (saveScheduled) {
+                return;
+            }
+            saveScheduled = true;
         }
+        Timer.get().schedule(this::flushBuildScans, SAVE_DELAY_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Saves the scans added since the last save, if any.
+     */
+    final void flushBuildScans() {
+        synchronized (saveLock) {
+            saveScheduled = false;
+        }
+        if (dirty) {
+            // Cleared before saving, so that the scans added while saving are saved again
+            dirty = false;
+            saveQuietly();
+        }
+    }
+
+    final void saveQuietly() {
+        try {
+            saveBuildScans();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Unable to save build scans of " + target, e);
+        }
+    }
+
+    /**
+     * Returns the scans of this action, loading them if needed.
+     */
+    abstract BuildScans getBuildScans();
+
+    /**
+     * Returns the run this action belongs to, or {@code null} if it is not attached yet.
+     */
+    @CheckForNull
+    abstract Run<?, ?> getRun();
+
+    /**
+     * Persists the scans of this action after they have changed.
+     */
+    abstract void saveBuildScans() throws IOException;
+
+    /**
+     * Returns the scans read from an action persisted by an old plugin version, only once.
+     */
+    @CheckForNull
+    final BuildScans takeLegacyBuildScans() {
+        BuildScans buildScans = legacyBuildScans;
+        legacyBuildScans = null;
+        return buildScans;
     }
 
     @Exported
-    public synchronized List<String> getScanUrls() {
-        return CollectionUtil.unmodifiableCopy(scanUrls);
+    public List<String> getScanUrls() {
+        return getBuildScans().getScanUrls();
     }
 
     @Exported
     public List<ScanDetail> getScanDetails() {
-        return CollectionUtil.unmodifiableCopy(scanDetails);
+        return getBuildScans().getScanDetails();
     }
 
     @Exported
@@ -113,9 +226,24 @@ public abstract class AbstractBuildScanAction implements Action {
     @SuppressWarnings("unused")
     @SuppressFBWarnings(value = "IS2_INCONSISTENT_SYNC", justification = "readResolve is called during deserialization before the object is visible to other threads")
     protected Object readResolve() {
-        if (scanUrl != null) {
-            scanUrls = Collections.singletonList(scanUrl);
+        if (scanUrls != null || scanDetails != null || scanUrl != null) {
+            List<String> urls = new ArrayList<>();
+            if (scanUrls != null) {
+                urls.addAll(scanUrls);
+            }
+            if (scanUrl != null) {
+                urls.add(scanUrl);
+            }
+            legacyBuildScans = new BuildScans(urls, scanDetails != null ? scanDetails : Collections.emptyList());
+            scanUrls = null;
+            scanDetails = null;
+            scanUrl = null;
+        }
+        if (buildAgentErrors == null) {
+            buildAgentErrors = new HashSet<>();
         }
+        buildAgentErrorIndex = new HashSet<>(buildAgentErrors);
+        saveLock = new Object();
 
         return this;
     }
@@ -2,11 +2,10 @@ package hudson.plugins.gradle;
 
 import hudson.console.LineTransformationOutputStream;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
-import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public abstract class AbstractGradleLogProcessor extends LineTransformationOutputStream {
@@ -14,27 +13,45 @@ public abstract class AbstractGradleLogProcessor extends LineTransformationOutpu
     private static final Logger LOGGER = Logger.getLogger(AbstractGradleLogProcessor.class.getName());
 
     // Don't parse too long lines
-    private static final int DEFAULT_MAX_LINE_LENGTH = 500;
+    static final int DEFAULT_MAX_LINE_LENGTH = 500;
 
     private final int maxLineLength;
     protected final OutputStream out;
     protected final Charset charset;
 
+    // Lines not containing any of the anchors are never decoded, null means every line is decoded
+    @Nullable
+    private final LogLineAnchors anchors;
+    private final LogLineDecoder decoder;
+
     protected AbstractGradleLogProcessor(OutputStream out, Charset charset) {
-        this(DEFAULT_MAX_LINE_LENGTH, out, charset);
+        this(DEFAULT_MAX_LINE_LENGTH, out, charset, null);
+    }
+
+    protected AbstractGradleLogProcessor(OutputStream out, Charset charset, @Nullable LogLineAnchors anchors) {
+        this(DEFAULT_MAX_LINE_LENGTH, out, charset, anchors);
     }
 
     protected AbstractGradleLogProcessor(int maxLineLength, OutputStream out, Charset charset) {
+        this(maxLineLength, out, charset, null);
+    }
+
+    protected AbstractGradleLogProcessor(int maxLineLength, OutputStream out, Charset charset, @Nullable LogLineAnchors anchors) {
         this.maxLineLength = maxLineLength;
         this.out = out;
         this.charset = charset;
+        this.anchors = anchors != null && LogLineAnchors.isAsciiCompatible(charset) ? anchors : null;
+        this.decoder = new LogLineDecoder(charset, maxLineLength);
     }
 
     @Override
     protected final void eol(byte[] bytes, int length) throws IOException {
         if (length < maxLineLength) {
-            String line = charset.decode(ByteBuffer.wrap(bytes, 0, length)).toString();
-            processLogLine(line);
+            if (isCandidateLine(bytes, length)) {
+                processLogLine(decoder.decode(bytes, 0, length));
+            } else {
+                skipLogLine();
+            }
         } else {
             LOGGER.fine(() -> "Skipping log line of length " + length + " (max: " + maxLineLength + ")");
         }
@@ -42,6 +59,20 @@ public abstract class AbstractGradleLogProcessor extends LineTransformationOutpu
         out.write(bytes, 0, length);
     }
 
+    /**
+     * Checks the raw bytes of a line before it gets decoded. Only lines for which this method returns {@code true}
+     * are passed to {@link #processLogLine(String)}.
+     */
+    protected boolean isCandidateLine(byte[] bytes, int length) {
+        return anchors == null || anchors.find(bytes, length);
+    }
+
+    /**
+     * Invoked instead of {@link #processLogLine(String)} for lines rejected by {@link #isCandidateLine(byte[], int)}.
+     */
+    protected void skipLogLine() {
+    }
+
     protected abstract void processLogLine(String line) throws IOException;
 
     @Override
@@ -1,20 +1,130 @@
 package hudson.plugins.gradle;
 
+import hudson.Extension;
+import hudson.XmlFile;
 import hudson.model.Run;
+import hudson.model.listeners.RunListener;
+import hudson.plugins.gradle.enriched.ScanDetail;
+import hudson.util.XStream2;
 import jenkins.model.RunAction2;
 import org.jenkinsci.plugins.workflow.actions.PersistentAction;
 import org.kohsuke.stapler.export.ExportedBean;
 
+import javax.annotation.CheckForNull;
+import java.io.File;
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Build scans of a run.
+ * <p>
+ * The scans are stored in {@value #BUILD_SCANS_FILE} in the build directory rather than in {@code build.xml}, and only
+ * loaded when they are shown, so that loading a run doesn't pay for them. Scans stored in {@code build.xml} by previous
+ * versions of the plugin are moved to that file in the background once the run is loaded. Added scans are saved in the background, and
+ * once more when the run is finalized.
+ */
 @ExportedBean
 public class BuildScanAction extends AbstractBuildScanAction implements PersistentAction, RunAction2 {
 
+    private static final Logger LOGGER = Logger.getLogger(BuildScanAction.class.getName());
+
+    static final String BUILD_SCANS_FILE = "build-scans.xml";
+
+    private static final XStream2 XSTREAM = new XStream2();
+
+    static {
+        XSTREAM.alias("buildScans", BuildScans.class);
+        XSTREAM.alias("scanDetail", ScanDetail.class);
+    }
+
+    private transient volatile BuildScans buildScans;
+    // Set until the scans read from build.xml are saved to their own file and removed from build.xml
+    private transient volatile boolean migrating;
+
     @Override
     public void onAttached(Run<?, ?> r) {
         this.target = r;
+        if (buildScans != null) {
+            saveQuietly();
+        }
     }
 
     @Override
     public void onLoad(Run<?, ?> r) {
         this.target = r;
+        BuildScans legacyBuildScans = takeLegacyBuildScans();
+        if (legacyBuildScans != null) {
+            buildScans = legacyBuildScans;
+            // Written in the background, so that loading many legacy runs doesn't rewrite them all on the spot
+            migrating = true;
+            scheduleSave();
+        }
+    }
+
+    @Override
+    BuildScans getBuildScans() {
+        BuildScans scans = buildScans;
+        if (scans == null) {
+            synchronized (this) {
+                scans = buildScans;
+                if (scans == null) {
+                    scans = load();
+                    buildScans = scans;
+                }
+            }
+        }
+        return scans;
+    }
+
+    private BuildScans load() {
+        XmlFile file = getBuildScansFile();
+        if (file != null && file.exists()) {
+            try {
+                return (BuildScans) file.read();
+            } catch (IOException | RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Unable to load build scans from " + file, e);
+            }
+        }
+        return new BuildScans();
+    }
+
+    @Override
+    @CheckForNull
+    Run<?, ?> getRun() {
+        return target instanceof Run ? (Run<?, ?>) target : null;
+    }
+
+    @Override
+    void saveBuildScans() throws IOException {
+        synchronized (this) {
+            XmlFile file = getBuildScansFile();
+            BuildScans scans = buildScans;
+            if (file != null && scans != null) {
+                file.write(scans);
+            }
+        }
+        Run<?, ?> run = getRun();
+        if (migrating && run != null) {
+            migrating = false;
+            run.save();
+        }
+    }
+
+    @CheckForNull
+    private XmlFile getBuildScansFile() {
+        if (target instanceof Run) {
+            return new XmlFile(XSTREAM, new File(((Run<?, ?>) target).getRootDir(), BUILD_SCANS_FILE));
+        }
+        return null;
+    }
+
+    @Extension
+    public static final class SavingRunListener extends RunListener<Run<?, ?>> {
+
+        @Override
+        public void onFinalized(Run<?, ?> run) {
+            run.getActions(BuildScanAction.class).forEach(BuildScanAction::flushBuildScans);
+        }
     }
 }
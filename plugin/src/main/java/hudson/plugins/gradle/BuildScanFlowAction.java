@@ -1,12 +1,20 @@
 package hudson.plugins.gradle;
 
+import hudson.model.Queue;
+import hudson.model.Run;
+import hudson.model.Saveable;
 import org.jenkinsci.plugins.workflow.actions.FlowNodeAction;
 import org.jenkinsci.plugins.workflow.graph.FlowNode;
 import org.kohsuke.stapler.export.ExportedBean;
 
+import javax.annotation.CheckForNull;
+import java.io.IOException;
+
 @ExportedBean
 public class BuildScanFlowAction extends AbstractBuildScanAction implements FlowNodeAction {
 
+    private volatile BuildScans buildScans = new BuildScans();
+
     public BuildScanFlowAction(FlowNode target) {
         this.target = target;
     }
@@ -15,4 +23,43 @@ public class BuildScanFlowAction extends AbstractBuildScanAction implements Flow
     public void onLoad(FlowNode parent) {
         this.target = parent;
     }
+
+    @Override
+    BuildScans getBuildScans() {
+        return buildScans;
+    }
+
+    @Override
+    @CheckForNull
+    Run<?, ?> getRun() {
+        if (!(target instanceof FlowNode)) {
+            return null;
+        }
+        try {
+            Queue.Executable executable = ((FlowNode) target).getExecution().getOwner().getExecutable();
+            return executable instanceof Run ? (Run<?, ?>) executable : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    @Override
+    void saveBuildScans() throws IOException {
+        if (target instanceof Saveable) {
+            ((Saveable) target).save();
+        }
+    }
+
+    @Override
+    protected Object readResolve() {
+        super.readResolve();
+        BuildScans legacyBuildScans = takeLegacyBuildScans();
+        if (legacyBuildScans != null) {
+            buildScans = legacyBuildScans;
+        } else if (buildScans == null) {
+            buildScans = new BuildScans();
+        }
+
+        return this;
+    }
 }
@@ -0,0 +1,129 @@
+package hudson.plugins.gradle;
+
+import hudson.EnvVars;
+import hudson.FilePath;
+import hudson.model.AbstractBuild;
+import hudson.model.Run;
+import hudson.slaves.WorkspaceList;
+import org.jenkinsci.plugins.workflow.graph.FlowNode;
+import org.jenkinsci.plugins.workflow.steps.EnvironmentExpander;
+
+import javax.annotation.CheckForNull;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * File on the agent to which the injected Gradle init script and the configuration Maven extension append the link
+ * of every published build scan, see {@code BuildScanCollector} in {@code init-script.gradle} and
+ * {@code DevelocityConfigurerListener}. Each line holds a link.
+ * Reading it is more reliable than scanning the build log, whose results are only used when the file holds no link:
+ * when the build doesn't apply the init script or the extension, or they couldn't write to the file.
+ */
+public final class BuildScanLinksFile {
+
+    private static final Logger LOGGER = Logger.getLogger(BuildScanLinksFile.class.getName());
+
+    // Derived from the 'develocity-injection.build-scan-links-file' init script parameter
+    public static final String ENV_VAR = "DEVELOCITY_INJECTION_BUILD_SCAN_LINKS_FILE";
+
+    private BuildScanLinksFile() {
+    }
+
+    /**
+     * Creates an empty links file in the temporary directory of the workspace.
+     */
+    @CheckForNull
+    public static FilePath create(@CheckForNull FilePath workspace) {
+        FilePath tempDir = workspace != null ? WorkspaceList.tempDir(workspace) : null;
+        if (tempDir == null) {
+            return null;
+        }
+        try {
+            tempDir.mkdirs();
+            return tempDir.createTempFile("build-scans", ".txt");
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Unable to create build scan links file in " + tempDir, e);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Returns the well-known links file of a build in the temporary directory of its workspace. It is only created
+     * once a build scan gets published.
+     */
+    @CheckForNull
+    public static FilePath forBuild(AbstractBuild<?, ?> build) {
+        FilePath workspace = build.getWorkspace();
+        FilePath tempDir = workspace != null ? WorkspaceList.tempDir(workspace) : null;
+        return tempDir != null ? tempDir.child("build-scans-" + build.getNumber() + ".txt") : null;
+    }
+
+    /**
+     * Returns the well-known links file of a Pipeline step in the temporary directory of its workspace, see
+     * {@code BuildScanLinksGraphListener}. It is only created once a build scan gets published.
+     */
+    @CheckForNull
+    public static FilePath forStep(FilePath workspace, Run<?, ?> run, FlowNode node) {
+        FilePath tempDir = WorkspaceList.tempDir(workspace);
+        return tempDir != null ? tempDir.child("build-scans-" + run.getNumber() + "-" + node.getId() + ".txt") : null;
+    }
+
+    /**
+     * Returns the links written to the file and deletes it.
+     */
+    public static List<String> collect(@CheckForNull FilePath linksFile) {
+        if (linksFile == null) {
+            return Collections.emptyList();
+        }
+        try {
+            if (!linksFile.exists()) {
+                return Collections.emptyList();
+            }
+            List<String> links = linksFile.readToString().lines()
+                .map(String::trim)
+                .filter(link -> !link.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+            linksFile.delete();
+            return links;
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Unable to read build scan links file " + linksFile, e);
+            return Collections.emptyList();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Returns the links written to the file and deletes it, or the given links scanned from the build log if the file
+     * holds none.
+     */
+    public static List<String> collectOrElse(@CheckForNull FilePath linksFile, List<String> scannedLinks) {
+        List<String> links = collect(linksFile);
+        return links.isEmpty() ? scannedLinks : links;
+    }
+
+    static final class Expander extends EnvironmentExpander {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String linksFile;
+
+        Expander(FilePath linksFile) {
+            this.linksFile = linksFile.getRemote();
+        }
+
+        @Override
+        public void expand(EnvVars env) {
+            env.put(ENV_VAR, linksFile);
+        }
+    }
+}
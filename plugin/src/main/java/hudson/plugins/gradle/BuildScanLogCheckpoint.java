@@ -0,0 +1,82 @@
+package hudson.plugins.gradle;
+
+import hudson.model.InvisibleAction;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.Collections;
+
+/**
+ * Remembers how far {@link BuildScanPublisher findBuildScans} has scanned the log of a run, so that calling it
+ * repeatedly in a pipeline only scans the output written since the previous call.
+ * <p>
+ * The checkpoint is the offset following the last complete line scanned, together with the state of the
+ * {@link BuildScanLogScanner} at that point, so that a link printed after the checkpoint is still matched with a
+ * publishing message printed before it.
+ */
+public class BuildScanLogCheckpoint extends InvisibleAction {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private long offset;
+    private int linesSinceBuildScanPublishingMessage = Integer.MAX_VALUE;
+
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * Scans the log from the checkpoint and moves the checkpoint to the end of the last complete line.
+     *
+     * @param log the log, from its start
+     */
+    public synchronized void scan(InputStream log, Charset charset, BuildScanPublishedListener listener) throws IOException {
+        if (skip(log, offset) < offset) {
+            // The log can't be shorter than what has been scanned already, start over on the next call to be safe
+            offset = 0;
+            linesSinceBuildScanPublishingMessage = Integer.MAX_VALUE;
+            return;
+        }
+
+        BuildScanLogScanner scanner = new BuildScanLogScanner(listener);
+        scanner.setLinesSinceBuildScanPublishingMessage(linesSinceBuildScanPublishingMessage);
+        // The processor is never closed, a trailing incomplete line is left unprocessed and scanned next time
+        CompositeLogProcessor processor =
+            new CompositeLogProcessor(OutputStream.nullOutputStream(), charset, Collections.singletonList(scanner));
+
+        long position = offset;
+        long lastLineEnd = offset;
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = log.read(buffer)) > 0) {
+            processor.write(buffer, 0, read);
+            for (int i = read - 1; i >= 0; i--) {
+                if (buffer[i] == '\n') {
+                    lastLineEnd = position + i + 1;
+                    break;
+                }
+            }
+            position += read;
+        }
+
+        offset = lastLineEnd;
+        linesSinceBuildScanPublishingMessage = scanner.getLinesSinceBuildScanPublishingMessage();
+    }
+
+    private static long skip(InputStream in, long count) throws IOException {
+        long skipped = 0;
+        while (skipped < count) {
+            long n = in.skip(count - skipped);
+            if (n <= 0) {
+                if (in.read() < 0) {
+                    break;
+                }
+                n = 1;
+            }
+            skipped += n;
+        }
+        return skipped;
+    }
+}
@@ -3,25 +3,33 @@ package hudson.plugins.gradle;
 import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
-public class BuildScanLogScanner {
+public class BuildScanLogScanner implements LogLineScanner {
 
     private static final Logger LOGGER = Logger.getLogger(BuildScanLogScanner.class.getName());
 
-    private static final Pattern BUILD_SCAN_PATTERN = Pattern.compile("Publishing (Build Scan|build scan|build information)(?: to Develocity)?\\.\\.\\.");
-    private static final Pattern URL_PATTERN = Pattern.compile(".*(?:\\[INFO] )?(https?://.*/s/.*)");
-    private static final int LINES_TO_SCAN = 1000;
+    static final int LINES_TO_SCAN = 1000;
 
     private final BuildScanPublishedListener listener;
+    private final LogMarkers markers;
 
     private int linesSinceBuildScanPublishingMessage = Integer.MAX_VALUE;
 
     public BuildScanLogScanner(BuildScanPublishedListener listener) {
+        this(listener, LogMarkers.get());
+    }
+
+    public BuildScanLogScanner(BuildScanPublishedListener listener, LogMarkers markers) {
         this.listener = listener;
+        this.markers = markers;
+    }
+
+    @Override
+    public LogLineAnchors getAnchors() {
+        return markers.getBuildScanAnchors();
     }
 
+    @Override
     public void scanLine(String line) {
       LOGGER.log(Level.FINE, "Scanning line: {0}", line);
 
@@ -34,17 +42,38 @@ public class BuildScanLogScanner {
                 listener.onBuildScanPublished(url);
             });
         }
-        if (BUILD_SCAN_PATTERN.matcher(line).find()) {
+        if (markers.containsBuildScanPublishingMessage(line)) {
             LOGGER.log(Level.FINE, "Detected build scan publishing message: {0}", line);
             linesSinceBuildScanPublishingMessage = 0;
         }
 
     }
 
+    /**
+     * Accounts for a line which was not scanned because it is known not to contain {@link #getAnchors()}.
+     */
+    @Override
+    public void skipLine() {
+        if (linesSinceBuildScanPublishingMessage < LINES_TO_SCAN) {
+            linesSinceBuildScanPublishingMessage++;
+        }
+    }
+
+    /**
+     * State of the scanner, to resume scanning a log where it was left.
+     */
+    int getLinesSinceBuildScanPublishingMessage() {
+        return linesSinceBuildScanPublishingMessage;
+    }
+
+    void setLinesSinceBuildScanPublishingMessage(int linesSinceBuildScanPublishingMessage) {
+        this.linesSinceBuildScanPublishingMessage = linesSinceBuildScanPublishingMessage;
+    }
+
     private static void tryFindBuildScanUrl(String text, Consumer<String> action) {
-        Matcher matcher = URL_PATTERN.matcher(text);
-        if (matcher.matches()) {
-            action.accept(matcher.group(1));
+        String url = BuildScanUrlExtractor.extract(text);
+        if (url != null) {
+            action.accept(url);
         }
     }
 }
@@ -1,38 +1,97 @@
 package hudson.plugins.gradle;
 
 import hudson.Extension;
+import hudson.Util;
 import hudson.model.Run;
 import hudson.plugins.gradle.enriched.EnrichedSummaryConfig;
 import hudson.plugins.gradle.enriched.ScanDetailService;
+import hudson.plugins.gradle.util.RunUtil;
 import org.jenkinsci.plugins.workflow.steps.Step;
 import org.jenkinsci.plugins.workflow.steps.StepContext;
 import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
 import org.jenkinsci.plugins.workflow.steps.StepExecution;
 import org.jenkinsci.plugins.workflow.steps.SynchronousNonBlockingStepExecution;
 import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
 
+import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
-import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Stream;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class BuildScanPublisher extends Step {
+
+    private static final Logger LOGGER = Logger.getLogger(BuildScanPublisher.class.getName());
+
+    private int maxInvocations;
+    private String boundaryMarker;
+    private boolean parallel;
+
     @DataBoundConstructor
     public BuildScanPublisher() {
     }
 
+    public int getMaxInvocations() {
+        return maxInvocations;
+    }
+
+    /**
+     * Scans the log backwards from its end, until this many build tool invocations publishing a build scan have been
+     * seen. The whole log is scanned from the start if not positive.
+     */
+    @DataBoundSetter
+    public void setMaxInvocations(int maxInvocations) {
+        this.maxInvocations = maxInvocations;
+    }
+
+    @CheckForNull
+    public String getBoundaryMarker() {
+        return boundaryMarker;
+    }
+
+    /**
+     * Scans the log backwards from its end, until the last line containing this text.
+     */
+    @DataBoundSetter
+    public void setBoundaryMarker(@CheckForNull String boundaryMarker) {
+        this.boundaryMarker = Util.fixEmpty(boundaryMarker);
+    }
+
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Scans chunks of the log in parallel when scanning it backwards.
+     */
+    @DataBoundSetter
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
     @Override
     public StepExecution start(StepContext context) {
-        return new Execution(context);
+        return new Execution(context, maxInvocations, boundaryMarker, parallel);
     }
 
     static class Execution extends SynchronousNonBlockingStepExecution<List<String>> {
         private static final long serialVersionUID = 1L;
 
-        protected Execution(@Nonnull StepContext context) {
+        private final int maxInvocations;
+        private final String boundaryMarker;
+        private final boolean parallel;
+
+        protected Execution(@Nonnull StepContext context, int maxInvocations, @CheckForNull String boundaryMarker, boolean parallel) {
             super(context);
+            this.maxInvocations = maxInvocations;
+            this.boundaryMarker = boundaryMarker;
+            this.parallel = parallel;
         }
 
         @Override
@@ -43,12 +102,13 @@ public class BuildScanPublisher extends Step {
             if (!EnrichedSummaryConfig.get().isGlobalBuildScanDetection()) {
                 ScanDetailService scanDetailService = new ScanDetailService(EnrichedSummaryConfig.get());
 
-                BuildScanLogScanner scanner = new BuildScanLogScanner(new DefaultBuildScanPublishedListener(run, scanDetailService));
-                try (
-                    BufferedReader logReader = new BufferedReader(run.getLogReader());
-                    Stream<String> lines = logReader.lines()
-                ) {
-                    lines.forEach(scanner::scanLine);
+                BuildScanPublishedListener listener = new DefaultBuildScanPublishedListener(run, scanDetailService);
+                if (!scanTail(run, listener)) {
+                    // Only scan the output written since the previous call
+                    BuildScanLogCheckpoint checkpoint = RunUtil.getOrCreateAction(run, BuildScanLogCheckpoint.class, BuildScanLogCheckpoint::new);
+                    try (InputStream log = run.getLogInputStream()) {
+                        checkpoint.scan(log, run.getCharset(), listener);
+                    }
                 }
             }
 
@@ -58,6 +118,26 @@ public class BuildScanPublisher extends Step {
             }
             return Collections.emptyList();
         }
+
+        /**
+         * Scans the end of the log backwards if requested and possible, returns whether it has been scanned.
+         */
+        private boolean scanTail(Run<?, ?> run, BuildScanPublishedListener listener) throws IOException {
+            if (maxInvocations <= 0 && boundaryMarker == null) {
+                return false;
+            }
+            // Compressed or externally stored logs can only be read from the start
+            File logFile = run.getLogFile();
+            if (!logFile.isFile() || logFile.getName().endsWith(".gz") || !ReverseBuildScanLogScanner.supports(run.getCharset())) {
+                LOGGER.log(Level.FINE, "Scanning the whole log of {0}", run);
+                return false;
+            }
+            int parallelism = parallel ? Runtime.getRuntime().availableProcessors() : 1;
+            ReverseBuildScanLogScanner scanner =
+                new ReverseBuildScanLogScanner(LogMarkers.get(), run.getCharset(), maxInvocations, boundaryMarker, parallelism);
+            scanner.scan(logFile.toPath()).forEach(listener::onBuildScanPublished);
+            return true;
+        }
     }
 
     @Extension
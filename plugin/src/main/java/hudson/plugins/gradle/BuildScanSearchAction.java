@@ -0,0 +1,92 @@
+package hudson.plugins.gradle;
+
+import hudson.Extension;
+import hudson.model.Job;
+import hudson.model.RootAction;
+import jenkins.model.Jenkins;
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
+import org.apache.commons.lang.StringUtils;
+import org.kohsuke.stapler.HttpResponse;
+import org.kohsuke.stapler.HttpResponses;
+import org.kohsuke.stapler.QueryParameter;
+import org.kohsuke.stapler.verb.GET;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Searches the {@link BuildScanSearchIndex} from {@code /buildScanSearch/query}. Results are limited to the jobs the
+ * user can read, no run is loaded.
+ */
+@Extension
+public class BuildScanSearchAction implements RootAction {
+
+    private static final int PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    @Override
+    public String getIconFileName() {
+        return null;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Build Scan Search";
+    }
+
+    @Override
+    public String getUrlName() {
+        return "buildScanSearch";
+    }
+
+    @GET
+    public HttpResponse doQuery(@QueryParameter String scan,
+                                @QueryParameter String job,
+                                @QueryParameter String buildTool,
+                                @QueryParameter String project,
+                                @QueryParameter String outcome,
+                                @QueryParameter int start,
+                                @QueryParameter int limit) {
+        Jenkins.get().checkPermission(Jenkins.READ);
+        BuildScanSearchIndex index = BuildScanSearchIndex.getIfAvailable();
+        if (index == null) {
+            return HttpResponses.notFound();
+        }
+
+        // Several scans usually belong to the same job, check its permission only once
+        Map<String, Boolean> readableJobs = new HashMap<>();
+        Predicate<BuildScanSearchIndex.Entry> filter = e ->
+            (StringUtils.isEmpty(scan) || scan.equals(e.getScanId()) || scan.equals(e.getScanUrl()))
+                && (StringUtils.isEmpty(job) || job.equals(e.getJob()))
+                && (StringUtils.isEmpty(buildTool) || e.getBuildToolType() != null && buildTool.equalsIgnoreCase(e.getBuildToolType().name()))
+                && (StringUtils.isEmpty(project) || project.equals(e.getProjectName()))
+                && (StringUtils.isEmpty(outcome) || outcome.equalsIgnoreCase(outcome(e)))
+                && readableJobs.computeIfAbsent(e.getJob(), name -> Jenkins.get().getItemByFullName(name, Job.class) != null);
+
+        JSONArray scans = new JSONArray();
+        int pageSize = limit > 0 ? Math.min(limit, MAX_PAGE_SIZE) : PAGE_SIZE;
+        for (BuildScanSearchIndex.Entry entry : index.search(filter, Math.max(0, start), pageSize)) {
+            JSONObject json = new JSONObject();
+            json.put("scanUrl", entry.getScanUrl());
+            json.put("scanId", entry.getScanId());
+            json.put("job", entry.getJob());
+            json.put("run", entry.getRun());
+            json.put("buildTool", entry.getBuildToolType() != null ? entry.getBuildToolType().name() : null);
+            json.put("buildToolVersion", entry.getBuildToolVersion());
+            json.put("project", entry.getProjectName());
+            json.put("outcome", outcome(entry));
+            scans.add(json);
+        }
+        JSONObject json = new JSONObject();
+        json.put("start", Math.max(0, start));
+        json.put("scans", scans);
+        return HttpResponses.okJSON(json);
+    }
+
+    private static String outcome(BuildScanSearchIndex.Entry entry) {
+        Boolean failed = entry.getFailed();
+        return failed == null ? null : failed ? "FAILED" : "SUCCEEDED";
+    }
+}
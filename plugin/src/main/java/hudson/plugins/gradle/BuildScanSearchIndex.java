@@ -0,0 +1,413 @@
+package hudson.plugins.gradle;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import hudson.Extension;
+import hudson.model.Item;
+import hudson.model.Run;
+import hudson.model.listeners.ItemListener;
+import hudson.model.listeners.RunListener;
+import hudson.plugins.gradle.enriched.ScanDetail;
+import hudson.util.AtomicFileWriter;
+import jenkins.model.Jenkins;
+import jenkins.util.SystemProperties;
+
+import javax.annotation.CheckForNull;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Controller-wide index of the build scans published by runs, to find runs by scan, project or build tool without
+ * loading them.
+ * <p>
+ * The index is fed by {@link AbstractBuildScanAction} as scans and their details are added, and stored as a journal of
+ * tab-separated records, one per line, replayed into memory when the controller starts. Later records replace earlier
+ * ones for the same scan. The journal is rewritten without superseded records once they make up half of it.
+ */
+@Extension
+public class BuildScanSearchIndex {
+
+    private static final Logger LOGGER = Logger.getLogger(BuildScanSearchIndex.class.getName());
+
+    private static final int MAX_ENTRIES =
+        SystemProperties.getInteger(BuildScanSearchIndex.class.getName() + ".maxEntries", 100_000);
+
+    private static final String ADD = "+";
+    private static final String REMOVE_RUN = "-";
+    private static final String REMOVE_JOB = "x";
+    private static final String RENAME_JOB = ">";
+
+    private static final String SCAN_ID_PATH = "/s/";
+
+    // Job names, build tool versions and project names repeat across many scans
+    private final Interner<String> strings = Interners.newWeakInterner();
+
+    // Ordered from oldest to newest scan
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+    private final int maxEntries;
+    private final Path journal;
+    private int journalRecords;
+
+    public BuildScanSearchIndex() {
+        this(MAX_ENTRIES, Jenkins.get().getRootDir().toPath().resolve(BuildScanSearchIndex.class.getName() + ".tsv"));
+    }
+
+    @VisibleForTesting
+    BuildScanSearchIndex(int maxEntries, Path journal) {
+        this.maxEntries = maxEntries;
+        this.journal = journal;
+        load();
+    }
+
+    /**
+     * Returns the index, or {@code null} when Jenkins is not running.
+     */
+    @CheckForNull
+    static BuildScanSearchIndex getIfAvailable() {
+        Jenkins jenkins = Jenkins.getInstanceOrNull();
+        return jenkins != null ? jenkins.getExtensionList(BuildScanSearchIndex.class).get(BuildScanSearchIndex.class) : null;
+    }
+
+    void addScanUrl(Run<?, ?> run, String scanUrl) {
+        String job = run.getParent().getFullName();
+        synchronized (this) {
+            Entry existing = entries.get(scanUrl);
+            if (existing != null && existing.isOf(job, run.getNumber())) {
+                return;
+            }
+            put(new Entry(scanUrl, strings.intern(job), run.getNumber(), null, null, null, null));
+        }
+    }
+
+    void addScanDetail(Run<?, ?> run, ScanDetail scanDetail) {
+        String job = run.getParent().getFullName();
+        Boolean failed = scanDetail.getHasFailed();
+        synchronized (this) {
+            put(new Entry(
+                scanDetail.getUrl(),
+                strings.intern(job),
+                run.getNumber(),
+                scanDetail.getBuildToolType(),
+                intern(scanDetail.getBuildToolVersion()),
+                intern(scanDetail.getProjectName()),
+                failed));
+        }
+    }
+
+    synchronized void removeRun(String job, int number) {
+        if (entries.values().removeIf(e -> e.isOf(job, number))) {
+            append(REMOVE_RUN, job, String.valueOf(number));
+        }
+    }
+
+    synchronized void removeJobs(String fullName) {
+        if (entries.values().removeIf(e -> e.isInJobOrFolder(fullName))) {
+            append(REMOVE_JOB, fullName);
+        }
+    }
+
+    synchronized void renameJobs(String oldFullName, String newFullName) {
+        if (entries.values().stream().anyMatch(e -> e.isInJobOrFolder(oldFullName))) {
+            entries.replaceAll((url, e) -> e.isInJobOrFolder(oldFullName) ? e.moveTo(strings.intern(newFullName + e.job.substring(oldFullName.length()))) : e);
+            append(RENAME_JOB, oldFullName, newFullName);
+        }
+    }
+
+    /**
+     * Returns the matching scans from newest to oldest, skipping the first {@code start} ones.
+     */
+    public synchronized List<Entry> search(Predicate<Entry> filter, int start, int limit) {
+        List<Entry> all = new ArrayList<>(entries.values());
+        List<Entry> page = new ArrayList<>();
+        int skipped = 0;
+        for (int i = all.size() - 1; i >= 0 && page.size() < limit; i--) {
+            Entry entry = all.get(i);
+            if (filter.test(entry) && skipped++ >= start) {
+                page.add(entry);
+            }
+        }
+        return page;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void put(Entry entry) {
+        entries.remove(entry.scanUrl);
+        entries.put(entry.scanUrl, entry);
+        evict();
+        append(ADD, entry.toRecord());
+    }
+
+    private void evict() {
+        Iterator<Entry> it = entries.values().iterator();
+        while (entries.size() > maxEntries && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    @CheckForNull
+    private String intern(@CheckForNull String value) {
+        return value != null ? strings.intern(value) : null;
+    }
+
+    private void append(String type, String... fields) {
+        journalRecords++;
+        if (needsCompaction()) {
+            compact();
+            return;
+        }
+        try (Writer writer = Files.newBufferedWriter(journal, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write(type + "\t" + String.join("\t", fields) + "\n");
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Unable to update the build scan index", e);
+        }
+    }
+
+    private void compact() {
+        try {
+            Files.createDirectories(journal.getParent());
+            AtomicFileWriter writer = new AtomicFileWriter(journal, StandardCharsets.UTF_8);
+            try {
+                for (Entry entry : entries.values()) {
+                    writer.write(ADD + "\t" + String.join("\t", entry.toRecord()) + "\n");
+                }
+                writer.commit();
+            } finally {
+                writer.abort();
+            }
+            journalRecords = entries.size();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Unable to compact the build scan index", e);
+        }
+    }
+
+    private synchronized void load() {
+        int malformedRecords = 0;
+        try (BufferedReader reader = Files.newBufferedReader(journal, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                journalRecords++;
+                if (!replay(line.split("\t", -1))) {
+                    malformedRecords++;
+                }
+            }
+        } catch (NoSuchFileException e) {
+            return;
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Unable to load the build scan index, it will be rebuilt as scans are published", e);
+        }
+        // Malformed records, e.g. a line truncated by a crash, are dropped from the journal before appending to it
+        if (malformedRecords > 0) {
+            LOGGER.log(Level.WARNING, "Skipped {0} malformed records of the build scan index", malformedRecords);
+            compact();
+        } else if (needsCompaction()) {
+            compact();
+        }
+    }
+
+    private boolean needsCompaction() {
+        return journalRecords > 2 * Math.max(entries.size(), 1000);
+    }
+
+    /**
+     * Applies a record of the journal, returns {@code false} if it is malformed.
+     */
+    private boolean replay(String[] record) {
+        try {
+            switch (record[0]) {
+                case ADD:
+                    if (record.length < 1 + Entry.RECORD_FIELDS) {
+                        return false;
+                    }
+                    Entry entry = Entry.fromRecord(record, this::intern);
+                    entries.remove(entry.scanUrl);
+                    entries.put(entry.scanUrl, entry);
+                    evict();
+                    return true;
+                case REMOVE_RUN:
+                    if (record.length < 3) {
+                        return false;
+                    }
+                    int number = Integer.parseInt(record[2]);
+                    entries.values().removeIf(e -> e.isOf(record[1], number));
+                    return true;
+                case REMOVE_JOB:
+                    if (record.length < 2) {
+                        return false;
+                    }
+                    entries.values().removeIf(e -> e.isInJobOrFolder(record[1]));
+                    return true;
+                case RENAME_JOB:
+                    if (record.length < 3) {
+                        return false;
+                    }
+                    entries.replaceAll((url, e) -> e.isInJobOrFolder(record[1]) ? e.moveTo(intern(record[2] + e.job.substring(record[1].length()))) : e);
+                    return true;
+                default:
+                    LOGGER.fine(() -> "Ignoring unknown build scan index record " + record[0]);
+                    return true;
+            }
+        } catch (IllegalArgumentException e) {
+            // Unparsable run number or build tool type
+            return false;
+        }
+    }
+
+    public static final class Entry {
+
+        private static final int RECORD_FIELDS = 7;
+
+        private final String scanUrl;
+        private final String job;
+        private final int run;
+        @CheckForNull
+        private final BuildToolType buildToolType;
+        @CheckForNull
+        private final String buildToolVersion;
+        @CheckForNull
+        private final String projectName;
+        @CheckForNull
+        private final Boolean failed;
+
+        private Entry(String scanUrl, String job, int run, @CheckForNull BuildToolType buildToolType,
+                      @CheckForNull String buildToolVersion, @CheckForNull String projectName, @CheckForNull Boolean failed) {
+            this.scanUrl = scanUrl;
+            this.job = job;
+            this.run = run;
+            this.buildToolType = buildToolType;
+            this.buildToolVersion = buildToolVersion;
+            this.projectName = projectName;
+            this.failed = failed;
+        }
+
+        private static Entry fromRecord(String[] record, UnaryOperator<String> intern) {
+            return new Entry(
+                record[1],
+                intern.apply(record[2]),
+                Integer.parseInt(record[3]),
+                record[4].isEmpty() ? null : BuildToolType.valueOf(record[4]),
+                record[5].isEmpty() ? null : intern.apply(record[5]),
+                record[6].isEmpty() ? null : intern.apply(record[6]),
+                record[7].isEmpty() ? null : Boolean.valueOf(record[7]));
+        }
+
+        private String[] toRecord() {
+            return new String[]{
+                clean(scanUrl),
+                clean(job),
+                String.valueOf(run),
+                buildToolType != null ? buildToolType.name() : "",
+                clean(buildToolVersion),
+                clean(projectName),
+                failed != null ? failed.toString() : ""
+            };
+        }
+
+        private static String clean(@CheckForNull String value) {
+            return value != null ? value.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ') : "";
+        }
+
+        private boolean isOf(String job, int run) {
+            return this.run == run && this.job.equals(job);
+        }
+
+        private boolean isInJobOrFolder(String fullName) {
+            return job.equals(fullName) || job.startsWith(fullName + "/");
+        }
+
+        private Entry moveTo(String job) {
+            return new Entry(scanUrl, job, run, buildToolType, buildToolVersion, projectName, failed);
+        }
+
+        public String getScanUrl() {
+            return scanUrl;
+        }
+
+        @CheckForNull
+        public String getScanId() {
+            int index = scanUrl.lastIndexOf(SCAN_ID_PATH);
+            return index >= 0 ? scanUrl.substring(index + SCAN_ID_PATH.length()) : null;
+        }
+
+        public String getJob() {
+            return job;
+        }
+
+        public int getRun() {
+            return run;
+        }
+
+        @CheckForNull
+        public BuildToolType getBuildToolType() {
+            return buildToolType;
+        }
+
+        @CheckForNull
+        public String getBuildToolVersion() {
+            return buildToolVersion;
+        }
+
+        @CheckForNull
+        public String getProjectName() {
+            return projectName;
+        }
+
+        /**
+         * Returns whether the build failed, or {@code null} if the details of the scan are not known.
+         */
+        @CheckForNull
+        public Boolean getFailed() {
+            return failed;
+        }
+    }
+
+    @Extension
+    public static final class IndexingRunListener extends RunListener<Run<?, ?>> {
+
+        @Override
+        public void onDeleted(Run<?, ?> run) {
+            BuildScanSearchIndex index = getIfAvailable();
+            if (index != null) {
+                index.removeRun(run.getParent().getFullName(), run.getNumber());
+            }
+        }
+    }
+
+    @Extension
+    public static final class IndexingItemListener extends ItemListener {
+
+        @Override
+        public void onDeleted(Item item) {
+            BuildScanSearchIndex index = getIfAvailable();
+            if (index != null) {
+                index.removeJobs(item.getFullName());
+            }
+        }
+
+        @Override
+        public void onLocationChanged(Item item, String oldFullName, String newFullName) {
+            BuildScanSearchIndex index = getIfAvailable();
+            if (index != null) {
+                index.renameJobs(oldFullName, newFullName);
+            }
+        }
+    }
+}
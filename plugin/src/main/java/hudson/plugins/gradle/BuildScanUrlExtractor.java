@@ -0,0 +1,88 @@
+package hudson.plugins.gradle;
+
+import javax.annotation.CheckForNull;
+
+/**
+ * Extracts build scan URLs from log lines in a single forward pass, without backtracking.
+ * <p>
+ * Returns the same URL as matching the whole line against {@code .*(?:\[INFO] )?(https?://.*&#47;s/.*)}, that is the
+ * suffix of the line starting at the last {@code http://} or {@code https://} which is followed by {@code /s/}.
+ */
+final class BuildScanUrlExtractor {
+
+    private static final String HTTP = "http";
+    private static final String SCHEME_SEPARATOR = "://";
+    private static final String SCAN_PATH = "/s/";
+
+    private BuildScanUrlExtractor() {
+    }
+
+    @CheckForNull
+    static String extract(String line) {
+        int start = indexOfBuildScanUrl(line);
+        return start < 0 ? null : line.substring(start);
+    }
+
+    /**
+     * Returns the start index of the build scan URL in the line, or -1 if there is none.
+     */
+    static int indexOfBuildScanUrl(CharSequence line) {
+        int result = -1;
+        // Start and end of the last two URL schemes, a path separator can only overlap the end of the last one
+        int latestStart = -1;
+        int latestEnd = -1;
+        int previousStart = -1;
+
+        int length = line.length();
+        for (int i = 0; i < length; i++) {
+            char c = line.charAt(i);
+            if (isLineTerminator(c)) {
+                // '.' does not match line terminators
+                return -1;
+            }
+            if (c == 'h') {
+                int end = schemeEnd(line, i);
+                if (end > 0) {
+                    previousStart = latestStart;
+                    latestStart = i;
+                    latestEnd = end;
+                }
+            } else if (c == '/' && regionMatches(line, i, SCAN_PATH)) {
+                if (latestStart >= 0 && latestEnd <= i) {
+                    result = latestStart;
+                } else if (previousStart >= 0) {
+                    result = previousStart;
+                }
+            }
+        }
+        return result;
+    }
+
+    // Returns the index following "http://" or "https://" at the given position, or -1
+    private static int schemeEnd(CharSequence line, int start) {
+        if (!regionMatches(line, start, HTTP)) {
+            return -1;
+        }
+        int i = start + HTTP.length();
+        if (i < line.length() && line.charAt(i) == 's') {
+            i++;
+        }
+        return regionMatches(line, i, SCHEME_SEPARATOR) ? i + SCHEME_SEPARATOR.length() : -1;
+    }
+
+    private static boolean regionMatches(CharSequence line, int offset, String expected) {
+        if (line.length() - offset < expected.length()) {
+            return false;
+        }
+        for (int i = 0; i < expected.length(); i++) {
+            if (line.charAt(offset + i) != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+}
@@ -0,0 +1,86 @@
+package hudson.plugins.gradle;
+
+import hudson.plugins.gradle.enriched.ScanDetail;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Build scan URLs and their details, as stored by an {@link AbstractBuildScanAction}.
+ * <p>
+ * The persisted lists are never modified, adding an element replaces them with a copy. Readers, including XStream
+ * while saving them, thus never see a list being modified and don't need to lock.
+ */
+final class BuildScans {
+
+    private volatile List<String> scanUrls = new ArrayList<>();
+    private volatile List<ScanDetail> scanDetails = new ArrayList<>();
+
+    // Hash indexes of the lists above, also locked while replacing them
+    private transient Set<String> scanUrlIndex = new HashSet<>();
+    private transient Set<ScanDetail> scanDetailIndex = new HashSet<>();
+
+    BuildScans() {
+    }
+
+    BuildScans(Collection<String> scanUrls, Collection<ScanDetail> scanDetails) {
+        scanUrls.forEach(this::addScanUrl);
+        scanDetails.forEach(this::addScanDetail);
+    }
+
+    boolean addScanUrl(String scanUrl) {
+        synchronized (scanUrlIndex) {
+            if (!scanUrlIndex.add(scanUrl)) {
+                return false;
+            }
+            scanUrls = append(scanUrls, scanUrl);
+            return true;
+        }
+    }
+
+    boolean addScanDetail(ScanDetail scanDetail) {
+        synchronized (scanDetailIndex) {
+            if (!scanDetailIndex.add(scanDetail)) {
+                return false;
+            }
+            scanDetails = append(scanDetails, scanDetail);
+            return true;
+        }
+    }
+
+    List<String> getScanUrls() {
+        return Collections.unmodifiableList(scanUrls);
+    }
+
+    List<ScanDetail> getScanDetails() {
+        return Collections.unmodifiableList(scanDetails);
+    }
+
+    private static <T> List<T> append(List<T> list, T element) {
+        List<T> copy = new ArrayList<>(list.size() + 1);
+        copy.addAll(list);
+        copy.add(element);
+        return copy;
+    }
+
+    /**
+     * Invoked by XStream when this object is read into memory.
+     */
+    @SuppressWarnings("unused")
+    private Object readResolve() {
+        if (scanUrls == null) {
+            scanUrls = new ArrayList<>();
+        }
+        if (scanDetails == null) {
+            scanDetails = new ArrayList<>();
+        }
+        scanUrlIndex = new HashSet<>(scanUrls);
+        scanDetailIndex = new HashSet<>(scanDetails);
+
+        return this;
+    }
+}
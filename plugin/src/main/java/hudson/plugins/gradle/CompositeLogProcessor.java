@@ -0,0 +1,50 @@
+package hudson.plugins.gradle;
+
+import hudson.console.ConsoleNote;
+
+import javax.annotation.CheckForNull;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.List;
+
+/**
+ * Splits and decodes the log once and dispatches every line to all the given scanners. The log is forwarded
+ * unchanged as it is written.
+ */
+public class CompositeLogProcessor extends PassThroughLogProcessor {
+
+    private final LogLineScanner[] scanners;
+
+    public CompositeLogProcessor(OutputStream out, Charset charset, List<? extends LogLineScanner> scanners) {
+        super(out, charset, anchors(scanners));
+        this.scanners = scanners.toArray(new LogLineScanner[0]);
+    }
+
+    @CheckForNull
+    private static LogLineAnchors anchors(List<? extends LogLineScanner> scanners) {
+        LogLineAnchors anchors = null;
+        for (LogLineScanner scanner : scanners) {
+            LogLineAnchors scannerAnchors = scanner.getAnchors();
+            if (scannerAnchors == null) {
+                return null;
+            }
+            anchors = anchors == null ? scannerAnchors : anchors.plus(scannerAnchors);
+        }
+        return anchors;
+    }
+
+    @Override
+    protected void skipLogLine() {
+        for (LogLineScanner scanner : scanners) {
+            scanner.skipLine();
+        }
+    }
+
+    @Override
+    protected void processLogLine(String line) {
+        line = trimEOL(ConsoleNote.removeNotes(line));
+        for (LogLineScanner scanner : scanners) {
+            scanner.scanLine(line);
+        }
+    }
+}
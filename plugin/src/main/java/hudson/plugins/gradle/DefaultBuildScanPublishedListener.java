@@ -5,8 +5,9 @@ import hudson.plugins.gradle.enriched.ScanDetailService;
 import hudson.plugins.gradle.util.RunUtil;
 
 import java.util.Collections;
+import java.util.List;
 
-public class DefaultBuildScanPublishedListener implements BuildScanPublishedListener {
+public class DefaultBuildScanPublishedListener implements LogEventListener {
 
     private final Actionable target;
     private final ScanDetailService scanDetailService;
@@ -19,6 +20,12 @@ public class DefaultBuildScanPublishedListener implements BuildScanPublishedList
     @Override
     public void onBuildScanPublished(String scanUrl) {
         RunUtil.getOrCreateAction(target, BuildScanAction.class, BuildScanAction::new)
-            .addScanUrls(Collections.singleton(scanUrl), scanDetailService::getScanDetail);
+            .addScanUrls(Collections.singleton(scanUrl), scanDetailService);
+    }
+
+    @Override
+    public void onGradleTasksFinished(List<GradleTask> tasks) {
+        RunUtil.getOrCreateAction(target, GradleTaskPerformanceAction.class, GradleTaskPerformanceAction::new)
+            .getStatistics().addAll(tasks);
     }
 }
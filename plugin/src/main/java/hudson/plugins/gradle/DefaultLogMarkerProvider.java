@@ -0,0 +1,55 @@
+package hudson.plugins.gradle;
+
+import hudson.Extension;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Extension
+public final class DefaultLogMarkerProvider implements LogMarkerProvider {
+
+    @Override
+    public Collection<String> getBuildScanPublishingMessages() {
+        return Arrays.asList(
+            "Publishing Build Scan...",
+            "Publishing build scan...",
+            "Publishing build information...",
+            "Publishing Build Scan to Develocity...",
+            "Publishing build scan to Develocity...",
+            "Publishing build information to Develocity..."
+        );
+    }
+
+    @Override
+    public Map<String, BuildToolType> getBuildAgentErrorPrefixes() {
+        Map<String, BuildToolType> prefixes = new LinkedHashMap<>();
+        prefixes.put("Internal error in Develocity Gradle plugin:", BuildToolType.GRADLE);
+        prefixes.put("[ERROR] Internal error in Develocity Maven extension:", BuildToolType.MAVEN);
+        prefixes.put("Internal error in Gradle Enterprise Gradle plugin:", BuildToolType.GRADLE);
+        prefixes.put("[ERROR] Internal error in Gradle Enterprise Maven extension:", BuildToolType.MAVEN);
+        return prefixes;
+    }
+
+    @Override
+    public Collection<String> getBuildStartMessages() {
+        return Arrays.asList(
+            "Develocity plugins resolution:",
+            "Welcome to Gradle",
+            "Starting a Gradle Daemon",
+            "> Configure project ",
+            "> Task :",
+            "[INFO] Scanning for projects"
+        );
+    }
+
+    @Override
+    public Collection<String> getBuildOutcomeMessages() {
+        return Arrays.asList(
+            "BUILD SUCCESS",
+            "BUILD FAILED",
+            "BUILD FAILURE"
+        );
+    }
+}
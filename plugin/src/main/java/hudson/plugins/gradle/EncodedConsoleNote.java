@@ -0,0 +1,31 @@
+package hudson.plugins.gradle;
+
+import hudson.console.ConsoleNote;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.function.Supplier;
+
+/**
+ * A stateless console note which is serialized and signed only once per JVM, then written as-is. Notes are inserted
+ * before every matching line of large logs, encoding them each time would dominate the cost of annotating the log.
+ */
+final class EncodedConsoleNote {
+
+    private final Supplier<? extends ConsoleNote<?>> note;
+    // Computing it twice concurrently is harmless, both results are equal
+    private volatile byte[] encoded;
+
+    EncodedConsoleNote(Supplier<? extends ConsoleNote<?>> note) {
+        this.note = note;
+    }
+
+    void encodeTo(OutputStream out) throws IOException {
+        byte[] bytes = encoded;
+        if (bytes == null) {
+            bytes = note.get().encodeToBytes().toByteArray();
+            encoded = bytes;
+        }
+        out.write(bytes);
+    }
+}
@@ -0,0 +1,88 @@
+package hudson.plugins.gradle;
+
+import jenkins.util.SystemProperties;
+
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.List;
+
+/**
+ * A {@link CompositeLogProcessor} which only feeds its scanners while a Gradle or Maven build is running. Until a
+ * build start message is seen, lines are only matched against the start messages and otherwise forwarded untouched.
+ * After the build outcome, scanning goes on for a few lines to catch the build scan link, then stops again.
+ * <p>
+ * The charset must be ASCII compatible, as the build boundaries are found in the raw bytes.
+ */
+public class GatedLogProcessor extends CompositeLogProcessor {
+
+    // Build scan links are printed right after the build outcome
+    static final int LINES_AFTER_BUILD_OUTCOME =
+        SystemProperties.getInteger(GatedLogProcessor.class.getName() + ".linesAfterBuildOutcome", 100);
+
+    private final LogLineAnchors buildStartAnchors;
+    private final LogLineAnchors buildOutcomeAnchors;
+
+    private boolean active;
+    // Lines left to scan after the build outcome, negative while the build is running
+    private int linesLeft = -1;
+    private boolean buildStartLine;
+    private boolean buildOutcomeLine;
+
+    public GatedLogProcessor(OutputStream out,
+                             Charset charset,
+                             List<? extends LogLineScanner> scanners,
+                             LogLineAnchors buildStartAnchors,
+                             LogLineAnchors buildOutcomeAnchors) {
+        super(out, charset, scanners);
+        this.buildStartAnchors = buildStartAnchors;
+        this.buildOutcomeAnchors = buildOutcomeAnchors;
+    }
+
+    boolean isActive() {
+        return active;
+    }
+
+    @Override
+    protected boolean isCandidateLine(byte[] bytes, int offset, int length) {
+        if (!active) {
+            buildStartLine = buildStartAnchors.find(bytes, offset, length);
+            buildOutcomeLine = false;
+            return buildStartLine;
+        }
+        // Start messages like "> Task :" are frequent, only look for them once the build is over
+        buildStartLine = linesLeft >= 0 && buildStartAnchors.find(bytes, offset, length);
+        buildOutcomeLine = buildOutcomeAnchors.find(bytes, offset, length);
+        return buildStartLine || buildOutcomeLine || super.isCandidateLine(bytes, offset, length);
+    }
+
+    @Override
+    protected void skipLogLine() {
+        if (active) {
+            super.skipLogLine();
+            countDown();
+        }
+    }
+
+    @Override
+    protected void processLogLine(String line) {
+        if (buildStartLine) {
+            active = true;
+            linesLeft = -1;
+        }
+        super.processLogLine(line);
+        if (buildOutcomeLine) {
+            linesLeft = LINES_AFTER_BUILD_OUTCOME;
+        } else if (!buildStartLine) {
+            countDown();
+        }
+    }
+
+    private void countDown() {
+        if (linesLeft > 0) {
+            linesLeft--;
+        } else if (linesLeft == 0) {
+            active = false;
+            linesLeft = -1;
+        }
+    }
+}
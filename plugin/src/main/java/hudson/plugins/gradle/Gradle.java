@@ -310,10 +310,17 @@ public class Gradle extends Builder {
             rootLauncher = build.getProject().getSomeWorkspace();
         }
 
+        FilePath buildScanLinksFile = BuildScanLinksFile.create(workspace);
+        if (buildScanLinksFile != null) {
+            env.put(BuildScanLinksFile.ENV_VAR, buildScanLinksFile.getRemote());
+        }
+
         try {
             ScanDetailService scanDetailService = new ScanDetailService(EnrichedSummaryConfig.get());
             DefaultBuildScanPublishedListener buildScanListener = new DefaultBuildScanPublishedListener(build, scanDetailService);
-            GradleConsoleAnnotator gca = new GradleConsoleAnnotator(listener.getLogger(), build.getCharset(), true, buildScanListener);
+            // Scanned build scans are only recorded if the links file holds none
+            SimpleBuildScanPublishedListener scannedBuildScans = new SimpleBuildScanPublishedListener();
+            GradleConsoleAnnotator gca = new GradleConsoleAnnotator(listener.getLogger(), build.getCharset(), true, scannedBuildScans, buildScanListener);
 
             int r;
             try {
@@ -321,6 +328,8 @@ public class Gradle extends Builder {
                     .pwd(rootLauncher).join();
             } finally {
                 gca.forceEol();
+                BuildScanLinksFile.collectOrElse(buildScanLinksFile, scannedBuildScans.getBuildScans())
+                    .forEach(buildScanListener::onBuildScanPublished);
             }
             boolean success = r == 0;
             // if the build is successful then set it as success otherwise as a failure.
@@ -1,10 +1,12 @@
 package hudson.plugins.gradle;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.charset.Charset;
 
 import static hudson.plugins.gradle.TimestampPrefixDetector.detectTimestampPrefix;
+import static hudson.plugins.gradle.TimestampPrefixDetector.timestampOf;
 import static hudson.plugins.gradle.TimestampPrefixDetector.trimTimestampPrefix;
 
 /**
@@ -13,8 +15,17 @@ import static hudson.plugins.gradle.TimestampPrefixDetector.trimTimestampPrefix;
  */
 public final class GradleConsoleAnnotator extends AbstractGradleLogProcessor {
 
+    private static final LogLineAnchors GRADLE_OUTPUT_ANCHORS = LogLineAnchors.of("> Task :", "> Configure", "BUILD SUCCESSFUL", "BUILD FAILED");
+    // Length of a prefix like "[2023-12-08T10:05:56.488Z] ", see TimestampPrefixDetector
+    private static final int TIMESTAMP_PREFIX_LENGTH = 27;
+
+    private static final EncodedConsoleNote TASK_NOTE = new EncodedConsoleNote(GradleTaskNote::new);
+    private static final EncodedConsoleNote OUTCOME_NOTE = new EncodedConsoleNote(GradleOutcomeNote::new);
+
     private final boolean annotateGradleOutput;
     private final BuildScanLogScanner buildScanLogScanner;
+    @Nullable
+    private final GradleTaskTimer taskTimer;
 
     private transient Integer timestampPrefix;
 
@@ -22,9 +33,51 @@ public final class GradleConsoleAnnotator extends AbstractGradleLogProcessor {
                                   Charset charset,
                                   boolean annotateGradleOutput,
                                   BuildScanPublishedListener buildScanListener) {
-        super(out, charset);
+        this(out, charset, annotateGradleOutput, buildScanListener, null);
+    }
+
+    /**
+     * @param taskListener receives the tasks of each Gradle invocation, only if the Gradle output is annotated
+     */
+    public GradleConsoleAnnotator(OutputStream out,
+                                  Charset charset,
+                                  boolean annotateGradleOutput,
+                                  BuildScanPublishedListener buildScanListener,
+                                  @Nullable LogEventListener taskListener) {
+        super(out, charset, anchors(annotateGradleOutput, buildScanListener != null));
         this.annotateGradleOutput = annotateGradleOutput;
         this.buildScanLogScanner = buildScanListener != null ? new BuildScanLogScanner(buildScanListener) : null;
+        this.taskTimer = annotateGradleOutput && taskListener != null ? new GradleTaskTimer(taskListener) : null;
+    }
+
+    private static LogLineAnchors anchors(boolean annotateGradleOutput, boolean scanForBuildScans) {
+        if (annotateGradleOutput && scanForBuildScans) {
+            return GRADLE_OUTPUT_ANCHORS.plus(LogMarkers.get().getBuildScanAnchors());
+        }
+        if (annotateGradleOutput) {
+            return GRADLE_OUTPUT_ANCHORS;
+        }
+        return LogMarkers.get().getBuildScanAnchors();
+    }
+
+    @Override
+    protected boolean isCandidateLine(byte[] bytes, int length) {
+        return super.isCandidateLine(bytes, length) || (annotateGradleOutput && startsWithColon(bytes, length));
+    }
+
+    // Old Gradle versions print tasks as ":compileJava", possibly after a timestamp prefix
+    private static boolean startsWithColon(byte[] bytes, int length) {
+        if (length > 0 && bytes[0] == ':') {
+            return true;
+        }
+        return length > TIMESTAMP_PREFIX_LENGTH && bytes[0] == '[' && bytes[TIMESTAMP_PREFIX_LENGTH] == ':';
+    }
+
+    @Override
+    protected void skipLogLine() {
+        if (buildScanLogScanner != null) {
+            buildScanLogScanner.skipLine();
+        }
     }
 
     @Override
@@ -37,13 +90,22 @@ public final class GradleConsoleAnnotator extends AbstractGradleLogProcessor {
             if (timestampPrefix == null) {
                 timestampPrefix = detectTimestampPrefix(line);
             }
+            long timestamp = taskTimer != null ? timestampOf(timestampPrefix, line) : 0;
             line = trimTimestampPrefix(timestampPrefix, line);
             if (line.startsWith(":") || line.startsWith("> Task :")) {
-                new GradleTaskNote().encodeTo(out);
+                TASK_NOTE.encodeTo(out);
+                if (taskTimer != null) {
+                    taskTimer.onTaskLine(line, timestamp);
+                }
+            } else if (taskTimer != null && line.startsWith("> Configure")) {
+                taskTimer.onConfigureLine(timestamp);
             }
 
             if (line.startsWith("BUILD SUCCESSFUL") || line.startsWith("BUILD FAILED")) {
-                new GradleOutcomeNote().encodeTo(out);
+                OUTCOME_NOTE.encodeTo(out);
+                if (taskTimer != null) {
+                    taskTimer.onBuildFinished();
+                }
             }
         }
 
@@ -0,0 +1,44 @@
+package hudson.plugins.gradle;
+
+import hudson.Util;
+
+import java.io.Serializable;
+
+/**
+ * A task executed by a Gradle build, with its duration as seen from the console.
+ */
+public final class GradleTask implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String path;
+    private final GradleTaskOutcome outcome;
+    private final long durationMillis;
+
+    public GradleTask(String path, GradleTaskOutcome outcome, long durationMillis) {
+        this.path = path;
+        this.outcome = outcome;
+        this.durationMillis = durationMillis;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public GradleTaskOutcome getOutcome() {
+        return outcome;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public String getDuration() {
+        return Util.getTimeSpanString(durationMillis);
+    }
+
+    @Override
+    public String toString() {
+        return path + " " + outcome.getDisplayName() + " " + durationMillis + "ms";
+    }
+}
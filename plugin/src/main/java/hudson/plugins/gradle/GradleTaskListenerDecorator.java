@@ -9,10 +9,16 @@ import java.util.List;
 
 public class GradleTaskListenerDecorator extends TaskListenerDecorator implements BuildScansAware {
 
+    // Computed from the fields and methods before the remote listener was introduced
+    private static final long serialVersionUID = 121618031108132552L;
+
     private final SimpleBuildScanPublishedListener buildScanListener;
+    // Reports build scans to the controller when the log is decorated on an agent
+    private RemoteLogEventListener remoteBuildScanListener;
 
     public GradleTaskListenerDecorator() {
         buildScanListener = new SimpleBuildScanPublishedListener();
+        remoteBuildScanListener = new RemoteLogEventListener(buildScanListener);
     }
 
     @Nonnull
@@ -22,7 +28,8 @@ public class GradleTaskListenerDecorator extends TaskListenerDecorator implement
             logger,
             StandardCharsets.UTF_8,
             true,
-            buildScanListener
+            remoteBuildScanListener,
+            remoteBuildScanListener
         );
     }
 
@@ -30,4 +37,16 @@ public class GradleTaskListenerDecorator extends TaskListenerDecorator implement
     public List<String> getBuildScans() {
         return buildScanListener.getBuildScans();
     }
+
+    public GradleTaskStatistics getGradleTaskStatistics() {
+        return buildScanListener.getGradleTaskStatistics();
+    }
+
+    @SuppressWarnings("unused")
+    private Object readResolve() {
+        if (remoteBuildScanListener == null) {
+            remoteBuildScanListener = new RemoteLogEventListener(buildScanListener);
+        }
+        return this;
+    }
 }
@@ -0,0 +1,41 @@
+package hudson.plugins.gradle;
+
+import javax.annotation.CheckForNull;
+
+/**
+ * The outcome of a Gradle task, as printed next to its name on the console.
+ */
+public enum GradleTaskOutcome {
+
+    EXECUTED(null),
+    UP_TO_DATE("UP-TO-DATE"),
+    FROM_CACHE("FROM-CACHE"),
+    NO_SOURCE("NO-SOURCE"),
+    SKIPPED("SKIPPED"),
+    FAILED("FAILED");
+
+    @CheckForNull
+    private final String label;
+
+    GradleTaskOutcome(@CheckForNull String label) {
+        this.label = label;
+    }
+
+    /**
+     * Returns the outcome for the given console label, tasks without a known label have been executed.
+     */
+    static GradleTaskOutcome fromLabel(@CheckForNull String label) {
+        if (label != null) {
+            for (GradleTaskOutcome outcome : values()) {
+                if (label.equals(outcome.label)) {
+                    return outcome;
+                }
+            }
+        }
+        return EXECUTED;
+    }
+
+    public String getDisplayName() {
+        return label != null ? label : "EXECUTED";
+    }
+}
@@ -0,0 +1,66 @@
+package hudson.plugins.gradle;
+
+import hudson.model.Action;
+import hudson.model.Run;
+import jenkins.model.RunAction2;
+import jenkins.tasks.SimpleBuildStep;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Shows the slowest Gradle tasks of a run and how many tasks were avoided, from the timings extracted from its log by
+ * {@link GradleConsoleAnnotator}.
+ */
+public class GradleTaskPerformanceAction implements RunAction2, SimpleBuildStep.LastBuildAction {
+
+    static final int SUMMARY_TASKS = 10;
+
+    private final GradleTaskStatistics statistics = new GradleTaskStatistics();
+
+    private transient Run<?, ?> run;
+
+    @Override
+    public String getIconFileName() {
+        return "/plugin/gradle/images/svgs/gradle-build-scan.svg";
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Gradle Tasks";
+    }
+
+    @Override
+    public String getUrlName() {
+        return "gradleTasks";
+    }
+
+    @Override
+    public void onAttached(Run<?, ?> r) {
+        this.run = r;
+    }
+
+    @Override
+    public void onLoad(Run<?, ?> r) {
+        this.run = r;
+    }
+
+    public Run<?, ?> getRun() {
+        return run;
+    }
+
+    public GradleTaskStatistics getStatistics() {
+        return statistics;
+    }
+
+    public List<GradleTask> getSummaryTasks() {
+        List<GradleTask> slowestTasks = statistics.getSlowestTasks();
+        return slowestTasks.subList(0, Math.min(SUMMARY_TASKS, slowestTasks.size()));
+    }
+
+    @Override
+    public Collection<? extends Action> getProjectActions() {
+        return run != null ? Collections.singleton(new GradleTaskTrendAction(run.getParent())) : Collections.emptySet();
+    }
+}
@@ -0,0 +1,124 @@
+package hudson.plugins.gradle;
+
+import jenkins.util.SystemProperties;
+
+import javax.annotation.CheckForNull;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact statistics of the Gradle tasks executed by a run: the number of tasks per outcome and only the slowest
+ * tasks, so that builds with thousands of tasks don't bloat the run.
+ */
+public final class GradleTaskStatistics implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    static final int MAX_SLOWEST_TASKS =
+        SystemProperties.getInteger(GradleTaskStatistics.class.getName() + ".maxSlowestTasks", 50);
+
+    private static final Comparator<GradleTask> SLOWEST_FIRST =
+        Comparator.comparingLong(GradleTask::getDurationMillis).reversed();
+
+    private final Map<GradleTaskOutcome, Integer> outcomes = new EnumMap<>(GradleTaskOutcome.class);
+    // Ordered from slowest to fastest
+    private final List<GradleTask> slowestTasks = new ArrayList<>();
+    private long totalDurationMillis;
+
+    public synchronized void addAll(Collection<GradleTask> tasks) {
+        for (GradleTask task : tasks) {
+            outcomes.merge(task.getOutcome(), 1, Integer::sum);
+            totalDurationMillis += task.getDurationMillis();
+            addSlowTask(task);
+        }
+    }
+
+    public void merge(GradleTaskStatistics other) {
+        Map<GradleTaskOutcome, Integer> otherOutcomes;
+        List<GradleTask> otherSlowestTasks;
+        long otherTotalDurationMillis;
+        synchronized (other) {
+            otherOutcomes = new EnumMap<>(other.outcomes);
+            otherSlowestTasks = new ArrayList<>(other.slowestTasks);
+            otherTotalDurationMillis = other.totalDurationMillis;
+        }
+        synchronized (this) {
+            otherOutcomes.forEach((outcome, count) -> outcomes.merge(outcome, count, Integer::sum));
+            totalDurationMillis += otherTotalDurationMillis;
+            otherSlowestTasks.forEach(this::addSlowTask);
+        }
+    }
+
+    private void addSlowTask(GradleTask task) {
+        if (slowestTasks.size() >= MAX_SLOWEST_TASKS
+            && SLOWEST_FIRST.compare(task, slowestTasks.get(slowestTasks.size() - 1)) >= 0) {
+            return;
+        }
+        int index = Collections.binarySearch(slowestTasks, task, SLOWEST_FIRST);
+        slowestTasks.add(index >= 0 ? index : -index - 1, task);
+        if (slowestTasks.size() > MAX_SLOWEST_TASKS) {
+            slowestTasks.remove(slowestTasks.size() - 1);
+        }
+    }
+
+    public synchronized boolean isEmpty() {
+        return outcomes.isEmpty();
+    }
+
+    public synchronized int getTaskCount() {
+        return outcomes.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    public synchronized int getCount(GradleTaskOutcome outcome) {
+        return outcomes.getOrDefault(outcome, 0);
+    }
+
+    /**
+     * Returns the percentage of tasks which were up-to-date, rounded down.
+     */
+    public int getUpToDatePercentage() {
+        return percentage(GradleTaskOutcome.UP_TO_DATE);
+    }
+
+    /**
+     * Returns the percentage of tasks whose outputs were loaded from the build cache, rounded down.
+     */
+    public int getFromCachePercentage() {
+        return percentage(GradleTaskOutcome.FROM_CACHE);
+    }
+
+    private synchronized int percentage(GradleTaskOutcome outcome) {
+        int taskCount = getTaskCount();
+        return taskCount == 0 ? 0 : (int) (100L * getCount(outcome) / taskCount);
+    }
+
+    public synchronized long getTotalDurationMillis() {
+        return totalDurationMillis;
+    }
+
+    /**
+     * Returns the slowest tasks, from slowest to fastest.
+     */
+    public synchronized List<GradleTask> getSlowestTasks() {
+        return Collections.unmodifiableList(new ArrayList<>(slowestTasks));
+    }
+
+    /**
+     * Returns the longest duration of the given task, or {@code null} if it is not one of the slowest tasks.
+     */
+    @CheckForNull
+    public synchronized Long getDurationMillis(String path) {
+        for (GradleTask task : slowestTasks) {
+            if (task.getPath().equals(path)) {
+                return task.getDurationMillis();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,68 @@
+package hudson.plugins.gradle;
+
+import javax.annotation.CheckForNull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Times the tasks of a Gradle invocation from its console output. Gradle prints the {@code > Task :x} line of a task,
+ * along with its outcome, once the task completes or its grouped output is flushed, so a task is credited with the
+ * time elapsed since the previous task line. The first task is credited with the time elapsed since the
+ * {@code > Configure} line preceding it, if any. Durations are exact only when tasks run one at a time. The tasks of an
+ * invocation are reported together once it finishes.
+ */
+final class GradleTaskTimer {
+
+    private static final Pattern TASK_PATTERN = Pattern.compile("^(?:> Task )?(:[^:\\s]\\S*)(?:\\s+(\\S+))?");
+    private static final long NO_TIMESTAMP = -1;
+
+    private final LogEventListener listener;
+    private final List<GradleTask> tasks = new ArrayList<>();
+
+    // Timestamp of the previous task or configuration line of the invocation
+    private long previousTimestamp = NO_TIMESTAMP;
+
+    GradleTaskTimer(LogEventListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * @param timestamp the timestamp of a {@code > Configure} line, which precedes the execution of the tasks
+     */
+    void onConfigureLine(long timestamp) {
+        previousTimestamp = timestamp;
+    }
+
+    /**
+     * @param line the task line, without timestamp prefix
+     */
+    void onTaskLine(String line, long timestamp) {
+        Matcher matcher = TASK_PATTERN.matcher(line);
+        if (!matcher.find()) {
+            return;
+        }
+        String path = matcher.group(1);
+        GradleTaskOutcome outcome = GradleTaskOutcome.fromLabel(matcher.group(2));
+        long duration = previousTimestamp != NO_TIMESTAMP ? Math.max(0, timestamp - previousTimestamp) : 0;
+        previousTimestamp = timestamp;
+
+        // A task printing output can get a second line with its outcome, e.g. FAILED
+        int last = tasks.size() - 1;
+        if (last >= 0 && tasks.get(last).getPath().equals(path)) {
+            tasks.set(last, new GradleTask(path, outcome, tasks.get(last).getDurationMillis() + duration));
+        } else {
+            tasks.add(new GradleTask(path, outcome, duration));
+        }
+    }
+
+    void onBuildFinished() {
+        // The time spent after the last task, e.g. publishing a build scan, isn't credited to any task
+        previousTimestamp = NO_TIMESTAMP;
+        if (!tasks.isEmpty()) {
+            listener.onGradleTasksFinished(new ArrayList<>(tasks));
+            tasks.clear();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package hudson.plugins.gradle;
+
+import hudson.Util;
+import hudson.model.Action;
+import hudson.model.Job;
+import hudson.model.Run;
+import jenkins.util.SystemProperties;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Shows on the job page how the duration of the slowest Gradle tasks of the last build evolved over the previous
+ * builds, to spot slowdowns without a build scan.
+ */
+public class GradleTaskTrendAction implements Action {
+
+    private static final int TREND_TASKS =
+        SystemProperties.getInteger(GradleTaskTrendAction.class.getName() + ".tasks", 10);
+    private static final int TREND_BUILDS =
+        SystemProperties.getInteger(GradleTaskTrendAction.class.getName() + ".builds", 10);
+    // Don't load the whole history of jobs which no longer run Gradle
+    private static final int MAX_SCANNED_BUILDS = 5 * TREND_BUILDS;
+
+    private final Job<?, ?> job;
+
+    public GradleTaskTrendAction(Job<?, ?> job) {
+        this.job = job;
+    }
+
+    @Override
+    public String getIconFileName() {
+        return null;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Gradle Task Trend";
+    }
+
+    @Override
+    public String getUrlName() {
+        return null;
+    }
+
+    public Job<?, ?> getJob() {
+        return job;
+    }
+
+    /**
+     * Returns the trend, from the newest to the oldest build.
+     */
+    public Trend getTrend() {
+        List<Run<?, ?>> builds = new ArrayList<>();
+        List<GradleTaskStatistics> statistics = new ArrayList<>();
+        int scanned = 0;
+        for (Run<?, ?> build : job.getBuilds()) {
+            if (builds.size() >= TREND_BUILDS || scanned++ >= MAX_SCANNED_BUILDS) {
+                break;
+            }
+            GradleTaskPerformanceAction action = build.getAction(GradleTaskPerformanceAction.class);
+            if (action != null && !action.getStatistics().isEmpty()) {
+                builds.add(build);
+                statistics.add(action.getStatistics());
+            }
+        }
+        if (builds.isEmpty()) {
+            return new Trend(Collections.emptyList(), Collections.emptyList());
+        }
+
+        List<TaskTrend> tasks = new ArrayList<>();
+        for (GradleTask task : statistics.get(0).getSlowestTasks()) {
+            if (tasks.size() >= TREND_TASKS) {
+                break;
+            }
+            if (tasks.stream().anyMatch(t -> t.path.equals(task.getPath()))) {
+                continue;
+            }
+            List<String> durations = new ArrayList<>(statistics.size());
+            for (GradleTaskStatistics buildStatistics : statistics) {
+                Long duration = buildStatistics.getDurationMillis(task.getPath());
+                durations.add(duration != null ? Util.getTimeSpanString(duration) : "-");
+            }
+            tasks.add(new TaskTrend(task.getPath(), durations));
+        }
+        return new Trend(builds, tasks);
+    }
+
+    public static final class Trend {
+
+        private final List<Run<?, ?>> builds;
+        private final List<TaskTrend> tasks;
+
+        private Trend(List<Run<?, ?>> builds, List<TaskTrend> tasks) {
+            this.builds = builds;
+            this.tasks = tasks;
+        }
+
+        public List<Run<?, ?>> getBuilds() {
+            return builds;
+        }
+
+        public List<TaskTrend> getTasks() {
+            return tasks;
+        }
+
+        public boolean isEmpty() {
+            return tasks.isEmpty();
+        }
+    }
+
+    public static final class TaskTrend {
+
+        private final String path;
+        private final List<String> durations;
+
+        private TaskTrend(String path, List<String> durations) {
+            this.path = path;
+            this.durations = durations;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * Returns the formatted duration of the task in each build of the trend, or {@code -} if it was not one of the
+         * slowest tasks.
+         */
+        public List<String> getDurations() {
+            return durations;
+        }
+    }
+}
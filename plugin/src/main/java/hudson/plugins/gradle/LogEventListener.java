@@ -0,0 +1,19 @@
+package hudson.plugins.gradle;
+
+import java.util.List;
+
+/**
+ * Receives the events detected by log scanners. Implementations may live on the controller while the scanners run
+ * on an agent, see {@link RemoteLogEventListener}.
+ */
+public interface LogEventListener extends BuildScanPublishedListener {
+
+    default void onBuildAgentError(BuildAgentError buildAgentError) {
+    }
+
+    /**
+     * Receives the tasks of a Gradle invocation once it has finished.
+     */
+    default void onGradleTasksFinished(List<GradleTask> tasks) {
+    }
+}
@@ -0,0 +1,77 @@
+package hudson.plugins.gradle;
+
+import hudson.plugins.gradle.util.MultiPatternMatcher;
+
+import java.io.Serializable;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A set of ASCII byte sequences which a raw log line must contain to be worth decoding.
+ * Lines without any anchor are known not to match a log processor and can be forwarded as-is.
+ */
+public final class LogLineAnchors implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final byte[] ASCII_PROBE = "\t\n\r !\"#$%&'()*+,-./0123456789:;<=>?@ABCDEFGHIJKLMNOPQRSTUVWXYZ[\\]^_`abcdefghijklmnopqrstuvwxyz{|}~"
+        .getBytes(StandardCharsets.US_ASCII);
+
+    private final List<String> anchors;
+    private final MultiPatternMatcher<String> matcher;
+
+    private LogLineAnchors(List<String> anchors) {
+        this.anchors = anchors;
+        Map<String, String> patterns = new LinkedHashMap<>();
+        anchors.forEach(anchor -> patterns.put(anchor, anchor));
+        this.matcher = MultiPatternMatcher.compile(patterns);
+    }
+
+    public static LogLineAnchors of(String... anchors) {
+        return of(Arrays.asList(anchors));
+    }
+
+    public static LogLineAnchors of(Collection<String> anchors) {
+        return new LogLineAnchors(new ArrayList<>(anchors));
+    }
+
+    /**
+     * Returns a new instance containing the anchors of this and the given instance.
+     */
+    public LogLineAnchors plus(LogLineAnchors other) {
+        List<String> merged = new ArrayList<>(anchors);
+        other.anchors.stream().filter(anchor -> !merged.contains(anchor)).forEach(merged::add);
+        return new LogLineAnchors(merged);
+    }
+
+    /**
+     * Checks whether any anchor occurs in the first {@code length} bytes.
+     */
+    public boolean find(byte[] bytes, int length) {
+        return matcher.containsAny(bytes, length);
+    }
+
+    /**
+     * Checks whether any anchor occurs in the {@code length} bytes starting at {@code offset}.
+     */
+    public boolean find(byte[] bytes, int offset, int length) {
+        return matcher.containsAny(bytes, offset, length);
+    }
+
+    /**
+     * Byte-level matching is only sound if ASCII characters are encoded as single ASCII bytes.
+     */
+    static boolean isAsciiCompatible(Charset charset) {
+        if (!charset.canEncode()) {
+            return false;
+        }
+        byte[] encoded = new String(ASCII_PROBE, StandardCharsets.US_ASCII).getBytes(charset);
+        return Arrays.equals(encoded, ASCII_PROBE);
+    }
+}
@@ -0,0 +1,46 @@
+package hudson.plugins.gradle;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Decodes log lines of bounded length into a reused buffer. Not thread safe, each log processor has its own.
+ */
+final class LogLineDecoder {
+
+    private static final Logger LOGGER = Logger.getLogger(LogLineDecoder.class.getName());
+
+    private final Charset charset;
+    private final CharsetDecoder decoder;
+    private final CharBuffer decoded;
+
+    LogLineDecoder(Charset charset, int maxLineLength) {
+        this.charset = charset;
+        this.decoder = charset.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.decoded = CharBuffer.allocate((int) Math.ceil(maxLineLength * (double) decoder.maxCharsPerByte()));
+    }
+
+    String decode(byte[] bytes, int offset, int length) {
+        decoder.reset();
+        decoded.clear();
+        ByteBuffer in = ByteBuffer.wrap(bytes, offset, length);
+        CoderResult result = decoder.decode(in, decoded, true);
+        if (!result.isOverflow()) {
+            result = decoder.flush(decoded);
+        }
+        if (result.isOverflow()) {
+            LOGGER.log(Level.FINE, "Decoding buffer overflow, falling back to Charset#decode");
+            return charset.decode(ByteBuffer.wrap(bytes, offset, length)).toString();
+        }
+        decoded.flip();
+        return decoded.toString();
+    }
+}
@@ -0,0 +1,45 @@
+package hudson.plugins.gradle;
+
+import hudson.ExtensionList;
+import hudson.ExtensionPoint;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import java.io.Serializable;
+
+/**
+ * Receives decoded log lines from a {@link CompositeLogProcessor}, with console notes and EOL removed.
+ */
+public interface LogLineScanner {
+
+    /**
+     * Lines not containing any of the returned anchors are reported via {@link #skipLine()} instead of being decoded.
+     * Returning {@code null} means every line is scanned.
+     */
+    @CheckForNull
+    LogLineAnchors getAnchors();
+
+    void scanLine(String line);
+
+    default void skipLine() {
+    }
+
+    /**
+     * Registry of the scanners attached to the log of a pipeline run, see
+     * {@link hudson.plugins.gradle.injection.LogAnalysisTaskListenerDecoratorFactory}.
+     * <p>
+     * Enabled factories are sent to the agent with the log decorator, {@link #isEnabled()} is only called on the
+     * controller whereas {@link #create(LogEventListener, LogMarkers)} may be called on the agent.
+     */
+    interface Factory extends ExtensionPoint, Serializable {
+
+        boolean isEnabled();
+
+        @Nonnull
+        LogLineScanner create(@Nonnull LogEventListener listener, @Nonnull LogMarkers markers);
+
+        static ExtensionList<Factory> all() {
+            return ExtensionList.lookup(Factory.class);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package hudson.plugins.gradle;
+
+import hudson.ExtensionPoint;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Contributes literal markers detected in build logs. All markers are compiled into a single automaton by
+ * {@link LogMarkers}, so additional markers don't add any per-line cost.
+ */
+public interface LogMarkerProvider extends ExtensionPoint {
+
+    /**
+     * Messages announcing that a build scan URL follows, e.g. {@code Publishing build scan...}.
+     */
+    default Collection<String> getBuildScanPublishingMessages() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Prefixes of lines reporting an internal error of a Develocity build agent, mapped to the reporting build tool.
+     */
+    default Map<String, BuildToolType> getBuildAgentErrorPrefixes() {
+        return Collections.emptyMap();
+    }
+
+    /**
+     * Messages printed when a Gradle or Maven build starts, e.g. {@code [INFO] Scanning for projects...}.
+     */
+    default Collection<String> getBuildStartMessages() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Messages printed with the outcome of a Gradle or Maven build, e.g. {@code BUILD SUCCESSFUL}.
+     */
+    default Collection<String> getBuildOutcomeMessages() {
+        return Collections.emptyList();
+    }
+}
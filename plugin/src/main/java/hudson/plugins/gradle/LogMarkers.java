@@ -0,0 +1,168 @@
+package hudson.plugins.gradle;
+
+import hudson.ExtensionList;
+import hudson.ExtensionListListener;
+import hudson.plugins.gradle.util.MultiPatternMatcher;
+import jenkins.model.Jenkins;
+
+import javax.annotation.CheckForNull;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * The {@link LogMarkerProvider markers} of all providers, compiled into one automaton per kind of marker.
+ * Serializable so that logs scanned on agents use the same markers as on the controller.
+ */
+public final class LogMarkers implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final LogMarkers DEFAULT = compile(Collections.singletonList(new DefaultLogMarkerProvider()));
+    private static final String URL_ANCHOR = "://";
+
+    private static volatile Compiled compiled;
+
+    private final MultiPatternMatcher<String> buildScanPublishingMessages;
+    private final MultiPatternMatcher<BuildToolType> buildAgentErrorPrefixes;
+    private final LogLineAnchors buildScanAnchors;
+    private final LogLineAnchors buildAgentErrorAnchors;
+    // Null when deserialized from a version without build boundaries
+    @CheckForNull
+    private final LogLineAnchors buildStartAnchors;
+    @CheckForNull
+    private final LogLineAnchors buildOutcomeAnchors;
+
+    private LogMarkers(Collection<String> buildScanPublishingMessages,
+                       Map<String, BuildToolType> buildAgentErrorPrefixes,
+                       Collection<String> buildStartMessages,
+                       Collection<String> buildOutcomeMessages) {
+        Map<String, String> messages = new LinkedHashMap<>();
+        buildScanPublishingMessages.forEach(message -> messages.put(message, message));
+        this.buildScanPublishingMessages = MultiPatternMatcher.compile(messages);
+        this.buildAgentErrorPrefixes = MultiPatternMatcher.compile(buildAgentErrorPrefixes);
+
+        List<String> buildScanAnchors = new ArrayList<>(buildScanPublishingMessages);
+        buildScanAnchors.add(URL_ANCHOR);
+        this.buildScanAnchors = LogLineAnchors.of(buildScanAnchors);
+        this.buildAgentErrorAnchors = LogLineAnchors.of(buildAgentErrorPrefixes.keySet());
+        this.buildStartAnchors = LogLineAnchors.of(buildStartMessages);
+        this.buildOutcomeAnchors = LogLineAnchors.of(buildOutcomeMessages);
+    }
+
+    /**
+     * Returns the markers of all registered providers, or the built-in ones when Jenkins is not running.
+     */
+    public static LogMarkers get() {
+        Jenkins jenkins = Jenkins.getInstanceOrNull();
+        if (jenkins == null) {
+            return DEFAULT;
+        }
+        Compiled current = compiled;
+        LogMarkers markers = current != null && current.jenkins == jenkins ? current.markers : null;
+        return markers != null ? markers : recompile(jenkins);
+    }
+
+    private static synchronized LogMarkers recompile(Jenkins jenkins) {
+        ExtensionList<LogMarkerProvider> providers = ExtensionList.lookup(LogMarkerProvider.class);
+        Compiled current = compiled;
+        if (current == null || current.jenkins != jenkins) {
+            current = new Compiled(jenkins);
+            // Providers of dynamically installed plugins are only known once the extension list is refreshed
+            providers.addListener(current.invalidator);
+            compiled = current;
+        }
+        LogMarkers markers = current.markers;
+        if (markers == null) {
+            markers = compile(providers);
+            current.markers = markers;
+        }
+        return markers;
+    }
+
+    private static LogMarkers compile(List<? extends LogMarkerProvider> providers) {
+        List<String> messages = new ArrayList<>();
+        Map<String, BuildToolType> prefixes = new LinkedHashMap<>();
+        Set<String> startMessages = new LinkedHashSet<>();
+        Set<String> outcomeMessages = new LinkedHashSet<>();
+        for (LogMarkerProvider provider : providers) {
+            provider.getBuildScanPublishingMessages().stream()
+                .filter(message -> !messages.contains(message))
+                .forEach(messages::add);
+            prefixes.putAll(provider.getBuildAgentErrorPrefixes());
+            startMessages.addAll(provider.getBuildStartMessages());
+            outcomeMessages.addAll(provider.getBuildOutcomeMessages());
+        }
+        return new LogMarkers(messages, prefixes, startMessages, outcomeMessages);
+    }
+
+    public boolean containsBuildScanPublishingMessage(String line) {
+        return buildScanPublishingMessages.containsAny(line);
+    }
+
+    /**
+     * Invokes the consumer with the build tool of every build agent error prefix the line starts with.
+     */
+    public void forEachBuildAgentError(String line, Consumer<BuildToolType> consumer) {
+        buildAgentErrorPrefixes.forEachMatch(line, (buildToolType, start) -> {
+            if (start == 0) {
+                consumer.accept(buildToolType);
+            }
+        });
+    }
+
+    /**
+     * Raw log lines not containing any of these cannot contain a publishing message nor a build scan URL.
+     */
+    public LogLineAnchors getBuildScanAnchors() {
+        return buildScanAnchors;
+    }
+
+    public LogLineAnchors getBuildAgentErrorAnchors() {
+        return buildAgentErrorAnchors;
+    }
+
+    /**
+     * Raw log lines containing any of these mark the start of a Gradle or Maven build, {@code null} if unknown.
+     */
+    @CheckForNull
+    public LogLineAnchors getBuildStartAnchors() {
+        return buildStartAnchors;
+    }
+
+    /**
+     * Raw log lines containing any of these report the outcome of a Gradle or Maven build, {@code null} if unknown.
+     */
+    @CheckForNull
+    public LogLineAnchors getBuildOutcomeAnchors() {
+        return buildOutcomeAnchors;
+    }
+
+    private static final class Compiled {
+
+        private final Jenkins jenkins;
+        // Null once the providers have changed, until compiled again
+        @CheckForNull
+        private volatile LogMarkers markers;
+
+        private final ExtensionListListener invalidator = new ExtensionListListener() {
+            @Override
+            public void onChange() {
+                synchronized (LogMarkers.class) {
+                    markers = null;
+                }
+            }
+        };
+
+        private Compiled(Jenkins jenkins) {
+            this.jenkins = jenkins;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package hudson.plugins.gradle;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.logging.Logger;
+
+/**
+ * A log processor which only observes the log: every chunk written is forwarded as-is to the underlying stream before
+ * its lines are processed, so the output is byte-identical to the input without being copied line by line.
+ * <p>
+ * Lines are processed in place in the written buffers. Only the start of a line spanning several writes is copied,
+ * up to the maximum line length, longer lines are skipped as by {@link AbstractGradleLogProcessor}. Processors which
+ * need to write to the log around lines, like {@link GradleConsoleAnnotator}, must extend
+ * {@link AbstractGradleLogProcessor} instead.
+ */
+public abstract class PassThroughLogProcessor extends OutputStream {
+
+    private static final Logger LOGGER = Logger.getLogger(PassThroughLogProcessor.class.getName());
+
+    private static final byte LF = '\n';
+
+    private final int maxLineLength;
+    protected final OutputStream out;
+    protected final Charset charset;
+
+    // Lines not containing any of the anchors are never decoded, null means every line is decoded
+    @Nullable
+    private final LogLineAnchors anchors;
+    private final LogLineDecoder decoder;
+
+    // Start of the current line when it began in a previous write
+    private final byte[] pending;
+    // Length of the current line written so far, capped to maxLineLength
+    private int pendingLength;
+    private final byte[] single = new byte[1];
+
+    protected PassThroughLogProcessor(OutputStream out, Charset charset, @Nullable LogLineAnchors anchors) {
+        this(AbstractGradleLogProcessor.DEFAULT_MAX_LINE_LENGTH, out, charset, anchors);
+    }
+
+    protected PassThroughLogProcessor(int maxLineLength, OutputStream out, Charset charset, @Nullable LogLineAnchors anchors) {
+        this.maxLineLength = maxLineLength;
+        this.out = out;
+        this.charset = charset;
+        this.anchors = anchors != null && LogLineAnchors.isAsciiCompatible(charset) ? anchors : null;
+        this.decoder = new LogLineDecoder(charset, maxLineLength);
+        this.pending = new byte[maxLineLength];
+    }
+
+    @Override
+    public final void write(int b) throws IOException {
+        single[0] = (byte) b;
+        write(single, 0, 1);
+    }
+
+    @Override
+    public final void write(byte[] bytes, int offset, int length) throws IOException {
+        out.write(bytes, offset, length);
+
+        int end = offset + length;
+        int lineStart = offset;
+        for (int i = offset; i < end; i++) {
+            if (bytes[i] == LF) {
+                eol(bytes, lineStart, i + 1 - lineStart);
+                lineStart = i + 1;
+            }
+        }
+        append(bytes, lineStart, end - lineStart);
+    }
+
+    private void eol(byte[] bytes, int offset, int length) throws IOException {
+        if (pendingLength == 0) {
+            line(bytes, offset, length);
+            return;
+        }
+        if (length < maxLineLength - pendingLength) {
+            System.arraycopy(bytes, offset, pending, pendingLength, length);
+            line(pending, 0, pendingLength + length);
+        } else {
+            line(pending, 0, maxLineLength);
+        }
+        pendingLength = 0;
+    }
+
+    private void append(byte[] bytes, int offset, int length) {
+        int copied = Math.min(length, maxLineLength - pendingLength);
+        System.arraycopy(bytes, offset, pending, pendingLength, copied);
+        pendingLength += copied;
+    }
+
+    private void line(byte[] bytes, int offset, int length) throws IOException {
+        if (length < maxLineLength) {
+            if (isCandidateLine(bytes, offset, length)) {
+                processLogLine(decoder.decode(bytes, offset, length));
+            } else {
+                skipLogLine();
+            }
+        } else {
+            LOGGER.fine(() -> "Skipping log line of length " + length + " or more (max: " + maxLineLength + ")");
+        }
+    }
+
+    /**
+     * Checks the raw bytes of a line before it gets decoded. Only lines for which this method returns {@code true}
+     * are passed to {@link #processLogLine(String)}.
+     */
+    protected boolean isCandidateLine(byte[] bytes, int offset, int length) {
+        return anchors == null || anchors.find(bytes, offset, length);
+    }
+
+    /**
+     * Invoked instead of {@link #processLogLine(String)} for lines rejected by {@link #isCandidateLine(byte[], int, int)}.
+     */
+    protected void skipLogLine() {
+    }
+
+    /**
+     * Receives each decoded line, including its EOL. The line has already been written to the underlying stream.
+     */
+    protected abstract void processLogLine(String line) throws IOException;
+
+    protected static String trimEOL(String line) {
+        int length = line.length();
+        while (length > 0) {
+            char c = line.charAt(length - 1);
+            if (c != '\r' && c != '\n') {
+                break;
+            }
+            length--;
+        }
+        return line.substring(0, length);
+    }
+
+    @Override
+    public final void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Processes the last line, if it has no EOL, and closes the underlying stream.
+     */
+    @Override
+    public final void close() throws IOException {
+        if (pendingLength > 0) {
+            int length = pendingLength;
+            pendingLength = 0;
+            line(pending, 0, length);
+        }
+        out.close();
+    }
+}
@@ -0,0 +1,47 @@
+package hudson.plugins.gradle;
+
+import hudson.remoting.Channel;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Forwards log events to a listener on the controller, even when the log is scanned on an agent.
+ * <p>
+ * When serialized over a remoting channel, e.g. when a pipeline step decorates its log on the agent, the delegate is
+ * exported so that events detected on the agent are sent back to the controller. Otherwise, e.g. when persisted
+ * with the pipeline program, the delegate is serialized as is.
+ */
+public final class RemoteLogEventListener implements LogEventListener, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final LogEventListener delegate;
+
+    public RemoteLogEventListener(LogEventListener delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void onBuildScanPublished(String scanUrl) {
+        delegate.onBuildScanPublished(scanUrl);
+    }
+
+    @Override
+    public void onBuildAgentError(BuildAgentError buildAgentError) {
+        delegate.onBuildAgentError(buildAgentError);
+    }
+
+    @Override
+    public void onGradleTasksFinished(List<GradleTask> tasks) {
+        delegate.onGradleTasksFinished(tasks);
+    }
+
+    private Object writeReplace() {
+        Channel channel = Channel.current();
+        if (channel == null) {
+            return this;
+        }
+        return new RemoteLogEventListener(channel.export(LogEventListener.class, delegate));
+    }
+}
@@ -0,0 +1,267 @@
+package hudson.plugins.gradle;
+
+import hudson.console.ConsoleNote;
+
+import javax.annotation.CheckForNull;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Finds the build scans published at the end of a log by scanning it backwards, from the end of the file.
+ * <p>
+ * Build scan links are printed at the end of each Gradle or Maven invocation, so for large logs it is much cheaper to
+ * read the tail of the log until enough invocations have been seen than to read the whole log. The file is memory
+ * mapped and read in chunks aligned on line boundaries, several chunks can be scanned in parallel for huge logs.
+ * <p>
+ * Links are matched with publishing messages as {@link BuildScanLogScanner} does: a link is published by the closest
+ * preceding publishing message, if it is at most {@link BuildScanLogScanner#LINES_TO_SCAN} lines before it.
+ */
+final class ReverseBuildScanLogScanner {
+
+    static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+
+    private static final byte LF = '\n';
+
+    private final LogMarkers markers;
+    private final Charset charset;
+    private final int maxInvocations;
+    @CheckForNull
+    private final String boundaryMarker;
+    private final int parallelism;
+    private final int chunkSize;
+    private final LogLineAnchors anchors;
+    // Encoded boundary marker, searched separately when it can't be an anchor
+    @CheckForNull
+    private final byte[] boundaryMarkerBytes;
+
+    /**
+     * @param maxInvocations stop after this many publishing messages, or never if not positive
+     * @param boundaryMarker stop at the last line containing this text, if any
+     * @param parallelism number of chunks scanned in parallel
+     */
+    ReverseBuildScanLogScanner(LogMarkers markers, Charset charset, int maxInvocations, @CheckForNull String boundaryMarker, int parallelism) {
+        this(markers, charset, maxInvocations, boundaryMarker, parallelism, DEFAULT_CHUNK_SIZE);
+    }
+
+    ReverseBuildScanLogScanner(LogMarkers markers, Charset charset, int maxInvocations, @CheckForNull String boundaryMarker, int parallelism, int chunkSize) {
+        this.markers = markers;
+        this.charset = charset;
+        this.maxInvocations = maxInvocations > 0 ? maxInvocations : Integer.MAX_VALUE;
+        this.boundaryMarker = boundaryMarker == null || boundaryMarker.isEmpty() ? null : boundaryMarker;
+        this.parallelism = Math.max(1, parallelism);
+        this.chunkSize = chunkSize;
+        // Anchors are ASCII only, the lines are then also searched for the encoded marker
+        boolean asciiBoundaryMarker = this.boundaryMarker == null || isAscii(this.boundaryMarker);
+        this.anchors = this.boundaryMarker != null && asciiBoundaryMarker
+            ? markers.getBuildScanAnchors().plus(LogLineAnchors.of(this.boundaryMarker))
+            : markers.getBuildScanAnchors();
+        this.boundaryMarkerBytes = asciiBoundaryMarker ? null : this.boundaryMarker.getBytes(charset);
+    }
+
+    private static boolean isAscii(String text) {
+        return text.chars().allMatch(c -> c < 0x80);
+    }
+
+    /**
+     * Byte-level scanning is only possible for charsets encoding ASCII as single bytes.
+     */
+    static boolean supports(Charset charset) {
+        return LogLineAnchors.isAsciiCompatible(charset);
+    }
+
+    /**
+     * Returns the build scan URLs published in the scanned part of the log, in log order.
+     */
+    List<String> scan(Path log) throws IOException {
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.READ)) {
+            State state = new State();
+            long end = channel.size();
+            while (end > 0 && !state.done) {
+                List<Chunk> batch = new ArrayList<>(parallelism);
+                while (end > 0 && batch.size() < parallelism) {
+                    long start = chunkStart(channel, end);
+                    batch.add(new Chunk(start, end));
+                    end = start;
+                }
+                List<List<Line>> scanned = parallelism > 1 && batch.size() > 1
+                    ? batch.parallelStream().map(chunk -> scanChunk(channel, chunk)).collect(Collectors.toList())
+                    : batch.stream().map(chunk -> scanChunk(channel, chunk)).collect(Collectors.toList());
+                for (int i = 0; i < batch.size() && !state.done; i++) {
+                    state.accept(scanned.get(i), batch.get(i).lineCount);
+                }
+            }
+            List<String> urls = new ArrayList<>(state.urls);
+            Collections.reverse(urls);
+            return urls;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Returns the start of the chunk ending at the given offset, which is the start of a line.
+     */
+    private long chunkStart(FileChannel channel, long end) throws IOException {
+        long size = chunkSize;
+        while (true) {
+            long start = end - size;
+            if (start <= 0) {
+                return 0;
+            }
+            // Skip the first, partial, line, keeping the line feed ending the chunk out of the search
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - 1 - start);
+            for (int i = 0; i < buffer.limit(); i++) {
+                if (buffer.get(i) == LF) {
+                    return start + i + 1;
+                }
+            }
+            // A single line longer than the chunk
+            size *= 2;
+        }
+    }
+
+    /**
+     * Returns the relevant lines of the chunk, from last to first.
+     */
+    private List<Line> scanChunk(FileChannel channel, Chunk chunk) {
+        MappedByteBuffer buffer;
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, chunk.start, chunk.end - chunk.start);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        List<Line> lines = new ArrayList<>();
+        byte[] bytes = new byte[256];
+        int lineCount = 0;
+        int lineEnd = buffer.limit();
+        if (lineEnd > 0 && buffer.get(lineEnd - 1) == LF) {
+            lineEnd--;
+        }
+        while (lineEnd >= 0) {
+            int lineStart = lineEnd;
+            while (lineStart > 0 && buffer.get(lineStart - 1) != LF) {
+                lineStart--;
+            }
+            int length = lineEnd - lineStart;
+            if (length > bytes.length) {
+                bytes = new byte[Math.max(length, bytes.length * 2)];
+            }
+            for (int i = 0; i < length; i++) {
+                bytes[i] = buffer.get(lineStart + i);
+            }
+            if (anchors.find(bytes, length) || (boundaryMarkerBytes != null && contains(bytes, length, boundaryMarkerBytes))) {
+                Line line = parse(new String(bytes, 0, length, charset), lineCount);
+                if (line != null) {
+                    lines.add(line);
+                }
+            }
+            lineCount++;
+            lineEnd = lineStart - 1;
+        }
+        chunk.lineCount = lineCount;
+        return lines;
+    }
+
+    private static boolean contains(byte[] bytes, int length, byte[] pattern) {
+        for (int i = 0; i <= length - pattern.length; i++) {
+            int j = 0;
+            while (j < pattern.length && bytes[i + j] == pattern[j]) {
+                j++;
+            }
+            if (j == pattern.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @CheckForNull
+    private Line parse(String rawLine, int lineFromEnd) {
+        String line = ConsoleNote.removeNotes(rawLine);
+        if (line.endsWith("\r")) {
+            line = line.substring(0, line.length() - 1);
+        }
+        boolean boundary = boundaryMarker != null && line.contains(boundaryMarker);
+        boolean publishingMessage = markers.containsBuildScanPublishingMessage(line);
+        String url = BuildScanUrlExtractor.extract(line);
+        if (!boundary && !publishingMessage && url == null) {
+            return null;
+        }
+        return new Line(lineFromEnd, boundary, publishingMessage, url);
+    }
+
+    private final class State {
+
+        // URLs found, from last to first
+        private final List<String> urls = new ArrayList<>();
+        private long lineOffset;
+        private int invocations;
+        @CheckForNull
+        private String pendingUrl;
+        private long pendingUrlLine;
+        private boolean done;
+
+        private void accept(List<Line> lines, int lineCount) {
+            for (Line line : lines) {
+                long lineFromEnd = lineOffset + line.lineFromEnd;
+                if (line.boundary) {
+                    done = true;
+                    return;
+                }
+                // A link on the same line as a publishing message belongs to the preceding message
+                if (line.publishingMessage) {
+                    if (pendingUrl != null && lineFromEnd - pendingUrlLine <= BuildScanLogScanner.LINES_TO_SCAN) {
+                        urls.add(pendingUrl);
+                    }
+                    pendingUrl = null;
+                    if (++invocations >= maxInvocations) {
+                        done = true;
+                        return;
+                    }
+                }
+                if (line.url != null) {
+                    pendingUrl = line.url;
+                    pendingUrlLine = lineFromEnd;
+                }
+            }
+            lineOffset += lineCount;
+        }
+    }
+
+    private static final class Chunk {
+
+        private final long start;
+        private final long end;
+        private int lineCount;
+
+        private Chunk(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    private static final class Line {
+
+        private final int lineFromEnd;
+        private final boolean boundary;
+        private final boolean publishingMessage;
+        @CheckForNull
+        private final String url;
+
+        private Line(int lineFromEnd, boolean boundary, boolean publishingMessage, @CheckForNull String url) {
+            this.lineFromEnd = lineFromEnd;
+            this.boundary = boundary;
+            this.publishingMessage = publishingMessage;
+            this.url = url;
+        }
+    }
+}
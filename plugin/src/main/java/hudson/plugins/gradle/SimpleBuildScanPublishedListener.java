@@ -3,16 +3,20 @@ package hudson.plugins.gradle;
 import hudson.plugins.gradle.util.CollectionUtil;
 
 import java.io.Serializable;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.logging.Logger;
 
 public final class SimpleBuildScanPublishedListener
-    implements BuildScanPublishedListener, BuildScansAware, Serializable {
+    implements LogEventListener, BuildScansAware, Serializable {
+
+    // Computed from the fields and methods before LogEventListener was implemented
+    private static final long serialVersionUID = 2286954030375440738L;
 
     private static final Logger LOGGER = Logger.getLogger(SimpleBuildScanPublishedListener.class.getName());
 
-    private final List<String> buildScans = new ArrayList<>();
+    private final List<String> buildScans = new CopyOnWriteArrayList<>();
+    private GradleTaskStatistics gradleTaskStatistics = new GradleTaskStatistics();
 
     @Override
     public void onBuildScanPublished(String scanUrl) {
@@ -24,4 +28,21 @@ public final class SimpleBuildScanPublishedListener
     public List<String> getBuildScans() {
         return CollectionUtil.unmodifiableCopy(buildScans);
     }
+
+    @Override
+    public void onGradleTasksFinished(List<GradleTask> tasks) {
+        gradleTaskStatistics.addAll(tasks);
+    }
+
+    public GradleTaskStatistics getGradleTaskStatistics() {
+        return gradleTaskStatistics;
+    }
+
+    @SuppressWarnings("unused")
+    private Object readResolve() {
+        if (gradleTaskStatistics == null) {
+            gradleTaskStatistics = new GradleTaskStatistics();
+        }
+        return this;
+    }
 }
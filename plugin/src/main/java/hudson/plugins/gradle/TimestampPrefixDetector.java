@@ -1,5 +1,7 @@
 package hudson.plugins.gradle;
 
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -12,6 +14,21 @@ final class TimestampPrefixDetector {
         return line.substring(prefix);
     }
 
+    /**
+     * Returns the time of the line from its timestamp prefix, or the current time if it has none.
+     */
+    static long timestampOf(int prefix, String line) {
+        if (prefix > 0) {
+            try {
+                // Strip the brackets and the trailing space
+                return Instant.parse(line.substring(1, prefix - 2)).toEpochMilli();
+            } catch (DateTimeParseException | IndexOutOfBoundsException e) {
+                // Not all lines have the prefix
+            }
+        }
+        return System.currentTimeMillis();
+    }
+
     private TimestampPrefixDetector() {
     }
 
@@ -1,5 +1,6 @@
 package hudson.plugins.gradle;
 
+import hudson.FilePath;
 import hudson.model.Run;
 import hudson.plugins.gradle.enriched.EnrichedSummaryConfig;
 import hudson.plugins.gradle.enriched.ScanDetailService;
@@ -7,9 +8,12 @@ import hudson.plugins.gradle.util.RunUtil;
 import org.jenkinsci.plugins.workflow.graph.FlowNode;
 import org.jenkinsci.plugins.workflow.log.TaskListenerDecorator;
 import org.jenkinsci.plugins.workflow.steps.BodyExecutionCallback;
+import org.jenkinsci.plugins.workflow.steps.BodyInvoker;
+import org.jenkinsci.plugins.workflow.steps.EnvironmentExpander;
 import org.jenkinsci.plugins.workflow.steps.StepContext;
 import org.jenkinsci.plugins.workflow.steps.StepExecution;
 
+import javax.annotation.CheckForNull;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.Collections;
@@ -29,11 +33,16 @@ public class WithGradleExecution extends StepExecution {
         LOGGER.fine("Starting withGradle execution");
 
         GradleTaskListenerDecorator gradleTaskListenerDecorator = new GradleTaskListenerDecorator();
+        FilePath buildScanLinksFile = BuildScanLinksFile.create(getContext().get(FilePath.class));
 
-        getContext()
+        BodyInvoker bodyInvoker = getContext()
             .newBodyInvoker()
-            .withContext(TaskListenerDecorator.merge(getContext().get(TaskListenerDecorator.class), gradleTaskListenerDecorator))
-            .withCallback(new BuildScanCallback(gradleTaskListenerDecorator, getContext()))
+            .withContext(TaskListenerDecorator.merge(getContext().get(TaskListenerDecorator.class), gradleTaskListenerDecorator));
+        if (buildScanLinksFile != null) {
+            bodyInvoker.withContext(EnvironmentExpander.merge(getContext().get(EnvironmentExpander.class), new BuildScanLinksFile.Expander(buildScanLinksFile)));
+        }
+        bodyInvoker
+            .withCallback(new BuildScanCallback(gradleTaskListenerDecorator, gradleTaskListenerDecorator, buildScanLinksFile, getContext()))
             .start();
 
         return false;
@@ -41,11 +50,21 @@ public class WithGradleExecution extends StepExecution {
 
     private static class BuildScanCallback extends BodyExecutionCallback {
 
+        // Computed from the fields and methods before the build scan links file was introduced
+        private static final long serialVersionUID = 6901814967606795206L;
+
         private final BuildScansAware buildScans;
+        // Null for callbacks serialized before task timings were extracted
+        @CheckForNull
+        private final GradleTaskListenerDecorator gradleTasks;
+        @CheckForNull
+        private final FilePath buildScanLinksFile;
         private final StepContext parentContext;
 
-        public BuildScanCallback(BuildScansAware buildScans, StepContext parentContext) {
+        public BuildScanCallback(BuildScansAware buildScans, GradleTaskListenerDecorator gradleTasks, @CheckForNull FilePath buildScanLinksFile, StepContext parentContext) {
             this.buildScans = buildScans;
+            this.gradleTasks = gradleTasks;
+            this.buildScanLinksFile = buildScanLinksFile;
             this.parentContext = parentContext;
         }
 
@@ -62,7 +81,9 @@ public class WithGradleExecution extends StepExecution {
 
         private List<String> extractBuildScans(StepContext context) {
             try {
-                List<String> buildScans = this.buildScans.getBuildScans();
+                recordGradleTasks(context);
+
+                List<String> buildScans = BuildScanLinksFile.collectOrElse(buildScanLinksFile, this.buildScans.getBuildScans());
                 if (buildScans.isEmpty()) {
                     LOGGER.fine("No build scans found");
                     return Collections.emptyList();
@@ -80,7 +101,7 @@ public class WithGradleExecution extends StepExecution {
                 ScanDetailService scanDetailService = new ScanDetailService(EnrichedSummaryConfig.get());
                 Run run = context.get(Run.class);
                 RunUtil.getOrCreateAction(run, BuildScanAction.class, BuildScanAction::new)
-                    .addScanUrls(buildScans, scanDetailService::getScanDetail);
+                    .addScanUrls(buildScans, scanDetailService);
 
                 return buildScans;
             } catch (IOException e) {
@@ -90,5 +111,14 @@ public class WithGradleExecution extends StepExecution {
                 throw new RuntimeException(e);
             }
         }
+
+        private void recordGradleTasks(StepContext context) throws IOException, InterruptedException {
+            if (gradleTasks == null || gradleTasks.getGradleTaskStatistics().isEmpty()) {
+                return;
+            }
+            Run run = context.get(Run.class);
+            RunUtil.getOrCreateAction(run, GradleTaskPerformanceAction.class, GradleTaskPerformanceAction::new)
+                .getStatistics().merge(gradleTasks.getGradleTaskStatistics());
+        }
     }
 }
@@ -3,6 +3,7 @@ package hudson.plugins.gradle.enriched;
 import hudson.Extension;
 import hudson.ExtensionList;
 import hudson.Util;
+import hudson.plugins.gradle.util.HttpTransport;
 import hudson.util.FormValidation;
 import hudson.util.Secret;
 import jenkins.model.GlobalConfiguration;
@@ -17,6 +18,7 @@ import org.kohsuke.stapler.verb.POST;
 @Extension
 public class EnrichedSummaryConfig extends GlobalConfiguration {
     private boolean globalBuildScanDetection;
+    private boolean buildScanDetectionGating;
     private boolean enrichedSummaryEnabled;
 
     private int httpClientTimeoutInSeconds = 1;
@@ -43,6 +45,15 @@ public class EnrichedSummaryConfig extends GlobalConfiguration {
         this.globalBuildScanDetection = globalBuildScanDetection;
     }
 
+    public boolean isBuildScanDetectionGating() {
+        return buildScanDetectionGating;
+    }
+
+    @DataBoundSetter
+    public void setBuildScanDetectionGating(boolean buildScanDetectionGating) {
+        this.buildScanDetectionGating = buildScanDetectionGating;
+    }
+
     public boolean isEnrichedSummaryEnabled() {
         return enrichedSummaryEnabled;
     }
@@ -105,6 +116,30 @@ public class EnrichedSummaryConfig extends GlobalConfiguration {
         }
     }
 
+    // Used in config.jelly
+    @Restricted(NoExternalUse.class)
+    public ScanDetailCache getScanDetailCache() {
+        return ScanDetailCache.get();
+    }
+
+    // Used in config.jelly
+    @Restricted(NoExternalUse.class)
+    public ScanDetailEnricher getScanDetailEnricher() {
+        return ScanDetailEnricher.get();
+    }
+
+    // Used in config.jelly
+    @Restricted(NoExternalUse.class)
+    public int getHttpConnectionCount() {
+        return HttpTransport.getConnectionCount();
+    }
+
+    // Used in config.jelly
+    @Restricted(NoExternalUse.class)
+    public int getHttpIdleConnectionCount() {
+        return HttpTransport.getIdleConnectionCount();
+    }
+
     @Override
     public boolean configure(StaplerRequest req, JSONObject json) {
         req.bindJSON(this, json);
@@ -0,0 +1,165 @@
+package hudson.plugins.gradle.enriched;
+
+import jenkins.util.SystemProperties;
+
+import javax.annotation.CheckForNull;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory cache of scan details, keyed by the API URI of the build scan, with least recently used eviction.
+ * <p>
+ * Build scans are only reported once published, so their details don't change and are kept for a long time. Scans
+ * which could not be found or timed out are remembered for a short time only, other failures are not cached at all.
+ */
+public final class ScanDetailCache {
+
+    private static final int MAX_ENTRIES = SystemProperties.getInteger(ScanDetailCache.class.getName() + ".maxEntries", 1000);
+    private static final Duration TTL = Duration.ofHours(24);
+    private static final Duration NEGATIVE_TTL = Duration.ofMinutes(5);
+
+    private static final ScanDetailCache INSTANCE = new ScanDetailCache(MAX_ENTRIES, TTL, NEGATIVE_TTL, System::nanoTime);
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final LongSupplier clock;
+    private final LinkedHashMap<String, Entry> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong negativeHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    ScanDetailCache(int maxEntries, Duration ttl, Duration negativeTtl, LongSupplier clock) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.negativeTtlNanos = negativeTtl.toNanos();
+        this.clock = clock;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > ScanDetailCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public static ScanDetailCache get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the cached detail, or fetches it if there is no valid entry. Concurrent misses for the same key may
+     * fetch it more than once.
+     */
+    Optional<ScanDetail> get(String key, Function<String, Lookup> fetcher) {
+        Entry entry = lookup(key);
+        if (entry != null) {
+            if (entry.scanDetail != null) {
+                hits.incrementAndGet();
+            } else {
+                negativeHits.incrementAndGet();
+            }
+            return Optional.ofNullable(entry.scanDetail);
+        }
+
+        misses.incrementAndGet();
+        Lookup result = fetcher.apply(key);
+        if (result.cacheable) {
+            put(key, new Entry(result.scanDetail, clock.getAsLong() + (result.scanDetail != null ? ttlNanos : negativeTtlNanos)));
+        }
+        return Optional.ofNullable(result.scanDetail);
+    }
+
+    @CheckForNull
+    private synchronized Entry lookup(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt - clock.getAsLong() <= 0) {
+            entries.remove(key);
+            return null;
+        }
+        return entry;
+    }
+
+    private synchronized void put(String key, Entry entry) {
+        entries.put(key, entry);
+    }
+
+    public synchronized int getSize() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getNegativeHitCount() {
+        return negativeHits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    private static final class Entry {
+
+        @CheckForNull
+        private final ScanDetail scanDetail;
+        private final long expiresAt;
+
+        private Entry(@CheckForNull ScanDetail scanDetail, long expiresAt) {
+            this.scanDetail = scanDetail;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Outcome of fetching a scan detail.
+     */
+    static final class Lookup {
+
+        private static final Lookup NOT_FOUND = new Lookup(null, true);
+        private static final Lookup FAILED = new Lookup(null, false);
+
+        @CheckForNull
+        private final ScanDetail scanDetail;
+        private final boolean cacheable;
+
+        private Lookup(@CheckForNull ScanDetail scanDetail, boolean cacheable) {
+            this.scanDetail = scanDetail;
+            this.cacheable = cacheable;
+        }
+
+        static Lookup found(ScanDetail scanDetail) {
+            return new Lookup(scanDetail, true);
+        }
+
+        /**
+         * The scan does not exist or the server did not answer in time, cached for a short time.
+         */
+        static Lookup notFound() {
+            return NOT_FOUND;
+        }
+
+        static Lookup failed() {
+            return FAILED;
+        }
+    }
+}
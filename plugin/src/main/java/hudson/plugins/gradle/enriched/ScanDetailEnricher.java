@@ -0,0 +1,113 @@
+package hudson.plugins.gradle.enriched;
+
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import jenkins.util.SystemProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Fetches scan details on a bounded pool of background threads. Build scans are usually reported while the build log
+ * is written, so fetching them there would stall the console output whenever the Develocity server is slow.
+ * <p>
+ * If the queue is full, the scan detail is not fetched and the build scan is shown without it.
+ */
+public final class ScanDetailEnricher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScanDetailEnricher.class);
+
+    private static final int THREADS = SystemProperties.getInteger(ScanDetailEnricher.class.getName() + ".threads", 2);
+    private static final int QUEUE_CAPACITY = SystemProperties.getInteger(ScanDetailEnricher.class.getName() + ".queueCapacity", 1000);
+
+    private static final ScanDetailEnricher INSTANCE = new ScanDetailEnricher(THREADS, QUEUE_CAPACITY);
+
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong totalLatencyMillis = new AtomicLong();
+    private final AtomicLong maxLatencyMillis = new AtomicLong();
+
+    ScanDetailEnricher(int threads, int queueCapacity) {
+        this.executor = new ThreadPoolExecutor(
+            threads,
+            threads,
+            60L,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            new NamingThreadFactory(new DaemonThreadFactory(), "Develocity scan detail enrichment")
+        );
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    public static ScanDetailEnricher get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Queues fetching the detail of the given build scan. The callback is invoked on a background thread, and only if
+     * a detail could be fetched.
+     */
+    public void enrich(String scanUrl, ScanDetailService scanDetailService, Consumer<ScanDetail> callback) {
+        if (!scanDetailService.isEnabled()) {
+            return;
+        }
+
+        long queuedAt = System.nanoTime();
+        try {
+            executor.execute(() -> fetch(scanUrl, scanDetailService, callback, queuedAt));
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            LOGGER.warn("Scan detail enrichment queue is full ({} pending), skipping {}", getQueueDepth(), scanUrl);
+        }
+    }
+
+    private void fetch(String scanUrl, ScanDetailService scanDetailService, Consumer<ScanDetail> callback, long queuedAt) {
+        try {
+            scanDetailService.getScanDetail(scanUrl).ifPresent(callback);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Error enriching build scan {}", scanUrl, e);
+        } finally {
+            long latencyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - queuedAt);
+            completed.incrementAndGet();
+            totalLatencyMillis.addAndGet(latencyMillis);
+            maxLatencyMillis.accumulateAndGet(latencyMillis, Math::max);
+            LOGGER.debug("Enriched build scan {} in {} ms, {} pending", scanUrl, latencyMillis, getQueueDepth());
+        }
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public long getCompletedCount() {
+        return completed.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    /**
+     * Average time from queuing a build scan until its detail was fetched.
+     */
+    public long getAverageLatencyMillis() {
+        long count = completed.get();
+        return count == 0 ? 0 : totalLatencyMillis.get() / count;
+    }
+
+    public long getMaxLatencyMillis() {
+        return maxLatencyMillis.get();
+    }
+
+    void shutdownNow() {
+        executor.shutdownNow();
+    }
+}
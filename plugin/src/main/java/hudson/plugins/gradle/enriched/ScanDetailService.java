@@ -2,19 +2,23 @@ package hudson.plugins.gradle.enriched;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
+import hudson.plugins.gradle.util.HttpTransport;
 import hudson.util.Secret;
-import org.apache.http.HttpEntity;
-import org.apache.http.HttpHeaders;
-import org.apache.http.HttpStatus;
-import org.apache.http.client.methods.CloseableHttpResponse;
-import org.apache.http.client.methods.HttpGet;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.util.EntityUtils;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.net.URI;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static java.net.HttpURLConnection.HTTP_NOT_FOUND;
+import static java.net.HttpURLConnection.HTTP_OK;
 
 public class ScanDetailService {
 
@@ -26,86 +30,109 @@ public class ScanDetailService {
     private static final String URL_CONTEXT_PATH_SCAN_ID = "/s/";
     private static final String URL_CONTEXT_PATH_API_BUILDS = "/api/builds/";
 
-    private HttpClientFactory httpClientFactory;
-
+    private final OkHttpClient httpClient;
+    private final ScanDetailCache cache = ScanDetailCache.get();
     private final boolean isEnrichedSummaryEnabled;
     private final Secret buildScanAccessToken;
     private final String buildScanServer;
-    private final int httpClientTimeoutInSeconds;
     private final int httpClientMaxRetries;
     private final int httpClientDelayBetweenRetriesInSeconds;
 
-    void setHttpClientFactory(HttpClientFactory httpClientFactory) {
-        this.httpClientFactory = httpClientFactory;
-    }
-
     public ScanDetailService(EnrichedSummaryConfig config) {
         this.isEnrichedSummaryEnabled = config.isEnrichedSummaryEnabled();
         this.buildScanAccessToken = config.getBuildScanAccessKey();
         this.buildScanServer = config.getBuildScanServer();
-        this.httpClientTimeoutInSeconds = config.getHttpClientTimeoutInSeconds();
         this.httpClientMaxRetries = config.getHttpClientMaxRetries();
         this.httpClientDelayBetweenRetriesInSeconds = config.getHttpClientDelayBetweenRetriesInSeconds();
-        this.httpClientFactory = new HttpClientFactory();
+        int httpClientTimeoutInSeconds = config.getHttpClientTimeoutInSeconds();
+        this.httpClient = HttpTransport.client(false).newBuilder()
+            .connectTimeout(httpClientTimeoutInSeconds, TimeUnit.SECONDS)
+            .readTimeout(httpClientTimeoutInSeconds, TimeUnit.SECONDS)
+            .writeTimeout(httpClientTimeoutInSeconds, TimeUnit.SECONDS)
+            .build();
+    }
+
+    public boolean isEnabled() {
+        return isEnrichedSummaryEnabled;
     }
 
     public Optional<ScanDetail> getScanDetail(String buildScanUrl) {
         if (isEnrichedSummaryEnabled && buildScanUrl != null) {
-            return Optional.ofNullable(doGetScanDetail(buildScanUrl));
+            if (buildScanUrl.startsWith(GRADLE_ENTERPRISE_PUBLIC_SERVER)) {
+                // API is not accessible on public server
+                return Optional.empty();
+            }
+
+            String baseApiUri = getBaseApiUri(buildScanUrl);
+            if (null == baseApiUri || baseApiUri.isEmpty()) {
+                return Optional.empty();
+            }
+
+            return cache.get(baseApiUri, uri -> doGetScanDetail(buildScanUrl, uri));
         }
 
         return Optional.empty();
     }
 
-    private ScanDetail doGetScanDetail(String buildScanUrl) {
-        if (buildScanUrl.startsWith(GRADLE_ENTERPRISE_PUBLIC_SERVER)) {
-            // API is not accessible on public server
-            return null;
-        }
+    private ScanDetailCache.Lookup doGetScanDetail(String buildScanUrl, String baseApiUri) {
+        try {
+            ScanDetail scanDetail = new ScanDetail(buildScanUrl);
+            String apiBuildsResponse = fetch(baseApiUri);
+            if (apiBuildsResponse == null) {
+                return ScanDetailCache.Lookup.failed();
+            }
 
-        String baseApiUri = getBaseApiUri(buildScanUrl);
-        if (null == baseApiUri || baseApiUri.isEmpty()) {
-            return null;
+            ObjectReader objectReader = MAPPER.readerForUpdating(scanDetail);
+            scanDetail = objectReader.readValue(apiBuildsResponse);
+            String suffix = (scanDetail.getBuildToolType() != null) ? scanDetail.getBuildToolType().getAttributesUrlSuffix() : "unsupported";
+
+            String apiBuildAttributesResponse = fetch(baseApiUri + suffix);
+            if (apiBuildAttributesResponse == null) {
+                return ScanDetailCache.Lookup.failed();
+            }
+            return ScanDetailCache.Lookup.found(objectReader.readValue(apiBuildAttributesResponse));
+        } catch (ScanNotFoundException e) {
+            LOGGER.warn("Build scan data not found [{}]", e.getMessage());
+            return ScanDetailCache.Lookup.notFound();
+        } catch (InterruptedIOException e) {
+            LOGGER.warn("Timeout fetching build scan details", e);
+            return ScanDetailCache.Lookup.notFound();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            LOGGER.warn("Error fetching build scan details", e);
         }
 
-        try (CloseableHttpClient httpclient = httpClientFactory.buildHttpClient(httpClientTimeoutInSeconds, httpClientMaxRetries, httpClientDelayBetweenRetriesInSeconds)) {
-            HttpGet httpGetApiBuilds = buildGetRequest(baseApiUri);
+        return ScanDetailCache.Lookup.failed();
+    }
 
-            ScanDetail scanDetail = new ScanDetail(buildScanUrl);
-            try (CloseableHttpResponse responseApiBuilds = httpclient.execute(httpGetApiBuilds)) {
-                if (responseApiBuilds.getStatusLine().getStatusCode() != HttpStatus.SC_OK) {
-                    LOGGER.warn("Unable to fetch build scan data [{}]", responseApiBuilds.getStatusLine().getStatusCode());
-                    return null;
-                }
+    private String fetch(String uri) throws IOException, InterruptedException {
+        Request request = buildGetRequest(uri);
+        try (Response response = execute(request)) {
+            if (response.code() == HTTP_NOT_FOUND) {
+                throw new ScanNotFoundException(uri);
+            }
+            if (response.code() != HTTP_OK) {
+                LOGGER.warn("Unable to fetch build scan data [{}]", response.code());
+                return null;
+            }
+            ResponseBody body = response.body();
+            return body != null ? body.string() : null;
+        }
+    }
 
-                HttpEntity httpEntityApiBuilds = responseApiBuilds.getEntity();
-                if (httpEntityApiBuilds != null) {
-                    String apiBuildsResponse = EntityUtils.toString(httpEntityApiBuilds);
-                    ObjectReader objectReader = MAPPER.readerForUpdating(scanDetail);
-                    scanDetail = objectReader.readValue(apiBuildsResponse);
-                    String suffix = (scanDetail.getBuildToolType() != null) ? scanDetail.getBuildToolType().getAttributesUrlSuffix() : "unsupported";
-                    HttpGet httpGetBuildAttributes = buildGetRequest(baseApiUri + suffix);
-
-                    try (CloseableHttpResponse responseApiBuildAttributes = httpclient.execute(httpGetBuildAttributes)) {
-                        if (responseApiBuildAttributes.getStatusLine().getStatusCode() != HttpStatus.SC_OK) {
-                            LOGGER.warn("Unable to fetch build scan data [{}]", responseApiBuildAttributes.getStatusLine().getStatusCode());
-                            return null;
-                        }
-
-                        HttpEntity httpEntityApiBuildAttributes = responseApiBuildAttributes.getEntity();
-                        if (httpEntityApiBuildAttributes != null) {
-                            String apiBuildAttributesResponse = EntityUtils.toString(httpEntityApiBuildAttributes);
-                            scanDetail = objectReader.readValue(apiBuildAttributesResponse);
-                            return scanDetail;
-                        }
-                    }
+    private Response execute(Request request) throws IOException, InterruptedException {
+        int executionCount = 0;
+        while (true) {
+            try {
+                return httpClient.newCall(request).execute();
+            } catch (IOException e) {
+                if (++executionCount > httpClientMaxRetries) {
+                    throw e;
                 }
+                TimeUnit.SECONDS.sleep(httpClientDelayBetweenRetriesInSeconds);
             }
-        } catch (Exception e) {
-            LOGGER.warn("Error fetching build scan details", e);
         }
-
-        return null;
     }
 
     private String getBaseApiUri(String buildScanUrl) {
@@ -128,12 +155,19 @@ public class ScanDetailService {
         }
     }
 
-    private HttpGet buildGetRequest(String uri) {
-        HttpGet httpGet = new HttpGet(uri);
+    private Request buildGetRequest(String uri) {
+        Request.Builder request = new Request.Builder().url(uri);
         if (buildScanAccessToken != null) {
-            httpGet.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + buildScanAccessToken.getPlainText());
+            request.addHeader("Authorization", "Bearer " + buildScanAccessToken.getPlainText());
+        }
+        return request.build();
+    }
+
+    private static final class ScanNotFoundException extends IOException {
+
+        private ScanNotFoundException(String uri) {
+            super(uri);
         }
-        return httpGet;
     }
 
 }
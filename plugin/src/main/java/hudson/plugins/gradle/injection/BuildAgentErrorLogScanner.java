@@ -0,0 +1,54 @@
+package hudson.plugins.gradle.injection;
+
+import hudson.Extension;
+import hudson.plugins.gradle.BuildAgentError;
+import hudson.plugins.gradle.LogEventListener;
+import hudson.plugins.gradle.LogLineAnchors;
+import hudson.plugins.gradle.LogLineScanner;
+import hudson.plugins.gradle.LogMarkers;
+
+import javax.annotation.Nonnull;
+
+public final class BuildAgentErrorLogScanner implements LogLineScanner {
+
+    private final BuildAgentErrorListener listener;
+    private final LogMarkers markers;
+
+    public BuildAgentErrorLogScanner(BuildAgentErrorListener listener) {
+        this(listener, LogMarkers.get());
+    }
+
+    public BuildAgentErrorLogScanner(BuildAgentErrorListener listener, LogMarkers markers) {
+        this.listener = listener;
+        this.markers = markers;
+    }
+
+    @Override
+    public LogLineAnchors getAnchors() {
+        return markers.getBuildAgentErrorAnchors();
+    }
+
+    @Override
+    public void scanLine(String line) {
+        markers.forEachBuildAgentError(line, buildToolType -> listener.onBuildAgentError(new BuildAgentError(buildToolType)));
+    }
+
+    @SuppressWarnings("unused")
+    @Extension
+    public static final class Factory implements LogLineScanner.Factory {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public boolean isEnabled() {
+            InjectionConfig injectionConfig = InjectionConfig.get();
+            return injectionConfig.isEnabled() && injectionConfig.isCheckForBuildAgentErrors();
+        }
+
+        @Nonnull
+        @Override
+        public LogLineScanner create(@Nonnull LogEventListener listener, @Nonnull LogMarkers markers) {
+            return new BuildAgentErrorLogScanner(listener::onBuildAgentError, markers);
+        }
+    }
+}
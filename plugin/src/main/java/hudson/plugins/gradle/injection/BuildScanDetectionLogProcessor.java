@@ -1,10 +1,9 @@
 package hudson.plugins.gradle.injection;
 
-import hudson.console.ConsoleNote;
 import hudson.model.Run;
-import hudson.plugins.gradle.AbstractGradleLogProcessor;
 import hudson.plugins.gradle.BuildScanLogScanner;
 import hudson.plugins.gradle.BuildScanPublishedListener;
+import hudson.plugins.gradle.CompositeLogProcessor;
 import hudson.plugins.gradle.DefaultBuildScanPublishedListener;
 import hudson.plugins.gradle.enriched.EnrichedSummaryConfig;
 import hudson.plugins.gradle.enriched.ScanDetailService;
@@ -13,26 +12,19 @@ import javax.annotation.Nullable;
 import java.io.OutputStream;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 
-public final class BuildScanDetectionLogProcessor extends AbstractGradleLogProcessor {
-
-    private final BuildScanLogScanner scanner;
+public final class BuildScanDetectionLogProcessor extends CompositeLogProcessor {
 
     public BuildScanDetectionLogProcessor(OutputStream out, @Nullable Run<?, ?> build) {
-        super(out, build != null ? build.getCharset() : StandardCharsets.UTF_8);
-        ScanDetailService scanDetailService = new ScanDetailService(EnrichedSummaryConfig.get());
-        DefaultBuildScanPublishedListener listener = new DefaultBuildScanPublishedListener(build, scanDetailService);
-        this.scanner = new BuildScanLogScanner(listener);
+        this(
+            out,
+            build != null ? build.getCharset() : StandardCharsets.UTF_8,
+            new DefaultBuildScanPublishedListener(build, new ScanDetailService(EnrichedSummaryConfig.get()))
+        );
     }
 
     BuildScanDetectionLogProcessor(OutputStream out, Charset charset, BuildScanPublishedListener listener) {
-        super(out, charset);
-        this.scanner = new BuildScanLogScanner(listener);
-    }
-
-    @Override
-    protected void processLogLine(String line) {
-        line = trimEOL(ConsoleNote.removeNotes(line));
-        scanner.scanLine(line);
+        super(out, charset, Collections.singletonList(new BuildScanLogScanner(listener)));
     }
 }
@@ -0,0 +1,28 @@
+package hudson.plugins.gradle.injection;
+
+import hudson.Extension;
+import hudson.plugins.gradle.BuildScanLogScanner;
+import hudson.plugins.gradle.LogEventListener;
+import hudson.plugins.gradle.LogLineScanner;
+import hudson.plugins.gradle.LogMarkers;
+import hudson.plugins.gradle.enriched.EnrichedSummaryConfig;
+
+import javax.annotation.Nonnull;
+
+@SuppressWarnings("unused")
+@Extension
+public class BuildScanDetectionLogScannerFactory implements LogLineScanner.Factory {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public boolean isEnabled() {
+        return EnrichedSummaryConfig.get().isGlobalBuildScanDetection();
+    }
+
+    @Nonnull
+    @Override
+    public LogLineScanner create(@Nonnull LogEventListener listener, @Nonnull LogMarkers markers) {
+        return new BuildScanLogScanner(listener, markers);
+    }
+}
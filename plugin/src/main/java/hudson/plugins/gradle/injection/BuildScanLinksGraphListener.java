@@ -0,0 +1,121 @@
+package hudson.plugins.gradle.injection;
+
+import hudson.Extension;
+import hudson.FilePath;
+import hudson.model.Queue;
+import hudson.model.Run;
+import hudson.model.listeners.RunListener;
+import hudson.plugins.gradle.BuildScanAction;
+import hudson.plugins.gradle.BuildScanLinksFile;
+import hudson.plugins.gradle.enriched.EnrichedSummaryConfig;
+import hudson.plugins.gradle.enriched.ScanDetailService;
+import hudson.plugins.gradle.util.RunUtil;
+import jenkins.util.Timer;
+import org.jenkinsci.plugins.workflow.flow.FlowExecutionOwner;
+import org.jenkinsci.plugins.workflow.flow.GraphListener;
+import org.jenkinsci.plugins.workflow.graph.BlockEndNode;
+import org.jenkinsci.plugins.workflow.graph.BlockStartNode;
+import org.jenkinsci.plugins.workflow.graph.FlowEndNode;
+import org.jenkinsci.plugins.workflow.graph.FlowNode;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Collects the {@link BuildScanLinksFile#forStep links files} of the Pipeline steps, which are given to the steps
+ * launching processes by {@link InjectionStepEnvironmentContributor}, when the steps end. The links are recorded on
+ * the run in the background, so that reading the files doesn't hold the Pipeline.
+ * <p>
+ * The files are tracked in memory only: the links of the steps running while the controller restarts are not
+ * collected, the build log is still scanned for them.
+ */
+@Extension
+public class BuildScanLinksGraphListener implements GraphListener {
+
+    private static final Logger LOGGER = Logger.getLogger(BuildScanLinksGraphListener.class.getName());
+
+    // Links files of the running steps, by Pipeline and flow node ID
+    private static final Map<FlowExecutionOwner, Map<String, FilePath>> LINKS_FILES = new ConcurrentHashMap<>();
+
+    static void register(FlowNode node, FilePath linksFile) {
+        LINKS_FILES.computeIfAbsent(node.getExecution().getOwner(), owner -> new ConcurrentHashMap<>())
+            .putIfAbsent(node.getId(), linksFile);
+    }
+
+    @Override
+    public void onNewHead(FlowNode node) {
+        FlowExecutionOwner owner = node.getExecution().getOwner();
+        Map<String, FilePath> linksFiles = LINKS_FILES.get(owner);
+        if (linksFiles == null) {
+            return;
+        }
+
+        List<FilePath> ended = new ArrayList<>();
+        if (node instanceof FlowEndNode) {
+            LINKS_FILES.remove(owner);
+            ended.addAll(linksFiles.values());
+        } else {
+            // A block step ends with its end node, an atomic step once a node follows it
+            if (node instanceof BlockEndNode) {
+                take(linksFiles, ((BlockEndNode<?>) node).getStartNode(), ended);
+            }
+            for (FlowNode parent : node.getParents()) {
+                if (!(parent instanceof BlockStartNode)) {
+                    take(linksFiles, parent, ended);
+                }
+            }
+        }
+
+        if (!ended.isEmpty()) {
+            Timer.get().submit(() -> record(owner, ended));
+        }
+    }
+
+    private static void take(Map<String, FilePath> linksFiles, FlowNode node, List<FilePath> ended) {
+        FilePath linksFile = linksFiles.remove(node.getId());
+        if (linksFile != null) {
+            ended.add(linksFile);
+        }
+    }
+
+    private static void record(FlowExecutionOwner owner, List<FilePath> linksFiles) {
+        List<String> links = linksFiles.stream()
+            .flatMap(linksFile -> BuildScanLinksFile.collect(linksFile).stream())
+            .distinct()
+            .collect(Collectors.toList());
+        if (links.isEmpty()) {
+            return;
+        }
+        try {
+            Queue.Executable executable = owner.getExecutable();
+            if (executable instanceof Run) {
+                RunUtil.getOrCreateAction((Run<?, ?>) executable, BuildScanAction.class, BuildScanAction::new)
+                    .addScanUrls(links, new ScanDetailService(EnrichedSummaryConfig.get()));
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Unable to record the build scans of " + owner, e);
+        }
+    }
+
+    @Extension
+    public static final class CleanupRunListener extends RunListener<Run<?, ?>> {
+
+        // Pipelines which didn't reach their end node, e.g. when they were killed
+        @Override
+        public void onFinalized(Run<?, ?> run) {
+            LINKS_FILES.keySet().removeIf(owner -> {
+                try {
+                    return owner.getExecutable() == run;
+                } catch (IOException e) {
+                    return true;
+                }
+            });
+        }
+    }
+}
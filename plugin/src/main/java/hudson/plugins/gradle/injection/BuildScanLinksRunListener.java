@@ -0,0 +1,59 @@
+package hudson.plugins.gradle.injection;
+
+import hudson.Extension;
+import hudson.FilePath;
+import hudson.Launcher;
+import hudson.model.AbstractBuild;
+import hudson.model.BuildListener;
+import hudson.model.Environment;
+import hudson.model.TaskListener;
+import hudson.model.listeners.RunListener;
+import hudson.plugins.gradle.BuildScanLinksFile;
+import hudson.plugins.gradle.BuildScanPublishedListener;
+import hudson.plugins.gradle.DefaultBuildScanPublishedListener;
+import hudson.plugins.gradle.enriched.EnrichedSummaryConfig;
+import hudson.plugins.gradle.enriched.ScanDetailService;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Points injected builds of freestyle and Maven jobs to the {@link BuildScanLinksFile#forBuild well-known links file}
+ * of the build, and records the links written to it once the build completes. Pipeline steps get theirs from
+ * {@link InjectionStepEnvironmentContributor} or the {@code withGradle} step instead.
+ */
+@SuppressWarnings({"unused", "rawtypes"})
+@Extension
+public class BuildScanLinksRunListener extends RunListener<AbstractBuild> {
+
+    @Override
+    public Environment setUpEnvironment(AbstractBuild build, Launcher launcher, BuildListener listener) {
+        FilePath linksFile = InjectionConfig.get().isEnabled() ? BuildScanLinksFile.forBuild(build) : null;
+        if (linksFile == null) {
+            return new Environment() {
+            };
+        }
+        String linksFilePath = linksFile.getRemote();
+        return new Environment() {
+            @Override
+            public void buildEnvVars(Map<String, String> env) {
+                env.put(BuildScanLinksFile.ENV_VAR, linksFilePath);
+            }
+        };
+    }
+
+    @Override
+    public void onCompleted(AbstractBuild build, @Nonnull TaskListener listener) {
+        if (!InjectionConfig.get().isEnabled()) {
+            return;
+        }
+        List<String> links = BuildScanLinksFile.collect(BuildScanLinksFile.forBuild(build));
+        if (links.isEmpty()) {
+            return;
+        }
+        BuildScanPublishedListener buildScanListener =
+            new DefaultBuildScanPublishedListener(build, new ScanDetailService(EnrichedSummaryConfig.get()));
+        links.forEach(buildScanListener::onBuildScanPublished);
+    }
+}
@@ -1,35 +1,29 @@
 package hudson.plugins.gradle.injection;
 
 import hudson.FilePath;
-import hudson.Util;
-import jenkins.model.Jenkins;
 import org.apache.commons.io.IOUtils;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 
 public final class CopyUtil {
 
     private CopyUtil() {
     }
 
-    public static void copyResourceToNode(FilePath nodePath, String resourceName) throws IOException, InterruptedException {
-        doWithResource(resourceName, is -> {
-            nodePath.copyFrom(is);
-            return null;
-        });
+    public static byte[] readResource(String resourceName) throws IOException, InterruptedException {
+        return doWithResource(resourceName, IOUtils::toByteArray);
     }
 
-    public static void copyDownloadedResourceToNode(FilePath controllerRootPath, FilePath nodePath, String resourceName) throws IOException, InterruptedException {
-        nodePath.copyFrom(controllerRootPath.child(MavenExtensionDownloadHandler.DOWNLOAD_CACHE_DIR).child(resourceName));
+    public static byte[] readDownloadedResource(FilePath controllerRootPath, String digest) throws IOException, InterruptedException {
+        try (InputStream is = controllerRootPath.child(MavenExtensionDownloadHandler.DOWNLOAD_CACHE_DIR).child(MavenExtensionStore.getObjectPath(digest)).read()) {
+            return IOUtils.toByteArray(is);
+        }
     }
 
     public static String unsafeResourceDigest(String resourceName) {
         try {
-            return doWithResource(resourceName, Util::getDigestOf);
+            return doWithResource(resourceName, DigestUtil::sha256);
         } catch (IOException | InterruptedException e) {
             throw new IllegalStateException(e);
         }
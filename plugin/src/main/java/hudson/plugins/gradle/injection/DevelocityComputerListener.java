@@ -8,10 +8,16 @@ import hudson.model.Node;
 import hudson.model.TaskListener;
 import hudson.slaves.ComputerListener;
 import jenkins.model.Jenkins;
+import jenkins.util.SystemProperties;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Supplier;
-import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
@@ -24,17 +30,22 @@ public class DevelocityComputerListener extends ComputerListener {
 
     private static final Logger LOGGER = Logger.getLogger(DevelocityComputerListener.class.getName());
 
+    private static final long ONLINE_TIMEOUT_SECONDS =
+        SystemProperties.getLong(DevelocityComputerListener.class.getName() + ".onlineTimeoutSeconds", 60L);
+
     private final GradleBuildScanInjection gradleBuildScanInjection;
     private final MavenBuildScanInjection mavenBuildScanInjection;
     private final MavenExtensionDownloadHandler mavenExtensionDownloadHandler;
     private final Supplier<InjectionConfig> injectionConfigSupplier;
+    private final InjectionScheduler injectionScheduler;
 
     public DevelocityComputerListener() {
         this(
                 new GradleBuildScanInjection(),
                 new MavenBuildScanInjection(),
                 new MavenExtensionDownloadHandler(),
-                new JenkinsInjectionConfig()
+                new JenkinsInjectionConfig(),
+                InjectionScheduler.get()
         );
     }
 
@@ -44,15 +55,54 @@ public class DevelocityComputerListener extends ComputerListener {
             MavenBuildScanInjection mavenBuildScanInjection,
             MavenExtensionDownloadHandler mavenExtensionDownloadHandler,
             Supplier<InjectionConfig> injectionConfigSupplier
+    ) {
+        this(
+                gradleBuildScanInjection,
+                mavenBuildScanInjection,
+                mavenExtensionDownloadHandler,
+                injectionConfigSupplier,
+                new InjectionScheduler(Runnable::run)
+        );
+    }
+
+    @VisibleForTesting
+    DevelocityComputerListener(
+            GradleBuildScanInjection gradleBuildScanInjection,
+            MavenBuildScanInjection mavenBuildScanInjection,
+            MavenExtensionDownloadHandler mavenExtensionDownloadHandler,
+            Supplier<InjectionConfig> injectionConfigSupplier,
+            InjectionScheduler injectionScheduler
     ) {
         this.gradleBuildScanInjection = gradleBuildScanInjection;
         this.mavenBuildScanInjection = mavenBuildScanInjection;
         this.mavenExtensionDownloadHandler = mavenExtensionDownloadHandler;
         this.injectionConfigSupplier = injectionConfigSupplier;
+        this.injectionScheduler = injectionScheduler;
     }
 
+    /**
+     * Schedules the injection and waits for it, agents reconnecting together after a restart are injected in parallel
+     * by the {@link InjectionScheduler}, which also logs failures.
+     * <p>
+     * Builds can be dispatched to the node as soon as it is online, they must find the injected files and variables.
+     * The wait is bounded though, so that a node which is slow to inject doesn't block its connection indefinitely.
+     */
     @Override
     public void onOnline(Computer computer, TaskListener listener) {
+        Future<?> injection = injectionScheduler.schedule(computer.getName(), () -> inject(computer, listener));
+        try {
+            injection.get(ONLINE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            LOGGER.warning(() -> "Injection of " + computer.getName() + " is still running after "
+                + ONLINE_TIMEOUT_SECONDS + " seconds, the node is made available without waiting for it");
+        } catch (ExecutionException e) {
+            // Already logged by the scheduler
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void inject(Computer computer, TaskListener listener) {
         try {
             InjectionConfig injectionConfig = injectionConfigSupplier.get();
             EnvVars globalEnvVars = computer.buildEnvironment(listener);
@@ -69,17 +119,11 @@ public class DevelocityComputerListener extends ComputerListener {
 
             gradleBuildScanInjection.inject(node, globalEnvVars, computerEnvVars);
             mavenBuildScanInjection.inject(node, extensionsDigest);
-        } catch (Throwable t) {
-            /*
-             * We should catch everything because this is not handled by {@link hudson.slaves.SlaveComputer#setChannel(Channel, OutputStream, Channel.Listener)}
-             * and handle it the same way as Jenkins.
-             */
-            if (t instanceof Error) {
-                // We propagate Runtime errors, because they are fatal.
-                throw (Error) t;
-            }
-
-            LOGGER.log(Level.WARNING, "Invocation of onOnline failed for " + computer.getName(), t);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
         }
     }
 
@@ -3,16 +3,18 @@ package hudson.plugins.gradle.injection;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import hudson.Extension;
-import hudson.model.Job;
+import hudson.model.BallColor;
 import hudson.model.Result;
 import hudson.model.RootAction;
-import hudson.model.Run;
-import hudson.plugins.gradle.AbstractBuildScanAction;
-import hudson.plugins.gradle.BuildAgentError;
 import hudson.plugins.gradle.BuildToolType;
-import hudson.util.RunList;
 import jenkins.model.Jenkins;
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
+import org.kohsuke.stapler.HttpResponse;
+import org.kohsuke.stapler.HttpResponses;
+import org.kohsuke.stapler.QueryParameter;
 import org.kohsuke.stapler.StaplerProxy;
+import org.kohsuke.stapler.verb.GET;
 
 import java.util.Date;
 import java.util.Iterator;
@@ -21,10 +23,13 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Extension
 public class DevelocityErrorsAction implements RootAction, StaplerProxy {
+
+    private static final int PAGE_SIZE = 200;
+    private static final int MAX_PAGE_SIZE = 1000;
+
     @Override
     public String getIconFileName() {
         return isVisible() && Jenkins.get().hasPermission(Jenkins.ADMINISTER) ? "/plugin/gradle/images/svgs/gradle-build-scan.svg" : null;
@@ -46,18 +51,37 @@ public class DevelocityErrorsAction implements RootAction, StaplerProxy {
         return isVisible() ? this : null;
     }
 
-    @SuppressWarnings({"unchecked", "rawtypes"})
     public Iterator<GeErrorModel> getErrors() {
-        Stream<Run> stream = RunList.fromJobs((Iterable) Jenkins.get().allItems(Job.class))
-            .completedOnly()
-            .stream();
-        return stream.map(GeErrorModel::fromRun)
-            .filter(Optional::isPresent)
-            .map(Optional::get)
-            .limit(200)
+        return DevelocityErrorsIndex.get().getEntries(0, PAGE_SIZE).stream()
+            .map(GeErrorModel::fromEntry)
             .iterator();
     }
 
+    /**
+     * Returns a page of the runs with errors, from newest to oldest, as JSON.
+     */
+    @GET
+    public HttpResponse doErrorsJson(@QueryParameter int start, @QueryParameter int limit) {
+        DevelocityErrorsIndex index = DevelocityErrorsIndex.get();
+        int pageSize = limit > 0 ? Math.min(limit, MAX_PAGE_SIZE) : PAGE_SIZE;
+        JSONArray errors = new JSONArray();
+        for (DevelocityErrorsIndex.Entry entry : index.getEntries(Math.max(0, start), pageSize)) {
+            JSONObject error = new JSONObject();
+            error.put("project", entry.getJob());
+            error.put("number", entry.getNumber());
+            error.put("url", entry.getUrl());
+            error.put("start", entry.getStart());
+            error.put("result", entry.getResult() != null ? entry.getResult().toString() : null);
+            error.put("buildTools", entry.getBuildToolTypes().stream().map(Enum::name).collect(Collectors.toList()));
+            errors.add(error);
+        }
+        JSONObject json = new JSONObject();
+        json.put("total", index.size());
+        json.put("start", Math.max(0, start));
+        json.put("errors", errors);
+        return HttpResponses.okJSON(json);
+    }
+
     private boolean isVisible() {
         return InjectionConfig.get().isEnabled() && InjectionConfig.get().isCheckForBuildAgentErrors();
     }
@@ -84,19 +108,15 @@ public class DevelocityErrorsAction implements RootAction, StaplerProxy {
             this.start = start;
         }
 
-        static Optional<GeErrorModel> fromRun(Run<?, ?> r) {
-            AbstractBuildScanAction action = r.getAction(AbstractBuildScanAction.class);
-            if (action != null && action.hasErrors()) {
-                return Optional.of(new GeErrorModel(
-                    BuildToolIcon.buildToolIcons(action.getBuildAgentErrors()),
-                    r.getParent().getFullName(),
-                    r.getBuildStatusIconClassName(),
-                    Optional.ofNullable(r.getResult()).map(Result::toString).orElse(""),
-                    r.getUrl(),
-                    new Date(r.getStartTimeInMillis())));
-            } else {
-                return Optional.empty();
-            }
+        static GeErrorModel fromEntry(DevelocityErrorsIndex.Entry entry) {
+            Result result = entry.getResult();
+            return new GeErrorModel(
+                BuildToolIcon.buildToolIcons(entry.getBuildToolTypes()),
+                entry.getJob(),
+                result != null ? result.color.getIconClassName() : BallColor.NOTBUILT.getIconClassName(),
+                Optional.ofNullable(result).map(Result::toString).orElse(""),
+                entry.getUrl(),
+                new Date(entry.getStart()));
         }
 
         public static class BuildToolIcon {
@@ -114,9 +134,9 @@ public class DevelocityErrorsAction implements RootAction, StaplerProxy {
                 this.icon = icon;
             }
 
-            public static List<BuildToolIcon> buildToolIcons(List<BuildAgentError> buildAgentErrors) {
-                return buildAgentErrors.stream()
-                    .map(e -> ICONS_FOR_BUILD_TOOLS.get(e.getBuildToolType()))
+            public static List<BuildToolIcon> buildToolIcons(List<BuildToolType> buildToolTypes) {
+                return buildToolTypes.stream()
+                    .map(ICONS_FOR_BUILD_TOOLS::get)
                     .filter(Objects::nonNull)
                     .collect(Collectors.toList());
             }
@@ -0,0 +1,311 @@
+package hudson.plugins.gradle.injection;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import hudson.Extension;
+import hudson.ExtensionList;
+import hudson.XmlFile;
+import hudson.init.InitMilestone;
+import hudson.init.Initializer;
+import hudson.model.Item;
+import hudson.model.Job;
+import hudson.model.Result;
+import hudson.model.Run;
+import hudson.model.Saveable;
+import hudson.model.TaskListener;
+import hudson.model.listeners.ItemListener;
+import hudson.model.listeners.RunListener;
+import hudson.plugins.gradle.AbstractBuildScanAction;
+import hudson.plugins.gradle.BuildAgentError;
+import hudson.plugins.gradle.BuildToolType;
+import hudson.util.RunList;
+import jenkins.model.Jenkins;
+import jenkins.util.SystemProperties;
+import jenkins.util.Timer;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Persistent index of the runs with build agent errors, read by {@link DevelocityErrorsAction} so that showing the
+ * errors doesn't load every run of the controller.
+ * <p>
+ * Runs are added when they complete and removed when they, or their job, are deleted. Runs which completed before the
+ * index existed are added once, in the background, when the controller starts.
+ */
+@Extension
+public class DevelocityErrorsIndex implements Saveable {
+
+    private static final Logger LOGGER = Logger.getLogger(DevelocityErrorsIndex.class.getName());
+
+    private static final int MAX_ENTRIES =
+        SystemProperties.getInteger(DevelocityErrorsIndex.class.getName() + ".maxEntries", 10_000);
+
+    // Ordered by start time, oldest first
+    private List<Entry> entries = new ArrayList<>();
+    private boolean backfilled;
+
+    private final transient int maxEntries;
+    private final transient XmlFile file;
+
+    public DevelocityErrorsIndex() {
+        this(MAX_ENTRIES, new XmlFile(Jenkins.XSTREAM2, new File(Jenkins.get().getRootDir(), DevelocityErrorsIndex.class.getName() + ".xml")));
+    }
+
+    @VisibleForTesting
+    DevelocityErrorsIndex(int maxEntries, XmlFile file) {
+        this.maxEntries = maxEntries;
+        this.file = file;
+        load();
+    }
+
+    public static DevelocityErrorsIndex get() {
+        return ExtensionList.lookupSingleton(DevelocityErrorsIndex.class);
+    }
+
+    /**
+     * Returns the entries from newest to oldest, skipping the first {@code start} ones.
+     */
+    public synchronized List<Entry> getEntries(int start, int limit) {
+        List<Entry> page = new ArrayList<>(Math.max(0, Math.min(limit, entries.size() - start)));
+        for (int i = entries.size() - 1 - Math.max(0, start); i >= 0 && page.size() < limit; i--) {
+            page.add(entries.get(i));
+        }
+        return page;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    void add(Run<?, ?> run) {
+        Entry.fromRun(run).ifPresent(entry -> {
+            synchronized (this) {
+                removeIf(e -> e.isOf(entry.job, entry.number));
+                insert(entry);
+            }
+            saveQuietly();
+        });
+    }
+
+    void remove(Run<?, ?> run) {
+        String job = run.getParent().getFullName();
+        int number = run.getNumber();
+        if (removeIf(e -> e.isOf(job, number))) {
+            saveQuietly();
+        }
+    }
+
+    void removeJobs(String fullName) {
+        if (removeIf(e -> e.isInJobOrFolder(fullName))) {
+            saveQuietly();
+        }
+    }
+
+    void renameJobs(String oldFullName, String newFullName) {
+        boolean changed = false;
+        synchronized (this) {
+            for (int i = 0; i < entries.size(); i++) {
+                Entry entry = entries.get(i);
+                if (entry.isInJobOrFolder(oldFullName)) {
+                    String job = newFullName + entry.job.substring(oldFullName.length());
+                    Job<?, ?> item = Jenkins.get().getItemByFullName(job, Job.class);
+                    entries.set(i, entry.moveTo(job, item != null ? item.getUrl() + entry.number + "/" : entry.url));
+                    changed = true;
+                }
+            }
+        }
+        if (changed) {
+            saveQuietly();
+        }
+    }
+
+    private synchronized boolean removeIf(Predicate<Entry> predicate) {
+        return entries.removeIf(predicate);
+    }
+
+    private void insert(Entry entry) {
+        int index = entries.size();
+        while (index > 0 && entries.get(index - 1).start > entry.start) {
+            index--;
+        }
+        entries.add(index, entry);
+        if (entries.size() > maxEntries) {
+            entries.subList(0, entries.size() - maxEntries).clear();
+        }
+    }
+
+    /**
+     * Adds the runs which completed before the index existed, once.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void backfill() {
+        List<Entry> found = RunList.fromJobs((Iterable) Jenkins.get().allItems(Job.class))
+            .completedOnly()
+            .stream()
+            .map(r -> Entry.fromRun((Run<?, ?>) r))
+            .filter(Optional::isPresent)
+            .map(Optional::get)
+            .limit(maxEntries)
+            .collect(Collectors.toList());
+        synchronized (this) {
+            for (Entry entry : found) {
+                if (entries.stream().noneMatch(e -> e.isOf(entry.job, entry.number))) {
+                    insert(entry);
+                }
+            }
+            backfilled = true;
+        }
+        saveQuietly();
+        LOGGER.log(Level.FINE, "Indexed {0} runs with build agent errors", found.size());
+    }
+
+    @Override
+    public void save() throws IOException {
+        synchronized (this) {
+            file.write(this);
+        }
+    }
+
+    private void saveQuietly() {
+        try {
+            save();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Unable to save the index of build agent errors", e);
+        }
+    }
+
+    private synchronized void load() {
+        if (file.exists()) {
+            try {
+                file.unmarshal(this);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Unable to load the index of build agent errors, it will be rebuilt", e);
+                entries = new ArrayList<>();
+                backfilled = false;
+            }
+        }
+        if (entries == null) {
+            entries = new ArrayList<>();
+        }
+    }
+
+    @Initializer(after = InitMilestone.JOB_CONFIG_ADAPTED)
+    public static void backfillOnStartup() {
+        DevelocityErrorsIndex index = get();
+        synchronized (index) {
+            if (index.backfilled) {
+                return;
+            }
+        }
+        Timer.get().submit(index::backfill);
+    }
+
+    public static final class Entry {
+
+        private final String job;
+        private final int number;
+        private final String url;
+        private final long start;
+        @CheckForNull
+        private final Result result;
+        private final List<BuildToolType> buildToolTypes;
+
+        private Entry(String job, int number, String url, long start, @CheckForNull Result result, List<BuildToolType> buildToolTypes) {
+            this.job = job;
+            this.number = number;
+            this.url = url;
+            this.start = start;
+            this.result = result;
+            this.buildToolTypes = ImmutableList.copyOf(buildToolTypes);
+        }
+
+        static Optional<Entry> fromRun(Run<?, ?> run) {
+            AbstractBuildScanAction action = run.getAction(AbstractBuildScanAction.class);
+            if (action == null || !action.hasErrors()) {
+                return Optional.empty();
+            }
+            return Optional.of(new Entry(
+                run.getParent().getFullName(),
+                run.getNumber(),
+                run.getUrl(),
+                run.getStartTimeInMillis(),
+                run.getResult(),
+                action.getBuildAgentErrors().stream().map(BuildAgentError::getBuildToolType).collect(Collectors.toList())));
+        }
+
+        private boolean isOf(String job, int number) {
+            return this.number == number && this.job.equals(job);
+        }
+
+        private boolean isInJobOrFolder(String fullName) {
+            return job.equals(fullName) || job.startsWith(fullName + "/");
+        }
+
+        private Entry moveTo(String job, String url) {
+            return new Entry(job, number, url, start, result, buildToolTypes);
+        }
+
+        public String getJob() {
+            return job;
+        }
+
+        public int getNumber() {
+            return number;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public long getStart() {
+            return start;
+        }
+
+        @CheckForNull
+        public Result getResult() {
+            return result;
+        }
+
+        public List<BuildToolType> getBuildToolTypes() {
+            return buildToolTypes;
+        }
+    }
+
+    @Extension
+    public static final class IndexingRunListener extends RunListener<Run<?, ?>> {
+
+        @Override
+        public void onCompleted(Run<?, ?> run, @Nonnull TaskListener listener) {
+            get().add(run);
+        }
+
+        @Override
+        public void onDeleted(Run<?, ?> run) {
+            get().remove(run);
+        }
+    }
+
+    @Extension
+    public static final class IndexingItemListener extends ItemListener {
+
+        @Override
+        public void onDeleted(Item item) {
+            get().removeJobs(item.getFullName());
+        }
+
+        @Override
+        public void onLocationChanged(Item item, String oldFullName, String newFullName) {
+            get().renameJobs(oldFullName, newFullName);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package hudson.plugins.gradle.injection;
+
+import hudson.Util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * SHA-256 digests of the files injected into the nodes, computed on the controller and on the agents.
+ */
+final class DigestUtil {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private DigestUtil() {
+    }
+
+    static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+    static String sha256(byte[] bytes) {
+        return Util.toHexString(newSha256().digest(bytes));
+    }
+
+    static String sha256(InputStream is) throws IOException {
+        MessageDigest digest = newSha256();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = is.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
+        }
+        return Util.toHexString(digest.digest());
+    }
+
+    static String sha256(File file) throws IOException {
+        try (InputStream is = Files.newInputStream(file.toPath())) {
+            return sha256(is);
+        }
+    }
+}
@@ -12,6 +12,12 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 
+/**
+ * Reads environment variables of the controller and of the node configurations.
+ * <p>
+ * Injected variables are held by {@link InjectionEnvironment}. Changing the {@link EnvironmentVariablesNodeProperty}
+ * of a node is only a compatibility path, to remove the variables stored there by previous versions.
+ */
 public final class EnvUtil {
 
     private EnvUtil() {
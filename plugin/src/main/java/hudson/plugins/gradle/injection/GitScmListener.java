@@ -71,7 +71,7 @@ public class GitScmListener extends SCMListener {
             return;
         }
 
-        EnvVars envVars = computer.buildEnvironment(listener);
+        EnvVars envVars = buildEnvironment(computer, listener);
 
         if (shouldDisableGradleInjection(config)) {
             build.addAction(GradleInjectionDisabledAction.INSTANCE);
@@ -98,7 +98,7 @@ public class GitScmListener extends SCMListener {
             return;
         }
 
-        EnvVars envVars = computer.buildEnvironment(listener);
+        EnvVars envVars = buildEnvironment(computer, listener);
 
         String currentMavenOpts = envVars.get(MavenOptsHandler.MAVEN_OPTS);
         if (currentMavenOpts != null) {
@@ -112,6 +112,15 @@ public class GitScmListener extends SCMListener {
         }
     }
 
+    private static EnvVars buildEnvironment(Computer computer, TaskListener listener) throws Exception {
+        EnvVars envVars = computer.buildEnvironment(listener);
+        Node node = computer.getNode();
+        if (node != null) {
+            InjectionEnvironment.get().buildEnvironmentFor(node, envVars);
+        }
+        return envVars;
+    }
+
     private static boolean isInjectionGloballyDisabled(InjectionConfig config) {
         return config.isDisabled() || InjectionUtil.isInvalid(InjectionConfig.checkRequiredUrl(config.getServer()));
     }
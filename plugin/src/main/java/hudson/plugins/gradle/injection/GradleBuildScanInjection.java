@@ -12,9 +12,12 @@ import hudson.FilePath;
 import hudson.model.Node;
 import hudson.remoting.VirtualChannel;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -33,6 +36,8 @@ public class GradleBuildScanInjection implements GradleInjectionAware {
     private static final String INIT_DIR = "init.d";
     private static final String GRADLE_DIR = ".gradle";
     private static final String GRADLE_INIT_FILE = "init-build-scan.gradle";
+    // Not an init script, so ignored by Gradle
+    private static final String GRADLE_INIT_FILE_MARKER = ".init-build-scan.gradle.generation";
 
     private final Supplier<String> initScriptDigest = Suppliers.memoize(() -> unsafeResourceDigest(RESOURCE_INIT_SCRIPT_GRADLE));
 
@@ -43,6 +48,9 @@ public class GradleBuildScanInjection implements GradleInjectionAware {
 
         InjectionConfig config = InjectionConfig.get();
         boolean enabled = isInjectionEnabledForNode(config, node);
+        if (!enabled) {
+            InjectionEnvironment.get().removeGradleVariables(node);
+        }
         try {
             String initScriptDirectory = getInitScriptDirectory(envGlobal, envComputer);
 
@@ -76,77 +84,72 @@ public class GradleBuildScanInjection implements GradleInjectionAware {
 
     private void inject(InjectionConfig config, Node node, String initScriptDirectory) {
         try {
-            EnvUtil.setEnvVar(node, InitScriptVariables.DEVELOCITY_INJECTION_ENABLED, "true");
-            EnvUtil.setEnvVar(node, InitScriptVariables.DEVELOCITY_INJECTION_DEBUG, "true");
-            injectInitScript(node.getChannel(), initScriptDirectory);
-            injectEnvironmentVariables(config, node);
+            injectInitScript(node, initScriptDirectory);
+            InjectionEnvironment.get().setGradleVariables(node, getEnvironmentVariables(config));
+            // Stored in the node configuration by previous versions
+            EnvUtil.removeEnvVars(node, InitScriptVariables.values());
         } catch (IOException | InterruptedException e) {
             throw new IllegalStateException(e);
         }
     }
 
-    private void injectInitScript(VirtualChannel channel, String initScriptDirectory) throws IOException, InterruptedException {
-        FilePath gradleInitScriptFile = getInitScriptFile(channel, initScriptDirectory);
-        if (initScriptChanged(gradleInitScriptFile)) {
-            LOGGER.info("Injecting Gradle init script " + gradleInitScriptFile);
-
-            copyResourceToNode(gradleInitScriptFile, RESOURCE_INIT_SCRIPT_GRADLE);
+    private void injectInitScript(Node node, String initScriptDirectory) throws IOException, InterruptedException {
+        FilePath gradleInitScriptFile = getInitScriptFile(node.getChannel(), initScriptDirectory);
+        Set<String> writtenFiles = new NodeFileSync(getInitScriptMarker(node.getChannel(), initScriptDirectory))
+            .write(gradleInitScriptFile, initScriptDigest.get(), () -> readResource(RESOURCE_INIT_SCRIPT_GRADLE))
+            .sync();
+        if (!writtenFiles.isEmpty()) {
+            LOGGER.info("Injected Gradle init script " + gradleInitScriptFile);
         }
     }
 
-    private void injectEnvironmentVariables(InjectionConfig config, Node node) {
-        EnvUtil.setEnvVar(node, InitScriptVariables.DEVELOCITY_URL, config.getServer());
-        EnvUtil.setEnvVar(node, InitScriptVariables.DEVELOCITY_PLUGIN_VERSION, config.getGradlePluginVersion());
-        EnvUtil.setEnvVar(node, InitScriptVariables.DEVELOCITY_INIT_SCRIPT_NAME, GRADLE_INIT_FILE);
-        EnvUtil.setEnvVar(node, InitScriptVariables.DEVELOCITY_INJECTION_CUSTOM_VALUE, "Jenkins");
+    private static Map<String, String> getEnvironmentVariables(InjectionConfig config) {
+        Map<String, String> variables = new LinkedHashMap<>();
+        put(variables, InitScriptVariables.DEVELOCITY_INJECTION_ENABLED, "true");
+        put(variables, InitScriptVariables.DEVELOCITY_INJECTION_DEBUG, "true");
+        put(variables, InitScriptVariables.DEVELOCITY_URL, config.getServer());
+        put(variables, InitScriptVariables.DEVELOCITY_PLUGIN_VERSION, config.getGradlePluginVersion());
+        put(variables, InitScriptVariables.DEVELOCITY_INIT_SCRIPT_NAME, GRADLE_INIT_FILE);
+        put(variables, InitScriptVariables.DEVELOCITY_INJECTION_CUSTOM_VALUE, "Jenkins");
 
         if (config.isAllowUntrusted()) {
-            EnvUtil.setEnvVar(node, InitScriptVariables.DEVELOCITY_ALLOW_UNTRUSTED_SERVER, "true");
-        } else {
-            EnvUtil.removeEnvVar(node, InitScriptVariables.DEVELOCITY_ALLOW_UNTRUSTED_SERVER);
+            put(variables, InitScriptVariables.DEVELOCITY_ALLOW_UNTRUSTED_SERVER, "true");
         }
 
         if (config.isEnforceUrl()) {
-            EnvUtil.setEnvVar(node, InitScriptVariables.DEVELOCITY_ENFORCE_URL, "true");
-        } else {
-            EnvUtil.removeEnvVar(node, InitScriptVariables.DEVELOCITY_ENFORCE_URL);
+            put(variables, InitScriptVariables.DEVELOCITY_ENFORCE_URL, "true");
         }
 
         if (config.isGradleCaptureTaskInputFiles() == null || config.isGradleCaptureTaskInputFiles()) {
-            EnvUtil.setEnvVar(node, InitScriptVariables.DEVELOCITY_CAPTURE_FILE_FINGERPRINTS, "true");
-        } else {
-            EnvUtil.removeEnvVar(node, InitScriptVariables.DEVELOCITY_CAPTURE_FILE_FINGERPRINTS);
+            put(variables, InitScriptVariables.DEVELOCITY_CAPTURE_FILE_FINGERPRINTS, "true");
         }
 
         String pluginRepositoryUrl = config.getGradlePluginRepositoryUrl();
         if (pluginRepositoryUrl != null && InjectionUtil.isValid(InjectionConfig.checkUrl(pluginRepositoryUrl))) {
-            EnvUtil.setEnvVar(node, InitScriptVariables.GRADLE_PLUGIN_REPOSITORY_URL, pluginRepositoryUrl);
+            put(variables, InitScriptVariables.GRADLE_PLUGIN_REPOSITORY_URL, pluginRepositoryUrl);
         }
 
         String repositoryUsername = getRepositoryUsername(config.getGradlePluginRepositoryCredentialId());
         if (repositoryUsername != null) {
-            EnvUtil.setEnvVar(node, InitScriptVariables.GRADLE_PLUGIN_REPOSITORY_USERNAME, repositoryUsername);
-        } else {
-            EnvUtil.removeEnvVar(node, InitScriptVariables.GRADLE_PLUGIN_REPOSITORY_USERNAME);
+            put(variables, InitScriptVariables.GRADLE_PLUGIN_REPOSITORY_USERNAME, repositoryUsername);
         }
 
         String ccudPluginVersion = config.getCcudPluginVersion();
         if (ccudPluginVersion != null && InjectionUtil.isValid(InjectionConfig.checkVersion(ccudPluginVersion))) {
-            EnvUtil.setEnvVar(node, InitScriptVariables.CCUD_PLUGIN_VERSION, ccudPluginVersion);
+            put(variables, InitScriptVariables.CCUD_PLUGIN_VERSION, ccudPluginVersion);
         }
+        return variables;
     }
 
-    private boolean initScriptChanged(FilePath gradleInitScriptFile) throws IOException, InterruptedException {
-        if (!gradleInitScriptFile.exists()) {
-            return true;
+    private static void put(Map<String, String> variables, InitScriptVariables key, @Nullable String value) {
+        if (value != null) {
+            variables.put(key.getEnvVar(), value);
         }
-        String existingFileDigest = gradleInitScriptFile.digest();
-        return !Objects.equals(existingFileDigest, initScriptDigest.get());
     }
 
     private void cleanup(Node node, String initScriptDirectory) {
         try {
-            removeInitScript(node.getChannel(), initScriptDirectory);
+            removeInitScript(node, initScriptDirectory);
 
             EnvUtil.removeEnvVars(node, InitScriptVariables.values());
         } catch (IOException | InterruptedException e) {
@@ -154,14 +157,19 @@ public class GradleBuildScanInjection implements GradleInjectionAware {
         }
     }
 
-    private void removeInitScript(VirtualChannel channel, String initScriptDirectory) throws IOException, InterruptedException {
-        FilePath gradleInitScriptFile = getInitScriptFile(channel, initScriptDirectory);
-        if (gradleInitScriptFile.exists()) {
-            LOGGER.info("Deleting Gradle init script " + gradleInitScriptFile.getRemote());
+    private void removeInitScript(Node node, String initScriptDirectory) throws IOException, InterruptedException {
+        FilePath gradleInitScriptFile = getInitScriptFile(node.getChannel(), initScriptDirectory);
+        LOGGER.fine(() -> "Deleting Gradle init script " + gradleInitScriptFile.getRemote());
 
-            boolean deleted = gradleInitScriptFile.delete();
-            Preconditions.checkState(deleted, "Error while deleting init script");
-        }
+        // Without a marker, which would otherwise be written once the script is deleted
+        new NodeFileSync()
+            .delete(gradleInitScriptFile)
+            .delete(getInitScriptMarker(node.getChannel(), initScriptDirectory))
+            .sync();
+    }
+
+    private static FilePath getInitScriptMarker(VirtualChannel channel, String initScriptDirectory) {
+        return new FilePath(channel, filePath(initScriptDirectory, GRADLE_INIT_FILE_MARKER));
     }
 
     private static FilePath getInitScriptFile(VirtualChannel channel, String initScriptDirectory) {
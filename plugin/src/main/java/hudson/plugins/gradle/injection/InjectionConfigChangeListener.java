@@ -10,6 +10,8 @@ import hudson.model.Saveable;
 import hudson.model.listeners.SaveableListener;
 import jenkins.model.Jenkins;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Map;
@@ -30,6 +32,7 @@ public class InjectionConfigChangeListener extends SaveableListener {
     private final MavenExtensionDownloadHandler mavenExtensionDownloadHandler;
     private final Supplier<EnvVars> globalEnvVarsSupplier;
     private final Supplier<Collection<Computer>> computersSupplier;
+    private final InjectionScheduler injectionScheduler;
 
     public InjectionConfigChangeListener() {
         this(
@@ -37,7 +40,8 @@ public class InjectionConfigChangeListener extends SaveableListener {
                 new MavenBuildScanInjection(),
                 new MavenExtensionDownloadHandler(),
                 new JenkinsGlobalEnvVars(),
-                new JenkinsComputers()
+                new JenkinsComputers(),
+                InjectionScheduler.get()
         );
     }
 
@@ -48,12 +52,32 @@ public class InjectionConfigChangeListener extends SaveableListener {
             MavenExtensionDownloadHandler mavenExtensionDownloadHandler,
             Supplier<EnvVars> globalEnvVarsSupplier,
             Supplier<Collection<Computer>> computersSupplier
+    ) {
+        this(
+                gradleBuildScanInjection,
+                mavenBuildScanInjection,
+                mavenExtensionDownloadHandler,
+                globalEnvVarsSupplier,
+                computersSupplier,
+                new InjectionScheduler(Runnable::run)
+        );
+    }
+
+    @VisibleForTesting
+    InjectionConfigChangeListener(
+            GradleBuildScanInjection gradleBuildScanInjection,
+            MavenBuildScanInjection mavenBuildScanInjection,
+            MavenExtensionDownloadHandler mavenExtensionDownloadHandler,
+            Supplier<EnvVars> globalEnvVarsSupplier,
+            Supplier<Collection<Computer>> computersSupplier,
+            InjectionScheduler injectionScheduler
     ) {
         this.gradleBuildScanInjection = gradleBuildScanInjection;
         this.mavenBuildScanInjection = mavenBuildScanInjection;
         this.mavenExtensionDownloadHandler = mavenExtensionDownloadHandler;
         this.globalEnvVarsSupplier = globalEnvVarsSupplier;
         this.computersSupplier = computersSupplier;
+        this.injectionScheduler = injectionScheduler;
     }
 
     @Override
@@ -73,11 +97,7 @@ public class InjectionConfigChangeListener extends SaveableListener {
 
                 for (Computer computer : computersSupplier.get()) {
                     if (computer.isOnline()) {
-                        Node node = computer.getNode();
-                        EnvVars computerEnvVars = computer.getEnvironment();
-
-                        gradleBuildScanInjection.inject(node, globalEnvVars, computerEnvVars);
-                        mavenBuildScanInjection.inject(node, extensionsDigest);
+                        injectionScheduler.schedule(computer.getName(), () -> inject(computer, globalEnvVars, extensionsDigest));
                     }
                 }
             } catch (Exception e) {
@@ -86,6 +106,25 @@ public class InjectionConfigChangeListener extends SaveableListener {
         }
     }
 
+    private void inject(Computer computer, EnvVars globalEnvVars, Map<MavenExtension, String> extensionsDigest) {
+        // The node may have gone offline while the injection was waiting
+        if (!computer.isOnline()) {
+            return;
+        }
+        try {
+            Node node = computer.getNode();
+            EnvVars computerEnvVars = computer.getEnvironment();
+
+            gradleBuildScanInjection.inject(node, globalEnvVars, computerEnvVars);
+            mavenBuildScanInjection.inject(node, extensionsDigest);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
     private static final class JenkinsGlobalEnvVars implements Supplier<EnvVars> {
 
         private JenkinsGlobalEnvVars() {
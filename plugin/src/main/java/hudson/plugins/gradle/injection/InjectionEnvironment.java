@@ -0,0 +1,143 @@
+package hudson.plugins.gradle.injection;
+
+import com.google.common.annotations.VisibleForTesting;
+import hudson.EnvVars;
+import hudson.Extension;
+import hudson.model.Node;
+import hudson.slaves.EnvironmentVariablesNodeProperty;
+import jenkins.model.NodeListener;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static hudson.plugins.gradle.injection.MavenInjectionAware.MAVEN_OPTS_HANDLER;
+import static hudson.plugins.gradle.injection.MavenOptsHandler.MAVEN_OPTS;
+
+/**
+ * Holds in memory the environment variables injected into the builds running on each node, which are contributed to
+ * the builds by {@link InjectionEnvironmentContributor} and {@link InjectionStepEnvironmentContributor}.
+ * <p>
+ * Previous versions stored them in the {@link EnvironmentVariablesNodeProperty} of the node, changing
+ * its persisted configuration on every reconnection. The injection rebuilds this state whenever a node comes online or
+ * the configuration changes, so it doesn't need to survive a restart.
+ */
+public final class InjectionEnvironment {
+
+    private static final InjectionEnvironment INSTANCE = new InjectionEnvironment();
+
+    private final Map<String, Map<String, String>> gradleVariables = new ConcurrentHashMap<>();
+    private final Map<String, MavenVariables> mavenVariables = new ConcurrentHashMap<>();
+
+    @VisibleForTesting
+    InjectionEnvironment() {
+    }
+
+    public static InjectionEnvironment get() {
+        return INSTANCE;
+    }
+
+    void setGradleVariables(Node node, Map<String, String> variables) {
+        gradleVariables.put(node.getNodeName(), Collections.unmodifiableMap(new LinkedHashMap<>(variables)));
+    }
+
+    void removeGradleVariables(Node node) {
+        gradleVariables.remove(node.getNodeName());
+    }
+
+    /**
+     * @param mavenOptsProperties the system properties added to the {@code MAVEN_OPTS} of the builds
+     */
+    void setMavenVariables(Node node, Map<String, String> variables, List<SystemProperty> mavenOptsProperties) {
+        mavenVariables.put(node.getNodeName(), new MavenVariables(variables, mavenOptsProperties));
+    }
+
+    void removeMavenVariables(Node node) {
+        mavenVariables.remove(node.getNodeName());
+    }
+
+    /**
+     * Adds the variables injected for the node to the environment of a build, as if they were defined in its
+     * configuration. The system properties are appended to the {@code MAVEN_OPTS} of the node configuration.
+     */
+    public void buildEnvironmentFor(Node node, EnvVars env) {
+        Map<String, String> gradle = gradleVariables.get(node.getNodeName());
+        if (gradle != null) {
+            env.putAll(gradle);
+        }
+
+        MavenVariables maven = mavenVariables.get(node.getNodeName());
+        if (maven != null) {
+            env.putAll(maven.variables);
+            env.put(MAVEN_OPTS, MAVEN_OPTS_HANDLER.merge(EnvUtil.getEnv(node, MAVEN_OPTS), maven.mavenOptsProperties));
+        }
+    }
+
+    /**
+     * Adds the variables injected for the node to the environment of a Pipeline step, which already holds the
+     * variables of the run, of the node and of the enclosing {@code withEnv} blocks. These take precedence over the
+     * injected variables, except for {@code MAVEN_OPTS}: the system properties are appended to its effective value.
+     *
+     * @param mavenOptsOverridden whether the run overrides {@code MAVEN_OPTS}, in which case it is left as is
+     */
+    public void buildStepEnvironmentFor(Node node, EnvVars env, boolean mavenOptsOverridden) {
+        Map<String, String> gradle = gradleVariables.get(node.getNodeName());
+        if (gradle != null) {
+            gradle.forEach(env::putIfAbsent);
+        }
+
+        MavenVariables maven = mavenVariables.get(node.getNodeName());
+        if (maven != null) {
+            maven.variables.forEach(env::putIfAbsent);
+            if (!mavenOptsOverridden) {
+                env.put(MAVEN_OPTS, MAVEN_OPTS_HANDLER.merge(env.get(MAVEN_OPTS), maven.mavenOptsProperties));
+            }
+        }
+    }
+
+    /**
+     * Returns whether variables are injected for the node.
+     */
+    public boolean isInjected(Node node) {
+        return gradleVariables.containsKey(node.getNodeName()) || mavenVariables.containsKey(node.getNodeName());
+    }
+
+    /**
+     * Returns the variables of the node configuration along with the injected ones.
+     */
+    public EnvVars getEnvironment(Node node) {
+        List<EnvironmentVariablesNodeProperty> all =
+            node.getNodeProperties().getAll(EnvironmentVariablesNodeProperty.class);
+        EnvVars env = all.isEmpty() ? new EnvVars() : new EnvVars(all.get(all.size() - 1).getEnvVars());
+        buildEnvironmentFor(node, env);
+        return env;
+    }
+
+    private static final class MavenVariables {
+
+        private final Map<String, String> variables;
+        private final List<SystemProperty> mavenOptsProperties;
+
+        private MavenVariables(Map<String, String> variables, List<SystemProperty> mavenOptsProperties) {
+            this.variables = Collections.unmodifiableMap(new LinkedHashMap<>(variables));
+            this.mavenOptsProperties = Collections.unmodifiableList(new ArrayList<>(mavenOptsProperties));
+        }
+    }
+
+    /**
+     * Forgets the variables of deleted nodes, as ephemeral agents are rarely reused.
+     */
+    @Extension
+    public static final class NodeDeletionListener extends NodeListener {
+
+        @Override
+        protected void onDeleted(@Nonnull Node node) {
+            InjectionEnvironment.get().removeGradleVariables(node);
+            InjectionEnvironment.get().removeMavenVariables(node);
+        }
+    }
+}
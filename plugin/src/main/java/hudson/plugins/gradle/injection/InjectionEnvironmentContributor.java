@@ -0,0 +1,34 @@
+package hudson.plugins.gradle.injection;
+
+import hudson.EnvVars;
+import hudson.Extension;
+import hudson.model.AbstractBuild;
+import hudson.model.EnvironmentContributor;
+import hudson.model.Node;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Contributes the variables injected into a node to the freestyle and Maven builds running on it.
+ *
+ * @see InjectionStepEnvironmentContributor
+ */
+@Extension
+public class InjectionEnvironmentContributor extends EnvironmentContributor {
+
+    @Override
+    public void buildEnvironmentFor(@Nonnull Run run, @Nonnull EnvVars envs, @Nonnull TaskListener listener) {
+        // The environment of a Pipeline run isn't bound to a node, its node blocks are handled per step
+        if (!(run instanceof AbstractBuild)) {
+            return;
+        }
+
+        // Like the variables of the node configuration, they are overridden by the parameters and actions of the build
+        Node node = ((AbstractBuild<?, ?>) run).getBuiltOn();
+        if (node != null) {
+            InjectionEnvironment.get().buildEnvironmentFor(node, envs);
+        }
+    }
+}
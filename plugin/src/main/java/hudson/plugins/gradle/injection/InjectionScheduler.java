@@ -0,0 +1,257 @@
+package hudson.plugins.gradle.injection;
+
+import com.google.common.annotations.VisibleForTesting;
+import hudson.Util;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import jenkins.util.SystemProperties;
+
+import javax.annotation.CheckForNull;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs the auto-injection of nodes on a bounded pool of background threads, so that saving the configuration or
+ * reconnecting hundreds of agents at once doesn't perform all the remote calls serially on the calling thread.
+ * <p>
+ * Work is coalesced per node: while an injection is waiting for a node, scheduling another one replaces it, so a
+ * configuration change and a reconnection of the same node result in a single injection. An injection scheduled while
+ * one is running for the node runs once the latter is done.
+ * <p>
+ * The returned {@link Future} completes once the scheduled injection, or the one which replaced it, is done, so that
+ * callers which must not proceed before the node is injected can wait for it.
+ */
+public final class InjectionScheduler {
+
+    private static final Logger LOGGER = Logger.getLogger(InjectionScheduler.class.getName());
+
+    private static final int PARALLELISM = SystemProperties.getInteger(InjectionScheduler.class.getName() + ".parallelism", 8);
+    // Ephemeral agents come and go, only the status of the most recently scheduled nodes is kept
+    private static final int MAX_NODES = 1000;
+
+    private static final InjectionScheduler INSTANCE = new InjectionScheduler(newExecutor(PARALLELISM));
+
+    private final Executor executor;
+    // Guarded by this
+    private final Map<String, NodeInjection> nodes = new LinkedHashMap<>();
+
+    @VisibleForTesting
+    InjectionScheduler(Executor executor) {
+        this.executor = executor;
+    }
+
+    public static InjectionScheduler get() {
+        return INSTANCE;
+    }
+
+    private static Executor newExecutor(int parallelism) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            parallelism,
+            parallelism,
+            60L,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            new NamingThreadFactory(new DaemonThreadFactory(), "Develocity auto-injection")
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Schedules the injection of the given node, replacing the one waiting for it, if any.
+     *
+     * @param nodeName the name of the node, empty for the built-in node
+     * @return a future completed once the injection, or the one replacing it, is done
+     */
+    public Future<?> schedule(String nodeName, Runnable injection) {
+        String name = Util.fixNull(nodeName);
+        NodeInjection node;
+        CompletableFuture<Void> done;
+        synchronized (this) {
+            // Moved last, to be evicted after the nodes scheduled earlier
+            NodeInjection existing = nodes.remove(name);
+            node = existing != null ? existing : new NodeInjection(name);
+            nodes.put(name, node);
+            evictIdleNodes(node);
+            boolean alreadyQueued = node.pending != null;
+            if (!alreadyQueued) {
+                node.pendingDone = new CompletableFuture<>();
+            }
+            done = node.pendingDone;
+            node.pending = injection;
+            node.scheduled = System.currentTimeMillis();
+            if (alreadyQueued || node.running) {
+                LOGGER.fine(() -> "Coalescing the injection of " + displayName(name));
+                return done;
+            }
+            node.running = true;
+            node.state = NodeStatus.State.PENDING;
+        }
+        executor.execute(() -> run(node));
+        return done;
+    }
+
+    private void evictIdleNodes(NodeInjection scheduled) {
+        Iterator<NodeInjection> it = nodes.values().iterator();
+        while (nodes.size() > MAX_NODES && it.hasNext()) {
+            NodeInjection node = it.next();
+            if (!node.running && node != scheduled) {
+                it.remove();
+            }
+        }
+    }
+
+    private void run(NodeInjection node) {
+        while (true) {
+            Runnable injection;
+            CompletableFuture<Void> done;
+            synchronized (this) {
+                injection = node.pending;
+                if (injection == null) {
+                    node.running = false;
+                    return;
+                }
+                done = node.pendingDone;
+                node.pending = null;
+                node.pendingDone = null;
+                node.started = System.currentTimeMillis();
+                node.state = NodeStatus.State.RUNNING;
+            }
+
+            Throwable failure = null;
+            try {
+                injection.run();
+            } catch (Throwable t) {
+                // Errors from remoting, such as a LinkageError, are recorded as well, the node must not stay running
+                LOGGER.log(Level.WARNING, "Injection failed for " + displayName(node.name), t);
+                failure = t;
+            } finally {
+                complete(node, failure);
+                if (failure != null) {
+                    done.completeExceptionally(failure);
+                } else {
+                    done.complete(null);
+                }
+            }
+        }
+    }
+
+    private synchronized void complete(NodeInjection node, @CheckForNull Throwable failure) {
+        node.durationMillis = System.currentTimeMillis() - node.started;
+        node.error = failure != null ? failure.toString() : null;
+        node.state = failure != null ? NodeStatus.State.FAILED : NodeStatus.State.SUCCEEDED;
+    }
+
+    /**
+     * Returns the status of the injection of every node injected since the controller started, by node name.
+     */
+    public synchronized List<NodeStatus> getStatuses() {
+        List<NodeStatus> statuses = new ArrayList<>(nodes.size());
+        for (NodeInjection node : nodes.values()) {
+            statuses.add(new NodeStatus(node));
+        }
+        statuses.sort(Comparator.comparing(NodeStatus::getNodeName));
+        return statuses;
+    }
+
+    public static int getParallelism() {
+        return PARALLELISM;
+    }
+
+    private static String displayName(String nodeName) {
+        return nodeName.isEmpty() ? "built-in node" : nodeName;
+    }
+
+    private static final class NodeInjection {
+
+        private final String name;
+        @CheckForNull
+        private Runnable pending;
+        // Completed once the pending injection is done
+        @CheckForNull
+        private CompletableFuture<Void> pendingDone;
+        // Whether a worker thread is assigned to the node, until no injection is pending
+        private boolean running;
+        private NodeStatus.State state = NodeStatus.State.PENDING;
+        private long scheduled;
+        private long started;
+        private long durationMillis;
+        @CheckForNull
+        private String error;
+
+        private NodeInjection(String name) {
+            this.name = name;
+        }
+    }
+
+    public static final class NodeStatus {
+
+        public enum State {
+            PENDING, RUNNING, SUCCEEDED, FAILED
+        }
+
+        private final String nodeName;
+        private final State state;
+        private final boolean queued;
+        private final long scheduled;
+        private final long durationMillis;
+        @CheckForNull
+        private final String error;
+
+        private NodeStatus(NodeInjection node) {
+            this.nodeName = displayName(node.name);
+            this.state = node.state;
+            this.queued = node.pending != null;
+            this.scheduled = node.scheduled;
+            this.durationMillis = node.durationMillis;
+            this.error = node.error;
+        }
+
+        public String getNodeName() {
+            return nodeName;
+        }
+
+        /**
+         * Returns the state of the last injection of the node.
+         */
+        public State getState() {
+            return state;
+        }
+
+        /**
+         * Returns whether another injection is waiting for the node.
+         */
+        public boolean isQueued() {
+            return queued;
+        }
+
+        public Date getScheduled() {
+            return new Date(scheduled);
+        }
+
+        /**
+         * Returns the duration of the last completed injection.
+         */
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        @CheckForNull
+        public String getError() {
+            return error;
+        }
+    }
+}
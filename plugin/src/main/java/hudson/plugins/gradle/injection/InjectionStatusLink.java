@@ -0,0 +1,54 @@
+package hudson.plugins.gradle.injection;
+
+import hudson.Extension;
+import hudson.model.ManagementLink;
+import hudson.security.Permission;
+import jenkins.model.Jenkins;
+
+import java.util.List;
+
+/**
+ * Shows the progress of the auto-injection of every node, as performed by the {@link InjectionScheduler}.
+ */
+@Extension
+public class InjectionStatusLink extends ManagementLink {
+
+    @Override
+    public String getIconFileName() {
+        return "/plugin/gradle/images/svgs/gradle-build-scan.svg";
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Develocity Auto-Injection";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Status of the Develocity auto-injection of each node.";
+    }
+
+    @Override
+    public String getUrlName() {
+        return "develocityInjection";
+    }
+
+    @Override
+    public Category getCategory() {
+        return Category.STATUS;
+    }
+
+    @Override
+    public Permission getRequiredPermission() {
+        return Jenkins.ADMINISTER;
+    }
+
+    public List<InjectionScheduler.NodeStatus> getStatuses() {
+        Jenkins.get().checkPermission(Jenkins.ADMINISTER);
+        return InjectionScheduler.get().getStatuses();
+    }
+
+    public int getParallelism() {
+        return InjectionScheduler.getParallelism();
+    }
+}
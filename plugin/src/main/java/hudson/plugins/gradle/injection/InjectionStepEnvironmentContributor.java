@@ -0,0 +1,86 @@
+package hudson.plugins.gradle.injection;
+
+import hudson.EnvVars;
+import hudson.Extension;
+import hudson.FilePath;
+import hudson.Launcher;
+import hudson.model.Computer;
+import hudson.model.Node;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.plugins.gradle.BuildScanLinksFile;
+import hudson.slaves.EnvironmentVariablesNodeProperty;
+import jenkins.model.Jenkins;
+import org.jenkinsci.plugins.workflow.graph.FlowNode;
+import org.jenkinsci.plugins.workflow.graph.StepNode;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
+import org.jenkinsci.plugins.workflow.steps.StepEnvironmentContributor;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+
+import static hudson.plugins.gradle.injection.MavenOptsHandler.MAVEN_OPTS;
+
+/**
+ * Contributes the variables injected into a node to the Pipeline steps running in a {@code node} block on it, along
+ * with the {@link BuildScanLinksFile} of the steps launching processes.
+ *
+ * @see InjectionEnvironmentContributor
+ */
+@Extension
+public class InjectionStepEnvironmentContributor extends StepEnvironmentContributor {
+
+    @Override
+    public void buildEnvironmentFor(@Nonnull StepContext stepContext,
+                                    @Nonnull EnvVars envs,
+                                    @Nonnull TaskListener listener) throws IOException, InterruptedException {
+        Computer computer = stepContext.get(Computer.class);
+        Node node = computer != null ? computer.getNode() : null;
+        Run<?, ?> run = stepContext.get(Run.class);
+        if (node == null || run == null || !InjectionEnvironment.get().isInjected(node)) {
+            return;
+        }
+
+        // This runs for every step, the environment of the run, which is already part of envs, isn't computed again
+        InjectionEnvironment.get().buildStepEnvironmentFor(node, envs, isMavenOptsOverridden(run));
+
+        addBuildScanLinksFile(stepContext, envs, run);
+    }
+
+    // The steps launching processes, outside withGradle which has its own file, get a links file collected at their end
+    private static void addBuildScanLinksFile(StepContext stepContext, EnvVars envs, Run<?, ?> run)
+        throws IOException, InterruptedException {
+        if (envs.containsKey(BuildScanLinksFile.ENV_VAR)) {
+            return;
+        }
+        FlowNode flowNode = stepContext.get(FlowNode.class);
+        FilePath workspace = stepContext.get(FilePath.class);
+        if (!(flowNode instanceof StepNode) || workspace == null || !launchesProcesses((StepNode) flowNode)) {
+            return;
+        }
+        FilePath linksFile = BuildScanLinksFile.forStep(workspace, run, flowNode);
+        if (linksFile != null) {
+            envs.put(BuildScanLinksFile.ENV_VAR, linksFile.getRemote());
+            BuildScanLinksGraphListener.register(flowNode, linksFile);
+        }
+    }
+
+    private static boolean launchesProcesses(StepNode stepNode) {
+        StepDescriptor descriptor = stepNode.getDescriptor();
+        return descriptor != null && descriptor.getRequiredContext().contains(Launcher.class);
+    }
+
+    // Like the global variables, the action disabling the injection for the repository overrides the node MAVEN_OPTS
+    private static boolean isMavenOptsOverridden(Run<?, ?> run) {
+        if (run.getAction(GitScmListener.MavenInjectionDisabledAction.class) != null) {
+            return true;
+        }
+        Jenkins jenkins = Jenkins.getInstanceOrNull();
+        if (jenkins == null) {
+            return false;
+        }
+        return jenkins.getGlobalNodeProperties().getAll(EnvironmentVariablesNodeProperty.class).stream()
+            .anyMatch(it -> it.getEnvVars().containsKey(MAVEN_OPTS));
+    }
+}
@@ -0,0 +1,115 @@
+package hudson.plugins.gradle.injection;
+
+import hudson.Extension;
+import hudson.model.Queue;
+import hudson.plugins.gradle.CompositeLogProcessor;
+import hudson.plugins.gradle.GatedLogProcessor;
+import hudson.plugins.gradle.LogEventListener;
+import hudson.plugins.gradle.LogLineAnchors;
+import hudson.plugins.gradle.LogLineScanner;
+import hudson.plugins.gradle.LogMarkers;
+import hudson.plugins.gradle.RemoteLogEventListener;
+import hudson.plugins.gradle.enriched.EnrichedSummaryConfig;
+import org.jenkinsci.plugins.workflow.flow.FlowExecutionOwner;
+import org.jenkinsci.plugins.workflow.job.WorkflowRun;
+import org.jenkinsci.plugins.workflow.log.TaskListenerDecorator;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Decorates the log of a pipeline with a single {@link CompositeLogProcessor} feeding all enabled
+ * {@link LogLineScanner.Factory scanners}, so that the log is split and decoded only once.
+ * <p>
+ * The decorator is serializable: when a step decorates its log on the agent (e.g. durable tasks in watch mode),
+ * the log is scanned there and only the detected events are sent back to the controller.
+ * <p>
+ * With {@link EnrichedSummaryConfig#isBuildScanDetectionGating() gating}, the log is only scanned while a Gradle or
+ * Maven build is running, see {@link GatedLogProcessor}.
+ */
+@SuppressWarnings("unused")
+@Extension
+public class LogAnalysisTaskListenerDecoratorFactory implements TaskListenerDecorator.Factory {
+
+    private static final Logger LOGGER = Logger.getLogger(LogAnalysisTaskListenerDecoratorFactory.class.getName());
+
+    @Override
+    @CheckForNull
+    public TaskListenerDecorator of(@Nonnull FlowExecutionOwner owner) {
+        List<LogLineScanner.Factory> factories = LogLineScanner.Factory.all().stream()
+            .filter(LogLineScanner.Factory::isEnabled)
+            .collect(Collectors.toList());
+        if (factories.isEmpty()) {
+            return null;
+        }
+        try {
+            Queue.Executable executable = owner.getExecutable();
+            if (executable instanceof WorkflowRun) {
+                WorkflowRun run = (WorkflowRun) executable;
+                return new LogAnalysisTaskListenerDecorator(
+                    factories,
+                    LogMarkers.get(),
+                    run.getCharset(),
+                    new RemoteLogEventListener(new RunLogEventListener(run)),
+                    EnrichedSummaryConfig.get().isBuildScanDetectionGating()
+                );
+            }
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, null, ex);
+        }
+        return null;
+    }
+
+    public static class LogAnalysisTaskListenerDecorator extends TaskListenerDecorator implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final List<LogLineScanner.Factory> factories;
+        private final LogMarkers markers;
+        private final String charset;
+        private final LogEventListener listener;
+        private final boolean gated;
+
+        public LogAnalysisTaskListenerDecorator(List<LogLineScanner.Factory> factories,
+                                                LogMarkers markers,
+                                                Charset charset,
+                                                LogEventListener listener) {
+            this(factories, markers, charset, listener, false);
+        }
+
+        public LogAnalysisTaskListenerDecorator(List<LogLineScanner.Factory> factories,
+                                                LogMarkers markers,
+                                                Charset charset,
+                                                LogEventListener listener,
+                                                boolean gated) {
+            this.factories = new ArrayList<>(factories);
+            this.markers = markers;
+            this.charset = charset.name();
+            this.listener = listener;
+            this.gated = gated;
+        }
+
+        @Nonnull
+        @Override
+        public OutputStream decorate(@Nonnull OutputStream logger) {
+            List<LogLineScanner> scanners = factories.stream()
+                .map(factory -> factory.create(listener, markers))
+                .collect(Collectors.toList());
+            Charset logCharset = Charset.forName(charset);
+            LogLineAnchors buildStartAnchors = markers.getBuildStartAnchors();
+            LogLineAnchors buildOutcomeAnchors = markers.getBuildOutcomeAnchors();
+            if (gated && buildStartAnchors != null && buildOutcomeAnchors != null && LogLineAnchors.isAsciiCompatible(logCharset)) {
+                return new GatedLogProcessor(logger, logCharset, scanners, buildStartAnchors, buildOutcomeAnchors);
+            }
+            return new CompositeLogProcessor(logger, logCharset, scanners);
+        }
+    }
+}
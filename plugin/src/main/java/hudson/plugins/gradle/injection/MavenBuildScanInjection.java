@@ -7,6 +7,7 @@ import jenkins.model.Jenkins;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -45,6 +46,9 @@ public class MavenBuildScanInjection implements MavenInjectionAware {
 
         InjectionConfig config = InjectionConfig.get();
         boolean enabled = isInjectionEnabledForNode(config, node);
+        if (!enabled) {
+            InjectionEnvironment.get().removeMavenVariables(node);
+        }
         try {
             if (enabled) {
                 if (!extensionsDigest.isEmpty()) {
@@ -64,8 +68,6 @@ public class MavenBuildScanInjection implements MavenInjectionAware {
 
     private void inject(InjectionConfig config, Node node, FilePath nodeRootPath, Map<MavenExtension, String> extensionsDigest) {
         try {
-            EnvUtil.setEnvVar(node, JENKINSGRADLEPLUGIN_MAVEN_AUTO_INJECTION, "true");
-
             String server = config.getServer();
 
             LOGGER.info("Injecting Maven extensions " + nodeRootPath);
@@ -73,14 +75,20 @@ public class MavenBuildScanInjection implements MavenInjectionAware {
             List<FilePath> extensions = new ArrayList<>();
             FilePath controllerRootPath = Jenkins.get().getRootPath();
 
+            // All extensions are compared with the agent's files at once, then only the outdated ones are sent
+            NodeFileSync sync = new NodeFileSync(extensionsHandler.getMarker(nodeRootPath));
             MavenExtension develocityMavenExtension = MavenExtension.getDevelocityMavenExtension(config.getMavenExtensionVersion());
-            extensions.add(extensionsHandler.copyExtensionToAgent(develocityMavenExtension, controllerRootPath, nodeRootPath, extensionsDigest.get(develocityMavenExtension)));
+            extensions.add(extensionsHandler.copyExtensionToAgent(sync, develocityMavenExtension, controllerRootPath, nodeRootPath, extensionsDigest.get(develocityMavenExtension)));
             if (InjectionUtil.isInvalid(InjectionConfig.checkRequiredVersion(config.getCcudExtensionVersion()))) {
-                extensionsHandler.deleteExtensionFromAgent(MavenExtension.CCUD, nodeRootPath);
+                extensionsHandler.deleteExtensionFromAgent(sync, MavenExtension.CCUD, nodeRootPath);
             } else {
-                extensions.add(extensionsHandler.copyExtensionToAgent(MavenExtension.CCUD, controllerRootPath, nodeRootPath, extensionsDigest.get(MavenExtension.CCUD)));
+                extensions.add(extensionsHandler.copyExtensionToAgent(sync, MavenExtension.CCUD, controllerRootPath, nodeRootPath, extensionsDigest.get(MavenExtension.CCUD)));
             }
 
+            // Configuration needed to support https://plugins.jenkins.io/maven-plugin/
+            FilePath configurationExtension = extensionsHandler.copyExtensionToAgent(sync, MavenExtension.CONFIGURATION, nodeRootPath);
+            sync.sync();
+
             boolean isUnix = isUnix(node);
 
             List<SystemProperty> systemProperties = new ArrayList<>();
@@ -100,18 +108,20 @@ public class MavenBuildScanInjection implements MavenInjectionAware {
             systemProperties.add(new SystemProperty(GRADLE_ENTERPRISE_CAPTURE_GOAL_INPUT_FILES_PROPERTY_KEY, captureFileFingerprints));
             systemProperties.add(new SystemProperty(DEVELOCITY_CUSTOM_VALUE_KEY, "Jenkins"));
 
-            EnvUtil.setEnvVar(node, MavenOptsHandler.MAVEN_OPTS, MAVEN_OPTS_HANDLER.merge(node, systemProperties));
-
-            // Configuration needed to support https://plugins.jenkins.io/maven-plugin/
-            extensions.add(extensionsHandler.copyExtensionToAgent(MavenExtension.CONFIGURATION, nodeRootPath));
+            extensions.add(configurationExtension);
 
-            EnvUtil.setEnvVar(node, JENKINSGRADLEPLUGIN_MAVEN_PLUGIN_CONFIG_EXT_CLASSPATH, constructExtClasspath(extensions, isUnix));
-            EnvUtil.setEnvVar(node, JENKINSGRADLEPLUGIN_MAVEN_PLUGIN_CONFIG_SERVER_URL, config.getServer());
+            Map<String, String> variables = new LinkedHashMap<>();
+            variables.put(JENKINSGRADLEPLUGIN_MAVEN_AUTO_INJECTION, "true");
+            variables.put(JENKINSGRADLEPLUGIN_MAVEN_PLUGIN_CONFIG_EXT_CLASSPATH, constructExtClasspath(extensions, isUnix));
+            variables.put(JENKINSGRADLEPLUGIN_MAVEN_PLUGIN_CONFIG_SERVER_URL, config.getServer());
             if (config.isAllowUntrusted()) {
-                EnvUtil.setEnvVar(node, JENKINSGRADLEPLUGIN_MAVEN_PLUGIN_CONFIG_ALLOW_UNTRUSTED_SERVER, "true");
-            } else {
-                EnvUtil.removeEnvVar(node, JENKINSGRADLEPLUGIN_MAVEN_PLUGIN_CONFIG_ALLOW_UNTRUSTED_SERVER);
+                variables.put(JENKINSGRADLEPLUGIN_MAVEN_PLUGIN_CONFIG_ALLOW_UNTRUSTED_SERVER, "true");
             }
+            InjectionEnvironment.get().setMavenVariables(node, variables, systemProperties);
+
+            // Stored in the node configuration by previous versions
+            MAVEN_OPTS_HANDLER.removeIfNeeded(node);
+            EnvUtil.removeEnvVars(node, ALL_INJECTED_ENVIRONMENT_VARIABLES);
         } catch (IOException | InterruptedException e) {
             throw new IllegalStateException(e);
         }
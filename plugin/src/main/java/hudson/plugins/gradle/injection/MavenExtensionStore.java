@@ -0,0 +1,242 @@
+package hudson.plugins.gradle.injection;
+
+import hudson.Util;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Content-addressed store of the Maven extensions downloaded by the controller. Each JAR is stored once, named after
+ * its SHA-256 digest, which is also the digest the agents check their copy against. An index maps the versions of the
+ * extensions to their digests.
+ * <p>
+ * Downloads are written to a temporary file moved into place once complete, and the index is replaced the same way,
+ * so concurrent configuration changes can't corrupt the store and readers never see a partial file. The
+ * {@value #MAX_VERSIONS_PER_EXTENSION} most recently used versions of each extension are retained, switching back to
+ * one of them doesn't hit the network.
+ */
+final class MavenExtensionStore {
+
+    static final int MAX_VERSIONS_PER_EXTENSION = 5;
+
+    private static final String OBJECTS_DIR = "objects";
+    private static final String OBJECT_EXTENSION = ".jar";
+    private static final String INDEX_FILE = "index.properties";
+
+    // Readers only read the index, which is replaced atomically, the writers are serialized across the handlers
+    private static final Object LOCK = new Object();
+
+    private final Path root;
+
+    MavenExtensionStore(Path root) {
+        this.root = root;
+    }
+
+    static String getObjectPath(String digest) {
+        return OBJECTS_DIR + "/" + digest + OBJECT_EXTENSION;
+    }
+
+    /**
+     * Returns the digest of a version of the extension, if it is in the store or was downloaded by a previous version.
+     */
+    Optional<String> get(MavenExtension extension, String version) throws IOException {
+        Optional<String> digest = Optional.ofNullable(readIndex().get(key(extension, version)))
+            .map(entry -> entry.digest)
+            .filter(this::exists);
+
+        return digest.isPresent() ? digest : importLegacyFile(extension, version);
+    }
+
+    /**
+     * Returns the digest of a version of the extension, downloading it if it isn't in the store. The version becomes
+     * the most recently used one of the extension, and the least recently used ones beyond
+     * {@link #MAX_VERSIONS_PER_EXTENSION} are evicted.
+     */
+    String getOrDownload(MavenExtension extension, String version, Download download) throws IOException {
+        synchronized (LOCK) {
+            Map<String, Entry> index = readIndex();
+            String key = key(extension, version);
+
+            Entry entry = index.get(key);
+            String digest = entry != null && exists(entry.digest) ? entry.digest : store(download);
+
+            long lastUse = index.values().stream().mapToLong(it -> it.use).max().orElse(0);
+            if (entry == null || !entry.digest.equals(digest) || entry.use != lastUse) {
+                index.put(key, new Entry(digest, lastUse + 1));
+                evict(index, extension);
+                writeIndex(index);
+                deleteUnreferencedObjects(index);
+            }
+            deleteLegacyFiles(extension);
+
+            return digest;
+        }
+    }
+
+    private String store(Download download) throws IOException {
+        Path objects = Files.createDirectories(root.resolve(OBJECTS_DIR));
+        Path tmp = Files.createTempFile(objects, "download", ".tmp");
+        try {
+            MessageDigest sha256 = DigestUtil.newSha256();
+            try (OutputStream os = new DigestOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)), sha256)) {
+                download.to(os);
+            }
+            String digest = Util.toHexString(sha256.digest());
+            move(tmp, root.resolve(getObjectPath(digest)));
+
+            return digest;
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private boolean exists(String digest) {
+        return Files.isRegularFile(root.resolve(getObjectPath(digest)));
+    }
+
+    private static void evict(Map<String, Entry> index, MavenExtension extension) {
+        String prefix = key(extension, "");
+        List<String> evicted = index.entrySet().stream()
+            .filter(it -> it.getKey().startsWith(prefix))
+            .sorted(Comparator.comparingLong((Map.Entry<String, Entry> it) -> it.getValue().use).reversed())
+            .skip(MAX_VERSIONS_PER_EXTENSION)
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toList());
+
+        evicted.forEach(index::remove);
+    }
+
+    private void deleteUnreferencedObjects(Map<String, Entry> index) throws IOException {
+        Set<String> referenced = new HashSet<>();
+        index.values().forEach(it -> referenced.add(it.digest + OBJECT_EXTENSION));
+
+        // Also removes the temporary files left by interrupted downloads
+        try (DirectoryStream<Path> objects = Files.newDirectoryStream(root.resolve(OBJECTS_DIR))) {
+            for (Path object : objects) {
+                if (!referenced.contains(object.getFileName().toString())) {
+                    Files.deleteIfExists(object);
+                }
+            }
+        }
+    }
+
+    // Previous versions stored a single version of each extension, along with a CSV file holding its version and digest.
+    // It is imported so that the nodes coming online after an upgrade don't wait for the next configuration change.
+    private Optional<String> importLegacyFile(MavenExtension extension, String version) throws IOException {
+        Path metadataFile = root.resolve(extension.getDownloadMetadataFileName());
+        Path jarFile = root.resolve(extension.getEmbeddedJarName());
+        try {
+            if (!Files.readString(metadataFile).split(",")[0].equals(version) || !Files.isRegularFile(jarFile)) {
+                return Optional.empty();
+            }
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+
+        return Optional.of(getOrDownload(extension, version, os -> Files.copy(jarFile, os)));
+    }
+
+    private void deleteLegacyFiles(MavenExtension extension) throws IOException {
+        Files.deleteIfExists(root.resolve(extension.getEmbeddedJarName()));
+        Files.deleteIfExists(root.resolve(extension.getDownloadMetadataFileName()));
+    }
+
+    private Map<String, Entry> readIndex() throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(root.resolve(INDEX_FILE), StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (NoSuchFileException e) {
+            return new HashMap<>();
+        }
+
+        Map<String, Entry> index = new HashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            Entry.parse(properties.getProperty(key)).ifPresent(it -> index.put(key, it));
+        }
+        return index;
+    }
+
+    private void writeIndex(Map<String, Entry> index) throws IOException {
+        Properties properties = new Properties();
+        index.forEach((key, entry) -> properties.setProperty(key, entry.toString()));
+
+        Path directory = Files.createDirectories(root);
+        Path tmp = Files.createTempFile(directory, INDEX_FILE, ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                properties.store(writer, null);
+            }
+            move(tmp, root.resolve(INDEX_FILE));
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static String key(MavenExtension extension, String version) {
+        return extension.getName() + "/" + version;
+    }
+
+    @FunctionalInterface
+    interface Download {
+
+        void to(OutputStream os) throws IOException;
+    }
+
+    private static final class Entry {
+
+        private final String digest;
+        // Order of the last use, across all the extensions
+        private final long use;
+
+        private Entry(String digest, long use) {
+            this.digest = digest;
+            this.use = use;
+        }
+
+        private static Optional<Entry> parse(String value) {
+            String[] parts = value.split(",");
+            if (parts.length != 2) {
+                return Optional.empty();
+            }
+            try {
+                return Optional.of(new Entry(parts[0], Long.parseLong(parts[1])));
+            } catch (NumberFormatException e) {
+                return Optional.empty();
+            }
+        }
+
+        @Override
+        public String toString() {
+            return digest + "," + use;
+        }
+    }
+}
@@ -8,17 +8,17 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.util.Arrays;
 import java.util.Map;
-import java.util.Objects;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
-import static hudson.plugins.gradle.injection.CopyUtil.copyDownloadedResourceToNode;
-import static hudson.plugins.gradle.injection.CopyUtil.copyResourceToNode;
+import static hudson.plugins.gradle.injection.CopyUtil.readDownloadedResource;
+import static hudson.plugins.gradle.injection.CopyUtil.readResource;
 import static hudson.plugins.gradle.injection.CopyUtil.unsafeResourceDigest;
 
 public final class MavenExtensionsHandler {
 
     static final String LIB_DIR_PATH = "jenkins-gradle-plugin/lib";
+    private static final String MARKER_FILE_PATH = "jenkins-gradle-plugin/.lib.generation";
 
     private final Map<MavenExtension, MavenExtensionFileHandler> fileHandlers =
             Arrays.stream(MavenExtension.values())
@@ -26,19 +26,56 @@ public final class MavenExtensionsHandler {
                     .collect(Collectors.toMap(h -> h.extension, Function.identity()));
 
     public FilePath copyExtensionToAgent(MavenExtension extension, FilePath rootPath) throws IOException, InterruptedException {
-        return fileHandlers.get(extension).copyExtensionToAgent(rootPath);
+        NodeFileSync sync = new NodeFileSync();
+        FilePath extensionLocation = copyExtensionToAgent(sync, extension, rootPath);
+        sync.sync();
+        return extensionLocation;
     }
 
     public FilePath copyExtensionToAgent(MavenExtension extension, FilePath controllerRootPath, FilePath rootPath, String digest) throws IOException, InterruptedException {
-        return fileHandlers.get(extension).copyExtensionToAgent(controllerRootPath, rootPath, digest);
+        NodeFileSync sync = new NodeFileSync();
+        FilePath extensionLocation = copyExtensionToAgent(sync, extension, controllerRootPath, rootPath, digest);
+        sync.sync();
+        return extensionLocation;
+    }
+
+    /**
+     * Adds the embedded extension to the files synchronized with the agent and returns a path to the extension on the
+     * agent.
+     */
+    FilePath copyExtensionToAgent(NodeFileSync sync, MavenExtension extension, FilePath rootPath) {
+        return fileHandlers.get(extension).copyExtensionToAgent(sync, rootPath);
+    }
+
+    /**
+     * Adds the downloaded extension to the files synchronized with the agent and returns a path to the extension on
+     * the agent. The passed digest locates the extension in the store of the controller, and is used to verify if the
+     * extension has changed.
+     */
+    FilePath copyExtensionToAgent(NodeFileSync sync, MavenExtension extension, FilePath controllerRootPath, FilePath rootPath, String digest) {
+        return fileHandlers.get(extension).copyExtensionToAgent(sync, controllerRootPath, rootPath, digest);
     }
 
     public void deleteExtensionFromAgent(MavenExtension extension, FilePath rootPath) throws IOException, InterruptedException {
-        fileHandlers.get(extension).deleteExtensionFromAgent(rootPath);
+        NodeFileSync sync = new NodeFileSync();
+        deleteExtensionFromAgent(sync, extension, rootPath);
+        sync.sync();
+    }
+
+    void deleteExtensionFromAgent(NodeFileSync sync, MavenExtension extension, FilePath rootPath) {
+        fileHandlers.get(extension).deleteExtensionFromAgent(sync, rootPath);
+    }
+
+    /**
+     * Returns the marker recording the extensions deployed to the agent.
+     */
+    FilePath getMarker(FilePath rootPath) {
+        return rootPath.child(MARKER_FILE_PATH);
     }
 
     public void deleteAllExtensionsFromAgent(FilePath rootPath) throws IOException, InterruptedException {
         rootPath.child(LIB_DIR_PATH).deleteContents();
+        getMarker(rootPath).delete();
     }
 
     private static final class MavenExtensionFileHandler {
@@ -52,56 +89,28 @@ public final class MavenExtensionsHandler {
                     Suppliers.memoize(() -> unsafeResourceDigest(extension.getEmbeddedJarName()));
         }
 
-        /**
-         * Copies the extension to the agent, if it is not already present, and returns a path to the extension
-         * on the agent.
-         */
-        public FilePath copyExtensionToAgent(FilePath rootPath) throws IOException, InterruptedException {
+        public FilePath copyExtensionToAgent(NodeFileSync sync, FilePath rootPath) {
             FilePath extensionLocation = getExtensionLocation(rootPath);
-            if (extensionChanged(extensionLocation)) {
-                copyResourceToNode(extensionLocation, extension.getEmbeddedJarName());
-            }
+            sync.write(extensionLocation, extensionDigest.get(), () -> readResource(extension.getEmbeddedJarName()));
 
             return extensionLocation;
         }
 
-        /**
-         * Copies the extension to the agent, if it is not already present, and returns a path to the extension
-         * on the agent. Uses passed digest to verify if the extension has changed.
-         */
-        public FilePath copyExtensionToAgent(FilePath controllerRootPath, FilePath rootPath, String digest) throws IOException, InterruptedException {
+        public FilePath copyExtensionToAgent(NodeFileSync sync, FilePath controllerRootPath, FilePath rootPath, String digest) {
             FilePath extensionLocation = getExtensionLocation(rootPath);
-            if (extensionChanged(extensionLocation, digest)) {
-                copyDownloadedResourceToNode(controllerRootPath, extensionLocation, extension.getEmbeddedJarName());
-            }
+            sync.write(extensionLocation, digest, () -> readDownloadedResource(controllerRootPath, digest));
 
             return extensionLocation;
         }
 
-        public void deleteExtensionFromAgent(FilePath rootPath) throws IOException, InterruptedException {
-            FilePath extensionLocation = getExtensionLocation(rootPath);
-            if (extensionLocation.exists()) {
-                extensionLocation.delete();
-            }
+        public void deleteExtensionFromAgent(NodeFileSync sync, FilePath rootPath) {
+            sync.delete(getExtensionLocation(rootPath));
         }
 
         private FilePath getExtensionLocation(FilePath rootPath) {
             return rootPath.child(LIB_DIR_PATH).child(extension.getTargetJarName());
         }
 
-        private boolean extensionChanged(FilePath nodePath) throws IOException, InterruptedException {
-            return extensionChanged(nodePath, extensionDigest.get());
-        }
-
-        private boolean extensionChanged(FilePath nodePath, String digest) throws IOException, InterruptedException {
-            if (!nodePath.exists()) {
-                return true;
-            }
-            String existingFileDigest = nodePath.digest();
-
-            return !Objects.equals(existingFileDigest, digest);
-        }
-
     }
 
 }
@@ -35,18 +35,21 @@ final class MavenOptsHandler {
                     Collectors.collectingAndThen(Collectors.toSet(), Collections::unmodifiableSet));
     }
 
-    String merge(Node node, List<SystemProperty> systemProperties) {
+    String merge(@Nullable String currentMavenOpts, List<SystemProperty> systemProperties) {
         String additionalProperties =
             systemProperties
                 .stream()
                 .map(SystemProperty::asString)
                 .collect(Collectors.joining(SPACE));
 
-        return filtered(getCurrentMavenOpts(node), Collections.emptySet())
+        return filtered(currentMavenOpts, Collections.emptySet())
                 .map(current -> String.join(SPACE, current, additionalProperties))
                 .orElse(additionalProperties);
     }
 
+    /**
+     * Removes the system properties added to the {@code MAVEN_OPTS} of the node configuration by previous versions.
+     */
     void removeIfNeeded(Node node) throws IOException, InterruptedException {
         String currentMavenOpts = EnvUtil.getEnv(node, MAVEN_OPTS);
         if (currentMavenOpts == null || currentMavenOpts.isEmpty()) {
@@ -84,11 +87,6 @@ final class MavenOptsHandler {
             .map(it -> filterMavenOpts(it, keepKeys));
     }
 
-    @Nullable
-    private static String getCurrentMavenOpts(Node node) {
-        return EnvUtil.getEnv(node, MAVEN_OPTS);
-    }
-
     /**
      * Splits {@code MAVEN_OPTS} at each space and then removes all key value pairs containing any of the keys
      * that were added by the auto-injection.
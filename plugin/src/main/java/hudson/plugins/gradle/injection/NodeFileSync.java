@@ -0,0 +1,305 @@
+package hudson.plugins.gradle.injection;
+
+import com.google.common.base.Preconditions;
+import hudson.FilePath;
+import hudson.Util;
+import jenkins.security.MasterToSlaveCallable;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Synchronizes the files injected into a node with as few remote calls as possible. The manifest of the wanted files
+ * and their digests is sent to the node, which compares it with its filesystem, deletes the unwanted files and reports
+ * the missing or outdated ones. Only the payloads of these are then sent, all at once.
+ * <p>
+ * Checking whether each file exists, then computing its digest, then copying it would otherwise cost several
+ * round trips per file, which adds up to seconds for agents with a high latency.
+ * <p>
+ * With a marker, the node also remembers what was last deployed to it. The marker file, written alongside the files,
+ * holds the fingerprint of the manifest and the size and modification time of the files. If the manifest didn't change
+ * since, as on most reconnections, including the ones following a restart of the controller, the node only compares
+ * the marker with its files instead of hashing them. A missing or stale marker falls back to the full verification.
+ */
+final class NodeFileSync {
+
+    private final Map<String, NodeFile> files = new LinkedHashMap<>();
+    private final Set<String> deletedFiles = new LinkedHashSet<>();
+    @Nullable
+    private FilePath anchor;
+    @Nullable
+    private final FilePath marker;
+
+    NodeFileSync() {
+        this.marker = null;
+    }
+
+    /**
+     * Creates a synchronization which skips the verification of the files when the given marker shows that the node
+     * still has what was last deployed to it.
+     *
+     * @param marker the marker file, next to the synchronized files
+     */
+    NodeFileSync(FilePath marker) {
+        this.marker = anchor(marker);
+    }
+
+    /**
+     * Adds a file to write to the node unless it already exists with the given digest.
+     *
+     * @param digest the SHA-256 digest of the payload, or {@code null} to always write the file
+     */
+    NodeFileSync write(FilePath target, @Nullable String digest, Payload payload) {
+        files.put(anchor(target).getRemote(), new NodeFile(digest, payload));
+        deletedFiles.remove(target.getRemote());
+        return this;
+    }
+
+    /**
+     * Adds a file to delete from the node, if it exists.
+     */
+    NodeFileSync delete(FilePath target) {
+        deletedFiles.add(anchor(target).getRemote());
+        files.remove(target.getRemote());
+        return this;
+    }
+
+    private FilePath anchor(FilePath target) {
+        if (anchor == null) {
+            anchor = target;
+        } else {
+            Preconditions.checkArgument(
+                Objects.equals(anchor.getChannel(), target.getChannel()), "All files must be on the same node");
+        }
+        return target;
+    }
+
+    /**
+     * Performs the synchronization and returns the remote paths of the written files.
+     */
+    Set<String> sync() throws IOException, InterruptedException {
+        if (anchor == null || files.isEmpty() && deletedFiles.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        Map<String, String> manifest = new LinkedHashMap<>();
+        files.forEach((path, file) -> manifest.put(path, file.digest));
+
+        // Derived from the manifest only, the generation stays the same across restarts of the controller
+        Marker nodeMarker = marker != null && !manifest.containsValue(null)
+            ? new Marker(marker.getRemote(), fingerprint(manifest, deletedFiles), new ArrayList<>(files.keySet()), new ArrayList<>(deletedFiles))
+            : null;
+
+        List<String> outdatedFiles = anchor.act(new Reconcile(manifest, new ArrayList<>(deletedFiles), nodeMarker));
+        if (!outdatedFiles.isEmpty()) {
+            Map<String, byte[]> payloads = new LinkedHashMap<>();
+            for (String path : outdatedFiles) {
+                payloads.put(path, files.get(path).payload.read());
+            }
+            anchor.act(new WriteFiles(payloads, nodeMarker));
+        }
+        return outdatedFiles.isEmpty() ? Collections.emptySet() : new LinkedHashSet<>(outdatedFiles);
+    }
+
+    private static String fingerprint(Map<String, String> manifest, Set<String> deletedFiles) {
+        StringBuilder sb = new StringBuilder();
+        manifest.forEach((path, digest) -> sb.append(path).append('=').append(digest).append('\n'));
+        deletedFiles.forEach(path -> sb.append(path).append("=-\n"));
+        return Util.getDigestOf(sb.toString());
+    }
+
+    @FunctionalInterface
+    interface Payload {
+
+        byte[] read() throws IOException, InterruptedException;
+    }
+
+    private static final class NodeFile {
+
+        @Nullable
+        private final String digest;
+        private final Payload payload;
+
+        private NodeFile(@Nullable String digest, Payload payload) {
+            this.digest = digest;
+            this.payload = payload;
+        }
+    }
+
+    private static final class Reconcile extends MasterToSlaveCallable<List<String>, IOException> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Map<String, String> manifest;
+        private final List<String> deletedFiles;
+        @Nullable
+        private final Marker marker;
+
+        Reconcile(Map<String, String> manifest, List<String> deletedFiles, @Nullable Marker marker) {
+            this.manifest = manifest;
+            this.deletedFiles = deletedFiles;
+            this.marker = marker;
+        }
+
+        @Override
+        public List<String> call() throws IOException {
+            if (marker != null) {
+                if (marker.isValid()) {
+                    return Collections.emptyList();
+                }
+                // The marker must not vouch for the files until they are all up to date
+                marker.delete();
+            }
+
+            for (String path : deletedFiles) {
+                Files.deleteIfExists(new File(path).toPath());
+            }
+
+            List<String> outdatedFiles = new ArrayList<>();
+            for (Map.Entry<String, String> entry : manifest.entrySet()) {
+                File file = new File(entry.getKey());
+                String digest = entry.getValue();
+                if (digest == null || !file.isFile() || !digest.equals(DigestUtil.sha256(file))) {
+                    outdatedFiles.add(entry.getKey());
+                }
+            }
+
+            if (outdatedFiles.isEmpty() && marker != null) {
+                marker.write();
+            }
+            return outdatedFiles;
+        }
+    }
+
+    private static final class WriteFiles extends MasterToSlaveCallable<Void, IOException> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Map<String, byte[]> payloads;
+        @Nullable
+        private final Marker marker;
+
+        WriteFiles(Map<String, byte[]> payloads, @Nullable Marker marker) {
+            this.payloads = payloads;
+            this.marker = marker;
+        }
+
+        @Override
+        public Void call() throws IOException {
+            for (Map.Entry<String, byte[]> entry : payloads.entrySet()) {
+                writeAtomically(entry.getKey(), entry.getValue());
+            }
+            if (marker != null) {
+                marker.write();
+            }
+            return null;
+        }
+    }
+
+    /**
+     * The marker holds the fingerprint of the manifest and the size and modification time of each file, so a file
+     * replaced or modified since is noticed without hashing it.
+     */
+    private static final class Marker implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private static final String GENERATION = "generation";
+
+        private final String path;
+        private final String generation;
+        private final List<String> files;
+        private final List<String> deletedFiles;
+
+        private Marker(String path, String generation, List<String> files, List<String> deletedFiles) {
+            this.path = path;
+            this.generation = generation;
+            this.files = files;
+            this.deletedFiles = deletedFiles;
+        }
+
+        boolean isValid() throws IOException {
+            Properties properties = new Properties();
+            try (InputStream is = Files.newInputStream(new File(path).toPath())) {
+                properties.load(is);
+            } catch (NoSuchFileException e) {
+                return false;
+            }
+
+            if (!generation.equals(properties.getProperty(GENERATION))) {
+                return false;
+            }
+            for (String file : files) {
+                if (!stat(new File(file)).equals(properties.getProperty(file))) {
+                    return false;
+                }
+            }
+            for (String file : deletedFiles) {
+                if (new File(file).exists()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void write() throws IOException {
+            Properties properties = new Properties();
+            properties.setProperty(GENERATION, generation);
+            for (String file : files) {
+                properties.setProperty(file, stat(new File(file)));
+            }
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            properties.store(out, null);
+            writeAtomically(path, out.toByteArray());
+        }
+
+        void delete() throws IOException {
+            Files.deleteIfExists(new File(path).toPath());
+        }
+
+        private static String stat(File file) {
+            return file.length() + ":" + file.lastModified();
+        }
+    }
+
+    private static void writeAtomically(String path, byte[] content) throws IOException {
+        Path target = new File(path).toPath().toAbsolutePath();
+        Path directory = Files.createDirectories(target.getParent());
+
+        // Builds starting meanwhile must not see a partially written file
+        Path tmp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        try {
+            Files.write(tmp, content);
+            move(tmp, target);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package hudson.plugins.gradle.injection;
+
+import hudson.model.Run;
+import hudson.plugins.gradle.BuildAgentError;
+import hudson.plugins.gradle.DefaultBuildScanPublishedListener;
+import hudson.plugins.gradle.LogEventListener;
+import hudson.plugins.gradle.enriched.EnrichedSummaryConfig;
+import hudson.plugins.gradle.enriched.ScanDetailService;
+
+import java.io.Serializable;
+
+/**
+ * Records the events detected in the log of a run on the run itself. Only meaningful on the controller, events are
+ * dropped if this listener was serialized without being exported.
+ */
+public final class RunLogEventListener implements LogEventListener, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient Run<?, ?> run;
+
+    public RunLogEventListener(Run<?, ?> run) {
+        this.run = run;
+    }
+
+    @Override
+    public void onBuildScanPublished(String scanUrl) {
+        if (run != null) {
+            ScanDetailService scanDetailService = new ScanDetailService(EnrichedSummaryConfig.get());
+            new DefaultBuildScanPublishedListener(run, scanDetailService).onBuildScanPublished(scanUrl);
+        }
+    }
+
+    @Override
+    public void onBuildAgentError(BuildAgentError buildAgentError) {
+        if (run != null) {
+            new DefaultBuildAgentErrorListener(run).onBuildAgentError(buildAgentError);
+        }
+    }
+}
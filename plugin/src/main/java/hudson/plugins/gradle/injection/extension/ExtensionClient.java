@@ -1,6 +1,7 @@
 package hudson.plugins.gradle.injection.extension;
 
 import hudson.plugins.gradle.injection.MavenExtension;
+import hudson.plugins.gradle.util.HttpTransport;
 import okhttp3.Credentials;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
@@ -19,7 +20,7 @@ public final class ExtensionClient {
     private final OkHttpClient httpClient;
 
     public ExtensionClient() {
-        this.httpClient = new OkHttpClient().newBuilder()
+        this.httpClient = HttpTransport.client(false).newBuilder()
                 .readTimeout(60, TimeUnit.SECONDS)
                 .build();
     }
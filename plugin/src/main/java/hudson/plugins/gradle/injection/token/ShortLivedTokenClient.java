@@ -2,6 +2,7 @@ package hudson.plugins.gradle.injection.token;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import hudson.plugins.gradle.injection.DevelocityAccessCredentials;
+import hudson.plugins.gradle.util.HttpTransport;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
@@ -10,13 +11,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
-import javax.net.ssl.SSLContext;
-import javax.net.ssl.TrustManager;
-import javax.net.ssl.X509TrustManager;
 import java.io.IOException;
-import java.security.KeyManagementException;
-import java.security.NoSuchAlgorithmException;
-import java.security.cert.X509Certificate;
 import java.time.Duration;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
@@ -31,21 +26,7 @@ public class ShortLivedTokenClient {
     private final OkHttpClient httpClient;
 
     public ShortLivedTokenClient(boolean allowUntrusted) {
-        OkHttpClient.Builder builder = new OkHttpClient().newBuilder().callTimeout(10, TimeUnit.SECONDS);
-        if (allowUntrusted) {
-            builder.hostnameVerifier((hostname, session) -> true);
-            try {
-                TrustManager[] allTrustingTrustManager = createAllTrustingTrustManager();
-                SSLContext sslContext = SSLContext.getInstance("TLS");
-                sslContext.init(null, allTrustingTrustManager, null);
-
-                builder.sslSocketFactory(sslContext.getSocketFactory(), (X509TrustManager) allTrustingTrustManager[0]);
-            } catch (NoSuchAlgorithmException | KeyManagementException e) {
-                throw new RuntimeException(e);
-            }
-        }
-
-        this.httpClient = builder.build();
+        this.httpClient = HttpTransport.client(allowUntrusted).newBuilder().callTimeout(10, TimeUnit.SECONDS).build();
     }
 
     @SuppressFBWarnings("NP_NULL_ON_SOME_PATH_FROM_RETURN_VALUE")
@@ -95,23 +76,4 @@ public class ShortLivedTokenClient {
         return server + "/";
     }
 
-    private static TrustManager[] createAllTrustingTrustManager() {
-        return new TrustManager[]{
-                new X509TrustManager() {
-                    @Override
-                    public X509Certificate[] getAcceptedIssuers() {
-                        return new X509Certificate[]{};
-                    }
-
-                    @Override
-                    public void checkClientTrusted(X509Certificate[] certs, String authType) {
-                    }
-
-                    @Override
-                    public void checkServerTrusted(X509Certificate[] certs, String authType) {
-                    }
-                }
-        };
-    }
-
 }
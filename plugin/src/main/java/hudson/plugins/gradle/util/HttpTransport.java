@@ -0,0 +1,102 @@
+package hudson.plugins.gradle.util;
+
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+import java.security.GeneralSecurityException;
+import java.security.cert.X509Certificate;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plugin-wide HTTP transport for the Develocity server and the Maven extension repository.
+ * <p>
+ * Clients should be derived from {@link #client(boolean)} with {@link OkHttpClient#newBuilder()}, which keeps the
+ * connection pool and dispatcher, so that connections to the same host are reused across builds. Trusted and
+ * untrusted TLS use separate pools, as a connection must never be shared between the two. HTTP/2 is negotiated with
+ * servers supporting it.
+ */
+public final class HttpTransport {
+
+    private static final int MAX_IDLE_CONNECTIONS = 5;
+    private static final long KEEP_ALIVE_MINUTES = 5;
+
+    private static final OkHttpClient TRUSTED = newClient().build();
+
+    // Only created once a client is allowed to talk to an untrusted server
+    private static volatile OkHttpClient untrusted;
+
+    private HttpTransport() {
+    }
+
+    public static OkHttpClient client(boolean allowUntrusted) {
+        return allowUntrusted ? untrusted() : TRUSTED;
+    }
+
+    /**
+     * Number of open connections, both in use and idle, across all pools.
+     */
+    public static int getConnectionCount() {
+        OkHttpClient untrustedClient = untrusted;
+        return TRUSTED.connectionPool().connectionCount()
+            + (untrustedClient != null ? untrustedClient.connectionPool().connectionCount() : 0);
+    }
+
+    public static int getIdleConnectionCount() {
+        OkHttpClient untrustedClient = untrusted;
+        return TRUSTED.connectionPool().idleConnectionCount()
+            + (untrustedClient != null ? untrustedClient.connectionPool().idleConnectionCount() : 0);
+    }
+
+    private static OkHttpClient untrusted() {
+        OkHttpClient client = untrusted;
+        if (client == null) {
+            synchronized (HttpTransport.class) {
+                client = untrusted;
+                if (client == null) {
+                    client = createUntrusted();
+                    untrusted = client;
+                }
+            }
+        }
+        return client;
+    }
+
+    private static OkHttpClient.Builder newClient() {
+        return new OkHttpClient.Builder()
+            .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+            .protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1));
+    }
+
+    private static OkHttpClient createUntrusted() {
+        X509TrustManager allTrustingTrustManager = new X509TrustManager() {
+            @Override
+            public X509Certificate[] getAcceptedIssuers() {
+                return new X509Certificate[]{};
+            }
+
+            @Override
+            public void checkClientTrusted(X509Certificate[] certs, String authType) {
+            }
+
+            @Override
+            public void checkServerTrusted(X509Certificate[] certs, String authType) {
+            }
+        };
+        try {
+            SSLContext sslContext = SSLContext.getInstance("TLS");
+            sslContext.init(null, new TrustManager[]{allTrustingTrustManager}, null);
+
+            return newClient()
+                .hostnameVerifier((hostname, session) -> true)
+                .sslSocketFactory(sslContext.getSocketFactory(), allTrustingTrustManager)
+                .build();
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
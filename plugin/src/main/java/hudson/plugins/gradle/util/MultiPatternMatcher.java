@@ -0,0 +1,205 @@
+package hudson.plugins.gradle.util;
+
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aho-Corasick automaton finding any number of ASCII literals in a single pass over a text.
+ * <p>
+ * The automaton is compiled into a dense transition table, so scanning costs one table lookup per character
+ * regardless of the number of patterns. Non-ASCII characters and bytes never take part in a match.
+ *
+ * @param <T> the type of the values associated with the patterns
+ */
+public final class MultiPatternMatcher<T> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int ASCII = 128;
+    private static final int[] NO_OUTPUT = new int[0];
+
+    private final List<T> values;
+    private final int[] patternLengths;
+    // Maps ASCII characters to a column of the transition table, 0 for characters which are in no pattern
+    private final byte[] charClasses;
+    private final int columns;
+    private final int[] transitions;
+    // Indices of the patterns ending in each state
+    private final int[][] outputs;
+
+    private MultiPatternMatcher(List<T> values, int[] patternLengths, byte[] charClasses, int columns, int[] transitions, int[][] outputs) {
+        this.values = values;
+        this.patternLengths = patternLengths;
+        this.charClasses = charClasses;
+        this.columns = columns;
+        this.transitions = transitions;
+        this.outputs = outputs;
+    }
+
+    /**
+     * Compiles the given patterns. The iteration order of the map is the order in which matches ending at the same
+     * position are reported.
+     */
+    public static <T> MultiPatternMatcher<T> compile(Map<String, T> patterns) {
+        byte[] charClasses = new byte[ASCII];
+        int columns = 1;
+        for (String pattern : patterns.keySet()) {
+            if (pattern.isEmpty()) {
+                throw new IllegalArgumentException("Patterns must not be empty");
+            }
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                if (c >= ASCII) {
+                    throw new IllegalArgumentException("Only ASCII patterns are supported: " + pattern);
+                }
+                if (charClasses[c] == 0) {
+                    if (columns == Byte.MAX_VALUE) {
+                        throw new IllegalArgumentException("Too many distinct characters in patterns");
+                    }
+                    charClasses[c] = (byte) columns++;
+                }
+            }
+        }
+
+        // Build the trie
+        List<int[]> trie = new ArrayList<>();
+        List<int[]> trieOutputs = new ArrayList<>();
+        trie.add(newRow(columns));
+        trieOutputs.add(NO_OUTPUT);
+        List<T> values = new ArrayList<>(patterns.size());
+        int[] patternLengths = new int[patterns.size()];
+        for (Map.Entry<String, T> entry : patterns.entrySet()) {
+            String pattern = entry.getKey();
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                int column = charClasses[pattern.charAt(i)];
+                int next = trie.get(state)[column];
+                if (next < 0) {
+                    next = trie.size();
+                    trie.add(newRow(columns));
+                    trieOutputs.add(NO_OUTPUT);
+                    trie.get(state)[column] = next;
+                }
+                state = next;
+            }
+            int index = values.size();
+            values.add(entry.getValue());
+            patternLengths[index] = pattern.length();
+            trieOutputs.set(state, append(trieOutputs.get(state), index));
+        }
+
+        // Turn the trie into a DFA by resolving failure links breadth-first
+        int states = trie.size();
+        int[] transitions = new int[states * columns];
+        int[][] outputs = trieOutputs.toArray(new int[0][]);
+        int[] failure = new int[states];
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int column = 0; column < columns; column++) {
+            int child = trie.get(0)[column];
+            if (column > 0 && child > 0) {
+                transitions[column] = child;
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            int fail = failure[state];
+            if (outputs[fail].length > 0) {
+                outputs[state] = concat(outputs[state], outputs[fail]);
+            }
+            for (int column = 0; column < columns; column++) {
+                int child = trie.get(state)[column];
+                int fallback = transitions[fail * columns + column];
+                if (column > 0 && child > 0) {
+                    transitions[state * columns + column] = child;
+                    failure[child] = fallback;
+                    queue.add(child);
+                } else {
+                    transitions[state * columns + column] = fallback;
+                }
+            }
+        }
+
+        return new MultiPatternMatcher<>(Collections.unmodifiableList(values), patternLengths, charClasses, columns, transitions, outputs);
+    }
+
+    public boolean containsAny(CharSequence text) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = next(state, text.charAt(i));
+            if (outputs[state].length > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks the first {@code length} bytes, assuming an ASCII compatible encoding.
+     */
+    public boolean containsAny(byte[] bytes, int length) {
+        return containsAny(bytes, 0, length);
+    }
+
+    /**
+     * Checks {@code length} bytes starting at {@code offset}, assuming an ASCII compatible encoding.
+     */
+    public boolean containsAny(byte[] bytes, int offset, int length) {
+        int state = 0;
+        for (int i = offset; i < offset + length; i++) {
+            state = next(state, bytes[i] & 0xFF);
+            if (outputs[state].length > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reports every occurrence of every pattern, ordered by end position.
+     */
+    public void forEachMatch(CharSequence text, MatchConsumer<? super T> consumer) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = next(state, text.charAt(i));
+            for (int index : outputs[state]) {
+                consumer.accept(values.get(index), i + 1 - patternLengths[index]);
+            }
+        }
+    }
+
+    private int next(int state, int c) {
+        int column = c < ASCII ? charClasses[c] : 0;
+        return transitions[state * columns + column];
+    }
+
+    private static int[] newRow(int columns) {
+        int[] row = new int[columns];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    private static int[] append(int[] array, int value) {
+        int[] result = Arrays.copyOf(array, array.length + 1);
+        result[array.length] = value;
+        return result;
+    }
+
+    private static int[] concat(int[] first, int[] second) {
+        int[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    @FunctionalInterface
+    public interface MatchConsumer<T> {
+
+        void accept(T value, int start);
+    }
+}
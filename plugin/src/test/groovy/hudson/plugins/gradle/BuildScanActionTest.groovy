@@ -1,12 +1,20 @@
 package hudson.plugins.gradle
 
+import hudson.model.Run
 import hudson.plugins.gradle.enriched.ScanDetail
+import hudson.util.XStream2
 import spock.lang.Specification
 import spock.lang.Subject
+import spock.lang.TempDir
+
+import java.nio.file.Path
 
 @Subject(BuildScanAction.class)
 class BuildScanActionTest extends Specification {
 
+    @TempDir
+    Path buildDir
+
     ScanDetail buildScanDetail() {
         def scanDetail = new ScanDetail("http://foo.com")
         scanDetail.buildToolType = BuildToolType.GRADLE
@@ -32,4 +40,140 @@ class BuildScanActionTest extends Specification {
         scanDetails.size() == 1
         scanDetails.get(0) == buildScanDetail()
     }
+
+    def "Scan URLs keep insertion order without duplicates"() {
+        given:
+        def buildScanAction = new BuildScanAction()
+
+        when:
+        (1..2000).each { buildScanAction.addScanUrl("https://foo.com/s/${it % 1000}") }
+
+        then:
+        buildScanAction.scanUrls == (1..1000).collect { "https://foo.com/s/${it % 1000}" }
+    }
+
+    def "Readers see an immutable snapshot"() {
+        given:
+        def buildScanAction = new BuildScanAction()
+        buildScanAction.addScanUrl("https://foo.com/s/1")
+        def snapshot = buildScanAction.scanUrls
+
+        when:
+        buildScanAction.addScanUrl("https://foo.com/s/2")
+
+        then:
+        snapshot == ["https://foo.com/s/1"]
+        buildScanAction.scanUrls == ["https://foo.com/s/1", "https://foo.com/s/2"]
+
+        when:
+        snapshot.add("https://foo.com/s/3")
+
+        then:
+        thrown(UnsupportedOperationException)
+    }
+
+    def "Scans are stored next to the build"() {
+        given:
+        def xstream = new XStream2()
+        def run = Mock(Run)
+        run.getRootDir() >> buildDir.toFile()
+        def buildScanAction = new BuildScanAction()
+        buildScanAction.onAttached(run)
+        buildScanAction.addScanUrl("https://foo.com/s/1")
+        buildScanAction.addScanDetail(buildScanDetail())
+        buildScanAction.addBuildAgentError(new BuildAgentError(BuildToolType.GRADLE))
+        buildScanAction.flushBuildScans()
+
+        when:
+        def xml = xstream.toXML(buildScanAction)
+        def restored = (BuildScanAction) xstream.fromXML(xml)
+        restored.onLoad(run)
+
+        then:
+        !xml.contains("https://foo.com/s/1")
+        buildDir.resolve(BuildScanAction.BUILD_SCANS_FILE).toFile().text.contains("https://foo.com/s/1")
+        restored.hasErrors()
+        0 * run.save()
+
+        when:
+        restored.addScanUrl("https://foo.com/s/1")
+        restored.addScanUrl("https://foo.com/s/2")
+        restored.addScanDetail(buildScanDetail())
+
+        then:
+        restored.scanUrls == ["https://foo.com/s/1", "https://foo.com/s/2"]
+        restored.scanDetails == [buildScanDetail()]
+        restored.buildAgentErrors.size() == 1
+    }
+
+    def "Added scans are saved once, when flushed"() {
+        given:
+        def run = Mock(Run)
+        run.getRootDir() >> buildDir.toFile()
+        def buildScanAction = new BuildScanAction()
+        buildScanAction.onAttached(run)
+        def file = buildDir.resolve(BuildScanAction.BUILD_SCANS_FILE).toFile()
+
+        when:
+        (1..3).each { buildScanAction.addScanUrl("https://foo.com/s/${it}") }
+        buildScanAction.addScanDetail(buildScanDetail())
+
+        then:
+        !file.exists()
+
+        when:
+        buildScanAction.flushBuildScans()
+
+        then:
+        file.text.contains("https://foo.com/s/3")
+        file.text.contains("clean")
+
+        when:
+        file.delete()
+        buildScanAction.flushBuildScans()
+
+        then:
+        !file.exists()
+    }
+
+    def "Scans persisted in the build by old plugin versions are migrated"() {
+        given:
+        def run = Mock(Run)
+        run.getRootDir() >> buildDir.toFile()
+        def xml = """
+            <hudson.plugins.gradle.BuildScanAction>
+              <scanUrls>
+                <string>https://foo.com/s/1</string>
+              </scanUrls>
+              <scanUrl>https://foo.com/s/2</scanUrl>
+            </hudson.plugins.gradle.BuildScanAction>
+        """.stripIndent().trim()
+
+        when:
+        def restored = (BuildScanAction) new XStream2().fromXML(xml)
+        restored.onLoad(run)
+
+        then:
+        0 * run.save()
+        !buildDir.resolve(BuildScanAction.BUILD_SCANS_FILE).toFile().exists()
+        restored.scanUrls == ["https://foo.com/s/1", "https://foo.com/s/2"]
+
+        when:
+        restored.flushBuildScans()
+
+        then:
+        1 * run.save()
+        buildDir.resolve(BuildScanAction.BUILD_SCANS_FILE).toFile().exists()
+        !new XStream2().toXML(restored).contains("https://foo.com/s/1")
+
+        when:
+        def reloaded = (BuildScanAction) new XStream2().fromXML(new XStream2().toXML(restored))
+        reloaded.onLoad(run)
+
+        then:
+        0 * run.save()
+        reloaded.scanUrls == ["https://foo.com/s/1", "https://foo.com/s/2"]
+        reloaded.scanDetails.isEmpty()
+        !reloaded.hasErrors()
+    }
 }
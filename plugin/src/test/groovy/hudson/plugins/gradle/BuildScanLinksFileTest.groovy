@@ -0,0 +1,51 @@
+package hudson.plugins.gradle
+
+import hudson.FilePath
+import spock.lang.Specification
+import spock.lang.Subject
+import spock.lang.TempDir
+
+import java.nio.file.Path
+
+@Subject(BuildScanLinksFile)
+class BuildScanLinksFileTest extends Specification {
+
+    @TempDir
+    Path workspace
+
+    def "collects distinct links and deletes the file"() {
+        given:
+        def linksFile = BuildScanLinksFile.create(new FilePath(workspace.toFile()))
+        linksFile.write("https://scans.gradle.com/s/abc\n\n  https://ge.example.com/s/def \nhttps://scans.gradle.com/s/abc\n", 'UTF-8')
+
+        when:
+        def links = BuildScanLinksFile.collect(linksFile)
+
+        then:
+        links == ['https://scans.gradle.com/s/abc', 'https://ge.example.com/s/def']
+        !linksFile.exists()
+    }
+
+    def "returns no links if the file is missing"() {
+        expect:
+        BuildScanLinksFile.collect(null).isEmpty()
+        BuildScanLinksFile.collect(new FilePath(workspace.resolve('missing.txt').toFile())).isEmpty()
+    }
+
+    def "falls back to the scanned links only if the file holds none"() {
+        given:
+        def linksFile = BuildScanLinksFile.create(new FilePath(workspace.toFile()))
+        def scanned = ['https://scans.gradle.com/s/scanned']
+
+        expect: "the file is empty"
+        BuildScanLinksFile.collectOrElse(linksFile, scanned) == scanned
+        BuildScanLinksFile.collectOrElse(null, scanned) == scanned
+
+        when:
+        linksFile = BuildScanLinksFile.create(new FilePath(workspace.toFile()))
+        linksFile.write("https://scans.gradle.com/s/abc\n", 'UTF-8')
+
+        then:
+        BuildScanLinksFile.collectOrElse(linksFile, scanned) == ['https://scans.gradle.com/s/abc']
+    }
+}
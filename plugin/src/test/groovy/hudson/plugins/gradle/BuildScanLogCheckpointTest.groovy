@@ -0,0 +1,89 @@
+package hudson.plugins.gradle
+
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.nio.charset.StandardCharsets
+
+@Subject(BuildScanLogCheckpoint)
+class BuildScanLogCheckpointTest extends Specification {
+
+    def checkpoint = new BuildScanLogCheckpoint()
+    def listener = new SimpleBuildScanPublishedListener()
+
+    void scan(String log) {
+        checkpoint.scan(new ByteArrayInputStream(log.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8, listener)
+    }
+
+    def 'only scans the output written since the previous call'() {
+        given:
+        def log = "Publishing build scan...\nhttps://scans.gradle.com/s/one\n"
+
+        when:
+        scan(log)
+
+        then:
+        listener.buildScans == ["https://scans.gradle.com/s/one"]
+        checkpoint.offset == log.length()
+
+        when:
+        log += "Some log\n"
+        scan(log)
+
+        then:
+        listener.buildScans == ["https://scans.gradle.com/s/one"]
+        checkpoint.offset == log.length()
+
+        when:
+        log += "Publishing build scan...\nhttps://scans.gradle.com/s/two\n"
+        scan(log)
+
+        then:
+        listener.buildScans == ["https://scans.gradle.com/s/one", "https://scans.gradle.com/s/two"]
+    }
+
+    def 'finds a link printed after the checkpoint for a message printed before it'() {
+        given:
+        def log = "Publishing build scan...\nSome log\n"
+
+        when:
+        scan(log)
+
+        then:
+        listener.buildScans.isEmpty()
+
+        when:
+        scan(log + "https://scans.gradle.com/s/one\n")
+
+        then:
+        listener.buildScans == ["https://scans.gradle.com/s/one"]
+    }
+
+    def 'leaves an incomplete line for the next call'() {
+        given:
+        def log = "Publishing build scan...\nhttps://scans.gradle"
+
+        when:
+        scan(log)
+
+        then:
+        listener.buildScans.isEmpty()
+        checkpoint.offset == "Publishing build scan...\n".length()
+
+        when:
+        scan(log + ".com/s/one\n")
+
+        then:
+        listener.buildScans == ["https://scans.gradle.com/s/one"]
+    }
+
+    def 'does not find a link too far from the message across checkpoints'() {
+        when:
+        scan("Publishing build scan...\n")
+        scan("Publishing build scan...\n" + "Some log\n" * 1010)
+        scan("Publishing build scan...\n" + "Some log\n" * 1010 + "https://scans.gradle.com/s/one\n")
+
+        then:
+        listener.buildScans.isEmpty()
+    }
+}
@@ -31,6 +31,25 @@ class BuildScanLogScannerTest extends Specification {
         'Lot of lines before build scan URL'   | logWithBuildScans(["https://scans.gradle.com/s/bzb4vn64kx3bc"], 900)                                        || ["https://scans.gradle.com/s/bzb4vn64kx3bc"]
     }
 
+    def 'skipped lines count towards the scan window'() {
+        given:
+        def listener = new SimpleBuildScanPublishedListener()
+        def scanner = new BuildScanLogScanner(listener)
+
+        when:
+        scanner.scanLine('Publishing build scan...')
+        skipped.times { scanner.skipLine() }
+        scanner.scanLine('https://scans.gradle.com/s/bzb4vn64kx3bc')
+
+        then:
+        listener.buildScans == expectedUrls
+
+        where:
+        skipped || expectedUrls
+        900     || ['https://scans.gradle.com/s/bzb4vn64kx3bc']
+        1010    || []
+    }
+
     static List<String> logWithBuildScans(List<String> scanLinks, linesBetween = 10, String buildScan = 'build scan') {
         def log = []
 
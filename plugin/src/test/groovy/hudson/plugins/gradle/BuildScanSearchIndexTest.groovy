@@ -0,0 +1,120 @@
+package hudson.plugins.gradle
+
+import hudson.model.Job
+import hudson.model.Run
+import hudson.plugins.gradle.enriched.ScanDetail
+import spock.lang.Specification
+import spock.lang.Subject
+import spock.lang.TempDir
+
+import java.nio.file.Path
+
+@Subject(BuildScanSearchIndex.class)
+class BuildScanSearchIndexTest extends Specification {
+
+    @TempDir
+    Path rootDir
+
+    BuildScanSearchIndex newIndex(int maxEntries = 100) {
+        new BuildScanSearchIndex(maxEntries, rootDir.resolve("index.tsv"))
+    }
+
+    Run run(String jobName, int number) {
+        def job = Stub(Job)
+        job.getFullName() >> jobName
+        def run = Stub(Run)
+        run.getParent() >> job
+        run.getNumber() >> number
+        run
+    }
+
+    static ScanDetail scanDetail(String url, BuildToolType buildToolType, String projectName, boolean hasFailed) {
+        def scanDetail = new ScanDetail(url)
+        scanDetail.buildToolType = buildToolType
+        scanDetail.buildToolVersion = "3.9.6"
+        scanDetail.projectName = projectName
+        scanDetail.hasFailed = hasFailed
+        scanDetail
+    }
+
+    static List<String> urls(List<BuildScanSearchIndex.Entry> entries) {
+        entries.collect { it.scanUrl }
+    }
+
+    def "finds scans from newest to oldest"() {
+        given:
+        def index = newIndex()
+        index.addScanUrl(run("a", 1), "https://scans.example.com/s/one")
+        index.addScanUrl(run("b", 1), "https://scans.example.com/s/two")
+        index.addScanDetail(run("a", 1), scanDetail("https://scans.example.com/s/one", BuildToolType.MAVEN, "x", false))
+        index.addScanDetail(run("b", 1), scanDetail("https://scans.example.com/s/two", BuildToolType.GRADLE, "x", true))
+
+        expect:
+        urls(index.search({ true }, 0, 10)) == ["https://scans.example.com/s/two", "https://scans.example.com/s/one"]
+        urls(index.search({ it.buildToolType == BuildToolType.MAVEN && it.projectName == "x" }, 0, 10)) == ["https://scans.example.com/s/one"]
+        urls(index.search({ true }, 1, 10)) == ["https://scans.example.com/s/one"]
+        with(index.search({ it.scanId == "two" }, 0, 1)[0]) {
+            job == "b"
+            run == 1
+            failed
+        }
+    }
+
+    def "replays the journal"() {
+        given:
+        def index = newIndex()
+        index.addScanUrl(run("folder/a", 1), "https://scans.example.com/s/one")
+        index.addScanDetail(run("folder/a", 1), scanDetail("https://scans.example.com/s/one", BuildToolType.MAVEN, "x", false))
+        index.addScanUrl(run("folder/a", 2), "https://scans.example.com/s/two")
+        index.addScanUrl(run("b", 1), "https://scans.example.com/s/three")
+        index.removeRun("folder/a", 2)
+        index.renameJobs("folder", "renamed")
+        index.removeJobs("b")
+
+        when:
+        def reloaded = newIndex()
+
+        then:
+        reloaded.size() == 1
+        with(reloaded.search({ true }, 0, 10)[0]) {
+            scanUrl == "https://scans.example.com/s/one"
+            job == "renamed/a"
+            buildToolType == BuildToolType.MAVEN
+            buildToolVersion == "3.9.6"
+            projectName == "x"
+            !failed
+        }
+    }
+
+    def "keeps the newest scans only"() {
+        given:
+        def index = newIndex(2)
+
+        when:
+        (1..5).each { index.addScanUrl(run("a", it), "https://scans.example.com/s/${it}") }
+
+        then:
+        urls(index.search({ true }, 0, 10)) == ["https://scans.example.com/s/5", "https://scans.example.com/s/4"]
+        urls(newIndex(2).search({ true }, 0, 10)) == ["https://scans.example.com/s/5", "https://scans.example.com/s/4"]
+    }
+
+    def "skips the malformed records of the journal"() {
+        given:
+        def index = newIndex()
+        index.addScanUrl(run("a", 1), "https://scans.example.com/s/one")
+        index.addScanUrl(run("a", 2), "https://scans.example.com/s/two")
+        def journal = rootDir.resolve("index.tsv")
+
+        when: "the last record is truncated by a crash"
+        journal.text = journal.text.substring(0, journal.text.lastIndexOf("\ta\t")) + "\n-\ta\tnot-a-number\n"
+        def reloaded = newIndex()
+        reloaded.addScanUrl(run("a", 3), "https://scans.example.com/s/three")
+
+        then:
+        urls(reloaded.search({ true }, 0, 10)) == ["https://scans.example.com/s/three", "https://scans.example.com/s/one"]
+
+        and: "the malformed records are dropped from the journal"
+        !journal.text.contains("not-a-number")
+        urls(newIndex().search({ true }, 0, 10)) == ["https://scans.example.com/s/three", "https://scans.example.com/s/one"]
+    }
+}
@@ -0,0 +1,73 @@
+package hudson.plugins.gradle
+
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.util.regex.Pattern
+
+@Subject(BuildScanUrlExtractor)
+class BuildScanUrlExtractorTest extends Specification {
+
+    // The regular expression previously used by BuildScanLogScanner
+    private static final Pattern LEGACY_URL_PATTERN = Pattern.compile(".*(?:\\[INFO] )?(https?://.*/s/.*)")
+
+    private static final List<String> CORPUS = [
+        'https://scans.gradle.com/s/bzb4vn64kx3bc',
+        'http://scans.gradle.com/s/bzb4vn64kx3bc',
+        '[INFO] https://scans.gradle.com/s/bzb4vn64kx3bc',
+        '[2023-12-08T10:05:56.488Z] https://scans.gradle.com/s/bzb4vn64kx3bc',
+        '[2023-12-08T10:05:56.488Z] [INFO] https://ge.example.com/s/abc',
+        'https://scans.gradle.com/bzb4vn64kx3bc',
+        'https://scans.gradle.com/s/',
+        'https:/scans.gradle.com/s/abc',
+        'htps://scans.gradle.com/s/abc',
+        'ftp://scans.gradle.com/s/abc',
+        'See https://docs.gradle.com then https://scans.gradle.com/s/abc',
+        'https://scans.gradle.com/s/abc https://other.com/s/def',
+        'https://scans.gradle.com/s/abc https://other.com/no-scan',
+        'https://s/abc',
+        'http://s/s/',
+        'https://https://scans.gradle.com/s/abc',
+        'xhttps://scans.gradle.com/s/abc trailing text',
+        'https://scans.gradle.com/s/abc\r',
+        'https://scans.gradle.com/s/abc\n',
+        'https://scans.gradle.com/s/abc ',
+        '\u0085https://scans.gradle.com/s/abc',
+        'https://scäns.gradle.com/s/äbc',
+        'Publishing build scan...',
+        'Some in-between log',
+        '',
+        '/s/',
+        'http',
+        'https',
+        'https://',
+    ]
+
+    def "extracts the same URL as the legacy regular expression for '#line'"() {
+        expect:
+        BuildScanUrlExtractor.extract(line) == legacyExtract(line)
+
+        where:
+        line << CORPUS
+    }
+
+    def "extracts the same URL as the legacy regular expression for random lines"() {
+        given:
+        def random = new Random(seed)
+        def tokens = ['h', 'http', 'https', '://', ':', '/', 's', '/s/', 'x', '[INFO] ', 'http://', 'https://', '\n', '\r', ' ', '//', 'ü']
+
+        expect:
+        (1..10_000).every {
+            def line = (0..<random.nextInt(12)).collect { tokens[random.nextInt(tokens.size())] }.join()
+            BuildScanUrlExtractor.extract(line) == legacyExtract(line)
+        }
+
+        where:
+        seed << [1L, 42L, 1234L]
+    }
+
+    private static String legacyExtract(String line) {
+        def matcher = LEGACY_URL_PATTERN.matcher(line)
+        matcher.matches() ? matcher.group(1) : null
+    }
+}
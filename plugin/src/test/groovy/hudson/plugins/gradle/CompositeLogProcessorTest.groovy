@@ -0,0 +1,140 @@
+package hudson.plugins.gradle
+
+import hudson.console.ConsoleNote
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.nio.charset.StandardCharsets
+
+@Subject(CompositeLogProcessor)
+class CompositeLogProcessorTest extends Specification {
+
+    def "dispatches each line to all scanners and forwards the log unchanged"() {
+        given:
+        def out = new ByteArrayOutputStream()
+        def first = new RecordingScanner(LogLineAnchors.of("Publishing "))
+        def second = new RecordingScanner(LogLineAnchors.of("Internal error in "))
+        def processor = new CompositeLogProcessor(out, StandardCharsets.UTF_8, [first, second])
+        def log = "Starting the build...\n" +
+            "${ConsoleNote.PREAMBLE_STR}note${ConsoleNote.POSTAMBLE_STR}Publishing build scan...\r\n" +
+            "Internal error in Develocity Gradle plugin: boom\n" +
+            "BUILD SUCCESSFUL\n"
+
+        when:
+        processor.write(log.getBytes(StandardCharsets.UTF_8))
+        processor.close()
+
+        then:
+        out.toString(StandardCharsets.UTF_8.name()) == log
+        first.lines == ["Publishing build scan...", "Internal error in Develocity Gradle plugin: boom"]
+        second.lines == first.lines
+        first.skipped == 2
+        second.skipped == 2
+    }
+
+    def "scans every line if a scanner has no anchors"() {
+        given:
+        def anchored = new RecordingScanner(LogLineAnchors.of("Publishing "))
+        def unanchored = new RecordingScanner(null)
+        def processor = new CompositeLogProcessor(new ByteArrayOutputStream(), StandardCharsets.UTF_8, [anchored, unanchored])
+
+        when:
+        processor.write("foo\nbar\n".getBytes(StandardCharsets.UTF_8))
+
+        then:
+        unanchored.lines == ["foo", "bar"]
+        unanchored.skipped == 0
+    }
+
+    def "forwards the log unchanged and splits the same lines whatever the size of the writes (chunk size #chunkSize)"() {
+        given:
+        def out = new ByteArrayOutputStream()
+        def scanner = new RecordingScanner(null)
+        def processor = new CompositeLogProcessor(out, StandardCharsets.UTF_8, [scanner])
+        def log = "Starting the build...\r\n" +
+            "Publishing build scan...\n" +
+            "\n" +
+            "https://scans.gradle.com/s/abc\n" +
+            "\u00e9t\u00e9 ${'x' * 100}\n" +
+            "BUILD SUCCESSFUL"
+        def bytes = log.getBytes(StandardCharsets.UTF_8)
+
+        when:
+        for (int i = 0; i < bytes.length; i += chunkSize) {
+            if (chunkSize == 1) {
+                processor.write(bytes[i])
+            } else {
+                processor.write(bytes, i, Math.min(chunkSize, bytes.length - i))
+            }
+        }
+        processor.close()
+
+        then:
+        out.toByteArray() == bytes
+        scanner.lines == ["Starting the build...", "Publishing build scan...", "", "https://scans.gradle.com/s/abc", "\u00e9t\u00e9 ${'x' * 100}", "BUILD SUCCESSFUL"]
+
+        where:
+        chunkSize << [1, 2, 7, 64, 4096]
+    }
+
+    def "forwards each write before the end of its line is written"() {
+        given:
+        def out = new ByteArrayOutputStream()
+        def scanner = new RecordingScanner(null)
+        def processor = new CompositeLogProcessor(out, StandardCharsets.UTF_8, [scanner])
+
+        when:
+        processor.write("Downloading 10%".getBytes(StandardCharsets.UTF_8))
+
+        then:
+        out.toString(StandardCharsets.UTF_8.name()) == "Downloading 10%"
+        scanner.lines.empty
+
+        when:
+        processor.write(" 100%\nDone\n".getBytes(StandardCharsets.UTF_8))
+
+        then:
+        scanner.lines == ["Downloading 10% 100%", "Done"]
+    }
+
+    def "skips too long lines spanning several writes"() {
+        given:
+        def out = new ByteArrayOutputStream()
+        def scanner = new RecordingScanner(null)
+        def processor = new CompositeLogProcessor(out, StandardCharsets.UTF_8, [scanner])
+        def longLine = "a" * 1000 + "\n"
+
+        when:
+        processor.write("Publishing build scan...\n${longLine.substring(0, 300)}".getBytes(StandardCharsets.UTF_8))
+        processor.write("${longLine.substring(300, 600)}".getBytes(StandardCharsets.UTF_8))
+        processor.write("${longLine.substring(600)}https://scans.gradle.com/s/abc\n".getBytes(StandardCharsets.UTF_8))
+        processor.write(("b" * 600).getBytes(StandardCharsets.UTF_8))
+        processor.close()
+
+        then:
+        out.toString(StandardCharsets.UTF_8.name()) == "Publishing build scan...\n${longLine}https://scans.gradle.com/s/abc\n${'b' * 600}"
+        scanner.lines == ["Publishing build scan...", "https://scans.gradle.com/s/abc"]
+        scanner.skipped == 0
+    }
+
+    private static class RecordingScanner implements LogLineScanner {
+
+        final LogLineAnchors anchors
+        final List<String> lines = []
+        int skipped
+
+        RecordingScanner(LogLineAnchors anchors) {
+            this.anchors = anchors
+        }
+
+        @Override
+        void scanLine(String line) {
+            lines << line
+        }
+
+        @Override
+        void skipLine() {
+            skipped++
+        }
+    }
+}
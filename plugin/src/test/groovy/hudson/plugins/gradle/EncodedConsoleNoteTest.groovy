@@ -0,0 +1,28 @@
+package hudson.plugins.gradle
+
+import hudson.console.ConsoleNote
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.util.function.Supplier
+
+@Subject(EncodedConsoleNote)
+class EncodedConsoleNoteTest extends Specification {
+
+    def "encodes the note once and writes the same bytes each time"() {
+        given:
+        Supplier<ConsoleNote> supplier = Mock()
+        def note = new EncodedConsoleNote(supplier)
+        def out = new ByteArrayOutputStream()
+
+        when:
+        note.encodeTo(out)
+        note.encodeTo(out)
+
+        then:
+        1 * supplier.get() >> new GradleOutcomeNote()
+        def expected = new GradleOutcomeNote().encodeToBytes().toByteArray()
+        out.toByteArray() == (expected + expected) as byte[]
+        ConsoleNote.removeNotes(new String(out.toByteArray(), "UTF-8")).isEmpty()
+    }
+}
@@ -0,0 +1,80 @@
+package hudson.plugins.gradle
+
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.nio.charset.StandardCharsets
+
+@Subject(GatedLogProcessor)
+class GatedLogProcessorTest extends Specification {
+
+    def markers = LogMarkers.get()
+    def out = new ByteArrayOutputStream()
+    def scanner = new RecordingScanner(LogLineAnchors.of("Publishing "))
+    def processor = new GatedLogProcessor(out, StandardCharsets.UTF_8, [scanner], markers.buildStartAnchors, markers.buildOutcomeAnchors)
+
+    def "only scans lines from the build start to shortly after its outcome"() {
+        given:
+        def log = "npm WARN Publishing nothing\n" +
+            "[INFO] Scanning for projects...\n" +
+            "[INFO] BUILD SUCCESS\n" +
+            "[INFO] Total time: 1 s\n" +
+            "[INFO] Publishing Build Scan to Develocity...\n" +
+            "[INFO] https://scans.gradle.com/s/abc\n" +
+            ("noise\n" * (GatedLogProcessor.LINES_AFTER_BUILD_OUTCOME + 1)) +
+            "docker Publishing image\n"
+
+        when:
+        processor.write(log.getBytes(StandardCharsets.UTF_8))
+        processor.close()
+
+        then:
+        out.toString(StandardCharsets.UTF_8.name()) == log
+        scanner.lines == ["[INFO] Scanning for projects...", "[INFO] BUILD SUCCESS", "[INFO] Publishing Build Scan to Develocity..."]
+        !processor.active
+    }
+
+    def "stays active while another build starts after an outcome"() {
+        when:
+        processor.write(("> Task :compileJava\n" +
+            "BUILD SUCCESSFUL in 1s\n" +
+            "> Task :test\n" +
+            ("noise\n" * (GatedLogProcessor.LINES_AFTER_BUILD_OUTCOME + 1)) +
+            "Publishing build scan...\n").getBytes(StandardCharsets.UTF_8))
+
+        then:
+        processor.active
+        scanner.lines.last() == "Publishing build scan..."
+    }
+
+    def "does not dispatch skipped lines while inactive"() {
+        when:
+        processor.write("foo\nbar\n".getBytes(StandardCharsets.UTF_8))
+
+        then:
+        !processor.active
+        scanner.lines.empty
+        scanner.skipped == 0
+    }
+
+    private static class RecordingScanner implements LogLineScanner {
+
+        final LogLineAnchors anchors
+        final List<String> lines = []
+        int skipped
+
+        RecordingScanner(LogLineAnchors anchors) {
+            this.anchors = anchors
+        }
+
+        @Override
+        void scanLine(String line) {
+            lines << line
+        }
+
+        @Override
+        void skipLine() {
+            skipped++
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package hudson.plugins.gradle
+
+import spock.lang.Specification
+import spock.lang.Subject
+
+import static hudson.plugins.gradle.GradleTaskOutcome.EXECUTED
+import static hudson.plugins.gradle.GradleTaskOutcome.FROM_CACHE
+import static hudson.plugins.gradle.GradleTaskOutcome.UP_TO_DATE
+
+@Subject(GradleTaskStatistics)
+class GradleTaskStatisticsTest extends Specification {
+
+    def "counts tasks per outcome"() {
+        given:
+        def statistics = new GradleTaskStatistics()
+
+        when:
+        statistics.addAll([
+            new GradleTask(":a", EXECUTED, 100),
+            new GradleTask(":b", UP_TO_DATE, 1),
+            new GradleTask(":c", UP_TO_DATE, 2),
+            new GradleTask(":d", FROM_CACHE, 3)
+        ])
+
+        then:
+        statistics.taskCount == 4
+        statistics.getCount(UP_TO_DATE) == 2
+        statistics.upToDatePercentage == 50
+        statistics.fromCachePercentage == 25
+        statistics.totalDurationMillis == 106
+    }
+
+    def "keeps only the slowest tasks"() {
+        given:
+        def statistics = new GradleTaskStatistics()
+        def tasks = (1..GradleTaskStatistics.MAX_SLOWEST_TASKS + 10).collect { new GradleTask(":t$it", EXECUTED, it) }
+        Collections.shuffle(tasks, new Random(42))
+
+        when:
+        statistics.addAll(tasks)
+
+        then:
+        statistics.taskCount == GradleTaskStatistics.MAX_SLOWEST_TASKS + 10
+        statistics.slowestTasks.size() == GradleTaskStatistics.MAX_SLOWEST_TASKS
+        statistics.slowestTasks[0].path == ":t${GradleTaskStatistics.MAX_SLOWEST_TASKS + 10}"
+        statistics.slowestTasks*.durationMillis == statistics.slowestTasks*.durationMillis.sort(false).reverse()
+        statistics.getDurationMillis(":t11") == 11
+        statistics.getDurationMillis(":t10") == null
+    }
+
+    def "merges statistics"() {
+        given:
+        def first = new GradleTaskStatistics()
+        first.addAll([new GradleTask(":a", EXECUTED, 100)])
+        def second = new GradleTaskStatistics()
+        second.addAll([new GradleTask(":b", UP_TO_DATE, 200)])
+
+        when:
+        first.merge(second)
+
+        then:
+        first.taskCount == 2
+        first.slowestTasks*.path == [":b", ":a"]
+        first.totalDurationMillis == 300
+    }
+}
@@ -0,0 +1,99 @@
+package hudson.plugins.gradle
+
+import spock.lang.Specification
+import spock.lang.Subject
+
+@Subject(GradleTaskTimer)
+class GradleTaskTimerTest extends Specification {
+
+    def listener = new RecordingListener()
+    def timer = new GradleTaskTimer(listener)
+
+    def "credits each task with the time elapsed since the previous task line"() {
+        when: "compileJava runs 3s after the configuration, then jar runs 480ms"
+        timer.onConfigureLine(1000)
+        timer.onTaskLine("> Task :compileJava", 4000)
+        timer.onTaskLine("> Task :processResources NO-SOURCE", 4010)
+        timer.onTaskLine("> Task :classes UP-TO-DATE", 4020)
+        timer.onTaskLine("> Task :jar FROM-CACHE", 4500)
+
+        then:
+        listener.invocations.empty
+
+        when:
+        timer.onBuildFinished()
+
+        then:
+        listener.invocations.size() == 1
+        listener.invocations[0].collect { it.toString() } == [
+            ":compileJava EXECUTED 3000ms",
+            ":processResources NO-SOURCE 10ms",
+            ":classes UP-TO-DATE 10ms",
+            ":jar FROM-CACHE 480ms"
+        ]
+    }
+
+    def "doesn't time the first task without a configuration line"() {
+        when:
+        timer.onTaskLine("> Task :compileJava", 1000)
+        timer.onTaskLine("> Task :test", 6000)
+        timer.onBuildFinished()
+
+        then:
+        listener.invocations[0].collect { it.toString() } == [
+            ":compileJava EXECUTED 0ms",
+            ":test EXECUTED 5000ms"
+        ]
+    }
+
+    def "reports each invocation separately"() {
+        when:
+        timer.onConfigureLine(0)
+        timer.onTaskLine(":compileJava", 10)
+        timer.onBuildFinished()
+        timer.onBuildFinished()
+        timer.onConfigureLine(30)
+        timer.onTaskLine("> Task :test", 50)
+        timer.onBuildFinished()
+
+        then:
+        listener.invocations.collect { tasks -> tasks.collect { it.toString() } } == [
+            [":compileJava EXECUTED 10ms"],
+            [":test EXECUTED 20ms"]
+        ]
+    }
+
+    def "credits a task printed twice with the time until its second line"() {
+        when:
+        timer.onConfigureLine(0)
+        timer.onTaskLine("> Task :test", 100)
+        timer.onTaskLine("> Task :test FAILED", 150)
+        timer.onBuildFinished()
+
+        then:
+        listener.invocations[0].collect { it.toString() } == [":test FAILED 150ms"]
+    }
+
+    def "ignores lines which are not tasks"() {
+        when:
+        timer.onTaskLine(":::: ERRORS", 0)
+        timer.onBuildFinished()
+
+        then:
+        listener.invocations.empty
+    }
+
+    private static class RecordingListener implements LogEventListener {
+
+        final List<List<GradleTask>> invocations = []
+
+        @Override
+        void onBuildScanPublished(String scanUrl) {
+        }
+
+        @Override
+        void onGradleTasksFinished(List<GradleTask> tasks) {
+            invocations << tasks
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package hudson.plugins.gradle
+
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.nio.charset.Charset
+import java.nio.charset.StandardCharsets
+
+@Subject(LogLineAnchors)
+class LogLineAnchorsTest extends Specification {
+
+    def "finds anchors in raw bytes"() {
+        given:
+        def anchors = LogLineAnchors.of("Publishing ", "://")
+        def bytes = line.getBytes(StandardCharsets.UTF_8)
+
+        expect:
+        anchors.find(bytes, bytes.length) == expected
+
+        where:
+        line                                        | expected
+        'Publishing build scan...'                  | true
+        '[INFO] https://scans.gradle.com/s/abc'     | true
+        '> Task :compileJava'                       | false
+        'Publishin'                                 | false
+        ''                                          | false
+        'ünïcödé Publishing build scan...'          | true
+    }
+
+    def "only considers the given length"() {
+        given:
+        def anchors = LogLineAnchors.of("BUILD ")
+        def bytes = "BUILD SUCCESSFUL".getBytes(StandardCharsets.US_ASCII)
+
+        expect:
+        anchors.find(bytes, bytes.length)
+        !anchors.find(bytes, 5)
+    }
+
+    def "merges anchors"() {
+        given:
+        def anchors = LogLineAnchors.of("> Task :").plus(LogLineAnchors.of("BUILD "))
+
+        expect:
+        anchors.find(bytes('> Task :foo'), 11)
+        anchors.find(bytes('BUILD FAILED'), 12)
+        !anchors.find(bytes('Some log'), 8)
+    }
+
+    def "detects ASCII compatible charsets"() {
+        expect:
+        LogLineAnchors.isAsciiCompatible(Charset.forName(charset)) == expected
+
+        where:
+        charset      | expected
+        'UTF-8'      | true
+        'ISO-8859-1' | true
+        'US-ASCII'   | true
+        'UTF-16'     | false
+        'UTF-16LE'   | false
+    }
+
+    private static byte[] bytes(String s) {
+        s.getBytes(StandardCharsets.US_ASCII)
+    }
+}
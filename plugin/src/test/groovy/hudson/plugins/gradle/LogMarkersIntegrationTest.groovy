@@ -0,0 +1,26 @@
+package hudson.plugins.gradle
+
+import hudson.ExtensionList
+import spock.lang.Subject
+
+@Subject(LogMarkers)
+class LogMarkersIntegrationTest extends BaseJenkinsIntegrationTest {
+
+    def 'compiles the markers of the providers registered later'() {
+        given:
+        def markers = LogMarkers.get()
+
+        when:
+        ExtensionList.lookup(LogMarkerProvider).add(new LogMarkerProvider() {
+            @Override
+            Collection<String> getBuildScanPublishingMessages() {
+                ['Publishing custom scan']
+            }
+        })
+
+        then:
+        !markers.containsBuildScanPublishingMessage('Publishing custom scan')
+        LogMarkers.get().containsBuildScanPublishingMessage('Publishing custom scan')
+        LogMarkers.get().containsBuildScanPublishingMessage('Publishing build scan...')
+    }
+}
@@ -0,0 +1,108 @@
+package hudson.plugins.gradle
+
+import spock.lang.Specification
+import spock.lang.Subject
+import spock.lang.TempDir
+import spock.lang.Unroll
+
+import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+import java.nio.file.Path
+
+@Unroll
+@Subject(ReverseBuildScanLogScanner)
+class ReverseBuildScanLogScannerTest extends Specification {
+
+    @TempDir
+    Path dir
+
+    Path writeLog(List<String> lines, String eol = '\n') {
+        def log = dir.resolve('log')
+        Files.write(log, lines.collect { it + eol }.join('').getBytes(StandardCharsets.UTF_8))
+        log
+    }
+
+    static List<String> scanForward(List<String> lines) {
+        def listener = new SimpleBuildScanPublishedListener()
+        def scanner = new BuildScanLogScanner(listener)
+        lines.each { scanner.scanLine(it) }
+        listener.buildScans
+    }
+
+    static List<String> scanBackward(Path log, int maxInvocations = 0, String boundaryMarker = null, int parallelism = 1, int chunkSize = ReverseBuildScanLogScanner.DEFAULT_CHUNK_SIZE) {
+        new ReverseBuildScanLogScanner(LogMarkers.get(), StandardCharsets.UTF_8, maxInvocations, boundaryMarker, parallelism, chunkSize).scan(log)
+    }
+
+    static List<String> logWithInvocations(int invocations, int linesBetween = 10) {
+        def log = []
+        (1..invocations).each { i ->
+            log.addAll(["> Task :build", "https://gradle.com/s/not-published-${i}", "BUILD SUCCESSFUL"])
+            log.add("Publishing build scan...")
+            (1..linesBetween).each { log.add("Some in-between log") }
+            log.add("https://scans.gradle.com/s/scan${i}")
+            log.add("https://scans.gradle.com/s/ignored${i}")
+        }
+        log.add("Finished: SUCCESS")
+        log
+    }
+
+    def 'finds the same build scans as the forward scanner with #label'(String label, List<String> lines, int chunkSize, int parallelism) {
+        given:
+        def log = writeLog(lines)
+
+        expect:
+        scanBackward(log, 0, null, parallelism, chunkSize) == scanForward(lines)
+
+        where:
+        label                          | lines                                        | chunkSize                                       | parallelism
+        'one chunk'                    | logWithInvocations(3)                        | ReverseBuildScanLogScanner.DEFAULT_CHUNK_SIZE   | 1
+        'small chunks'                 | logWithInvocations(5)                        | 64                                              | 1
+        'chunks smaller than a line'   | logWithInvocations(5)                        | 8                                               | 1
+        'parallel chunks'              | logWithInvocations(20)                       | 128                                             | 4
+        'link too far from message'    | logWithInvocations(2, 1010)                  | 1024                                            | 2
+        'link at the window limit'     | logWithInvocations(2, 999)                   | 1024                                            | 2
+        'no build scan'                | ["Some log", "https://gradle.com/s/1234"]    | 16                                              | 1
+    }
+
+    def 'handles logs with Windows line endings'() {
+        given:
+        def lines = logWithInvocations(2)
+        def log = writeLog(lines, '\r\n')
+
+        expect:
+        scanBackward(log, 0, null, 1, 32) == ["https://scans.gradle.com/s/scan1", "https://scans.gradle.com/s/scan2"]
+    }
+
+    def 'stops after the configured number of invocations'() {
+        given:
+        def log = writeLog(logWithInvocations(5))
+
+        expect:
+        scanBackward(log, 2, null, 1, 64) == ["https://scans.gradle.com/s/scan4", "https://scans.gradle.com/s/scan5"]
+        scanBackward(log, 2, null, 3, 64) == ["https://scans.gradle.com/s/scan4", "https://scans.gradle.com/s/scan5"]
+    }
+
+    def 'stops at the boundary marker'() {
+        given:
+        def lines = logWithInvocations(2) + ["[Pipeline] stage", "[Pipeline] { (Deploy)"] + logWithInvocations(1)
+        def log = writeLog(lines)
+
+        expect:
+        scanBackward(log, 0, "(Deploy)", 1, 64) == ["https://scans.gradle.com/s/scan1"]
+    }
+
+    def 'stops at a non-ASCII boundary marker'() {
+        given:
+        def lines = logWithInvocations(2) + ["[Pipeline] stage", "[Pipeline] { (▶ Deploy)"] + logWithInvocations(1)
+        def log = writeLog(lines)
+
+        expect:
+        scanBackward(log, 0, "▶ Deploy", 1, 64) == ["https://scans.gradle.com/s/scan1"]
+        scanBackward(log, 0, "▶ Release", 1, 64) == scanForward(lines)
+    }
+
+    def 'handles an empty log'() {
+        expect:
+        scanBackward(writeLog([])).isEmpty()
+    }
+}
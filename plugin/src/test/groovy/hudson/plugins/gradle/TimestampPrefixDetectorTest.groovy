@@ -33,4 +33,9 @@ class TimestampPrefixDetectorTest extends Specification {
         '> Task :compileJava'                            | 0      | '> Task :compileJava'
     }
 
+    def "timestamp of line"() {
+        expect:
+        TimestampPrefixDetector.timestampOf(27, '[2023-12-08T10:05:56.488Z] > Task :compileJava') == 1702029956488L
+    }
+
 }
@@ -0,0 +1,90 @@
+package hudson.plugins.gradle.enriched
+
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.time.Duration
+
+@Subject(ScanDetailCache.class)
+class ScanDetailCacheTest extends Specification {
+
+    long now = 0
+    def cache = new ScanDetailCache(2, Duration.ofHours(1), Duration.ofMinutes(1), { now })
+
+    def 'Scan details are cached until they expire'() {
+        given:
+        def scanDetail = new ScanDetail('https://foo.bar/s/abc')
+        def fetches = 0
+
+        when:
+        def first = cache.get('abc', { fetches++; ScanDetailCache.Lookup.found(scanDetail) })
+        def second = cache.get('abc', { fetches++; ScanDetailCache.Lookup.found(scanDetail) })
+
+        then:
+        first.get() == scanDetail
+        second.get() == scanDetail
+        fetches == 1
+        cache.hitCount == 1
+        cache.missCount == 1
+
+        when:
+        now += Duration.ofHours(1).toNanos()
+        cache.get('abc', { fetches++; ScanDetailCache.Lookup.found(scanDetail) })
+
+        then:
+        fetches == 2
+    }
+
+    def 'Missing scans are cached for a short time'() {
+        given:
+        def fetches = 0
+
+        when:
+        cache.get('abc', { fetches++; ScanDetailCache.Lookup.notFound() })
+        def result = cache.get('abc', { fetches++; ScanDetailCache.Lookup.notFound() })
+
+        then:
+        !result.isPresent()
+        fetches == 1
+        cache.negativeHitCount == 1
+
+        when:
+        now += Duration.ofMinutes(1).toNanos()
+        cache.get('abc', { fetches++; ScanDetailCache.Lookup.notFound() })
+
+        then:
+        fetches == 2
+    }
+
+    def 'Failures are not cached'() {
+        given:
+        def fetches = 0
+
+        when:
+        cache.get('abc', { fetches++; ScanDetailCache.Lookup.failed() })
+        cache.get('abc', { fetches++; ScanDetailCache.Lookup.failed() })
+
+        then:
+        fetches == 2
+        cache.size == 0
+    }
+
+    def 'Least recently used entries are evicted'() {
+        given:
+        def fetched = []
+        def fetcher = { String key -> fetched << key; ScanDetailCache.Lookup.found(new ScanDetail(key)) }
+
+        when:
+        cache.get('a', fetcher)
+        cache.get('b', fetcher)
+        cache.get('a', fetcher)
+        cache.get('c', fetcher)
+        cache.get('a', fetcher)
+        cache.get('b', fetcher)
+
+        then:
+        fetched == ['a', 'b', 'c', 'b']
+        cache.evictionCount == 2
+        cache.size == 2
+    }
+}
@@ -0,0 +1,73 @@
+package hudson.plugins.gradle.enriched
+
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.util.concurrent.BlockingQueue
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.TimeUnit
+
+@Subject(ScanDetailEnricher.class)
+class ScanDetailEnricherTest extends Specification {
+
+    def enricher = new ScanDetailEnricher(1, 1)
+
+    def cleanup() {
+        enricher.shutdownNow()
+    }
+
+    def 'Fetches scan detail in the background'() {
+        given:
+        def scanDetail = new ScanDetail('https://foo.bar/s/abc')
+        def scanDetailService = Stub(ScanDetailService)
+        scanDetailService.isEnabled() >> true
+        scanDetailService.getScanDetail('https://foo.bar/s/abc') >> Optional.of(scanDetail)
+        BlockingQueue<ScanDetail> fetched = new LinkedBlockingQueue<>()
+
+        when:
+        enricher.enrich('https://foo.bar/s/abc', scanDetailService, fetched::add)
+
+        then:
+        fetched.poll(10, TimeUnit.SECONDS) == scanDetail
+    }
+
+    def 'Does not queue scans if enriched summary is disabled'() {
+        given:
+        def scanDetailService = Mock(ScanDetailService)
+        scanDetailService.isEnabled() >> false
+
+        when:
+        enricher.enrich('https://foo.bar/s/abc', scanDetailService, {})
+
+        then:
+        0 * scanDetailService.getScanDetail(_)
+        enricher.queueDepth == 0
+    }
+
+    def 'Skips scans if the queue is full'() {
+        given:
+        def started = new CountDownLatch(1)
+        def release = new CountDownLatch(1)
+        def blockingService = Stub(ScanDetailService)
+        blockingService.isEnabled() >> true
+        blockingService.getScanDetail(_) >> {
+            started.countDown()
+            release.await(10, TimeUnit.SECONDS)
+            Optional.empty()
+        }
+
+        when:
+        enricher.enrich('https://foo.bar/s/running', blockingService, {})
+        started.await(10, TimeUnit.SECONDS)
+        enricher.enrich('https://foo.bar/s/queued', blockingService, {})
+        enricher.enrich('https://foo.bar/s/rejected', blockingService, {})
+
+        then:
+        enricher.queueDepth == 1
+        enricher.rejectedCount == 1
+
+        cleanup:
+        release.countDown()
+    }
+}
@@ -1,12 +1,8 @@
 package hudson.plugins.gradle.enriched
 
 import hudson.util.Secret
-import org.apache.http.HttpStatus
-import org.apache.http.HttpVersion
-import org.apache.http.client.methods.CloseableHttpResponse
-import org.apache.http.entity.StringEntity
-import org.apache.http.impl.client.CloseableHttpClient
-import org.apache.http.message.BasicStatusLine
+import ratpack.groovy.test.embed.GroovyEmbeddedApp
+import ratpack.test.embed.EmbeddedApp
 import spock.lang.Specification
 import spock.lang.Subject
 import spock.lang.Unroll
@@ -14,14 +10,39 @@ import spock.lang.Unroll
 @Subject(ScanDetailService.class)
 class ScanDetailServiceTest extends Specification {
 
-    EnrichedSummaryConfig getTestConfig() {
+    EnrichedSummaryConfig getTestConfig(EmbeddedApp mockDevelocity = null) {
         def config = Stub(EnrichedSummaryConfig.class)
         config.isEnrichedSummaryEnabled() >> true
         config.getBuildScanAccessKey() >> Secret.fromString("{c2VjcmV0}")
-        config.getBuildScanServer() >> new URI("https://foo.bar")
+        config.getBuildScanServer() >> (mockDevelocity != null ? mockDevelocity.address.toString() : "https://foo.bar")
+        config.getHttpClientTimeoutInSeconds() >> 5
         config
     }
 
+    static EmbeddedApp develocityServer(int buildsStatus, String buildsBody, int attributesStatus, String attributesBody) {
+        GroovyEmbeddedApp.of {
+            handlers {
+                get("api/builds/scanId") {
+                    response.status(buildsStatus)
+                    response.send(buildsBody)
+                }
+                get("api/builds/scanId/:attributes") {
+                    response.status(attributesStatus)
+                    response.send(attributesBody)
+                }
+            }
+        }
+    }
+
+    static String buildsResponse(String buildToolType) {
+        """
+            {
+                "buildToolType": "${buildToolType}",
+                "buildToolVersion": "7.5.1"
+            }
+        """.stripIndent()
+    }
+
     def 'Get scan detail with enriched summary feature disabled'() {
         given:
         def config = Stub(EnrichedSummaryConfig.class)
@@ -49,14 +70,8 @@ class ScanDetailServiceTest extends Specification {
 
     def 'Get scan detail with HTTP error on first request'() {
         given:
-        def scanDetailService = new ScanDetailService(getTestConfig())
-        def httpClientFactory = Stub(HttpClientFactory)
-        scanDetailService.httpClientFactory = httpClientFactory
-        def httpClient = Stub(CloseableHttpClient)
-        def response = Stub(CloseableHttpResponse)
-        response.getStatusLine() >> new BasicStatusLine(HttpVersion.HTTP_1_1, HttpStatus.SC_FORBIDDEN, "")
-        httpClientFactory.buildHttpClient(_,_,_) >> httpClient
-        httpClient.execute(_) >> response
+        def mockDevelocity = develocityServer(403, "", 200, "{}")
+        def scanDetailService = new ScanDetailService(getTestConfig(mockDevelocity))
 
         when:
         def scanDetail = scanDetailService.getScanDetail("https://foo.bar/s/scanId")
@@ -68,23 +83,8 @@ class ScanDetailServiceTest extends Specification {
     @Unroll
     def 'Get scan detail with HTTP error on second request'(String buildToolType) {
         given:
-        def scanDetailService = new ScanDetailService(getTestConfig())
-        def httpClientFactory = Stub(HttpClientFactory)
-        scanDetailService.httpClientFactory = httpClientFactory
-        def httpClient = Stub(CloseableHttpClient)
-        def response1 = Stub(CloseableHttpResponse)
-        response1.getStatusLine() >> new BasicStatusLine(HttpVersion.HTTP_1_1, HttpStatus.SC_OK, "")
-        response1.getEntity() >> new StringEntity(
-                """
-                    {
-                        "buildToolType": "${buildToolType}",
-                        "buildToolVersion": "7.5.1"   
-                    }
-                """.stripIndent())
-        def response2 = Stub(CloseableHttpResponse)
-        response2.getStatusLine() >> new BasicStatusLine(HttpVersion.HTTP_1_1, HttpStatus.SC_INTERNAL_SERVER_ERROR, "")
-        httpClientFactory.buildHttpClient(_,_,_) >> httpClient
-        httpClient.execute(_) >>> [response1, response2]
+        def mockDevelocity = develocityServer(200, buildsResponse(buildToolType), 500, "")
+        def scanDetailService = new ScanDetailService(getTestConfig(mockDevelocity))
 
         when:
         def scanDetail = scanDetailService.getScanDetail("https://foo.bar/s/scanId")
@@ -99,24 +99,8 @@ class ScanDetailServiceTest extends Specification {
     @Unroll
     def 'Get scan detail with malformed JSON'() {
         given:
-        def scanDetailService = new ScanDetailService(getTestConfig())
-        def httpClientFactory = Stub(HttpClientFactory)
-        scanDetailService.httpClientFactory = httpClientFactory
-        def httpClient = Stub(CloseableHttpClient)
-        def response1 = Stub(CloseableHttpResponse)
-        response1.getStatusLine() >> new BasicStatusLine(HttpVersion.HTTP_1_1, HttpStatus.SC_OK, "")
-        response1.getEntity() >> new StringEntity(
-                """
-                    {
-                        "buildToolType": "${buildToolType}",
-                        "buildToolVersion": "7.5.1"   
-                    }
-                """.stripIndent())
-        def response2 = Stub(CloseableHttpResponse)
-        response2.getStatusLine() >> new BasicStatusLine(HttpVersion.HTTP_1_1, HttpStatus.SC_OK, "")
-        response2.getEntity() >> new StringEntity("{This is not valid JSON}")
-        httpClientFactory.buildHttpClient(_,_,_) >> httpClient
-        httpClient.execute(_) >>> [response1, response2]
+        def mockDevelocity = develocityServer(200, buildsResponse(buildToolType), 200, "{This is not valid JSON}")
+        def scanDetailService = new ScanDetailService(getTestConfig(mockDevelocity))
 
         when:
         def scanDetail = scanDetailService.getScanDetail("https://foo.bar/s/scanId")
@@ -131,25 +115,8 @@ class ScanDetailServiceTest extends Specification {
     @Unroll
     def 'Get scan detail with unrecognized JSON field'() {
         given:
-        def scanDetailService = new ScanDetailService(getTestConfig())
-        def httpClientFactory = Stub(HttpClientFactory)
-        scanDetailService.httpClientFactory = httpClientFactory
-        def httpClient = Stub(CloseableHttpClient)
-        def response1 = Stub(CloseableHttpResponse)
-        response1.getStatusLine() >> new BasicStatusLine(HttpVersion.HTTP_1_1, HttpStatus.SC_OK, "")
-        response1.getEntity() >> new StringEntity(
-                """
-                    {
-                        "buildToolType": "${buildToolType}",
-                        "buildToolVersion": "7.5.1"   
-                    }
-                """.stripIndent())
-        def response2 = Stub(CloseableHttpResponse)
-        response2.getStatusLine() >> new BasicStatusLine(HttpVersion.HTTP_1_1, HttpStatus.SC_OK, "")
-        response2.getEntity() >> new StringEntity(httpResponseBody)
-        httpClientFactory.buildHttpClient(_,_,_) >> httpClient
-        httpClient.execute(_) >>> [response1, response2]
-        httpClientFactory.buildHttpClient(_,_,_) >> httpClient
+        def mockDevelocity = develocityServer(200, buildsResponse(buildToolType), 200, httpResponseBody)
+        def scanDetailService = new ScanDetailService(getTestConfig(mockDevelocity))
 
         when:
         def scanDetailResult = scanDetailService.getScanDetail("https://foo.bar/s/scanId")
@@ -172,24 +139,21 @@ class ScanDetailServiceTest extends Specification {
     @Unroll
     def 'Get scan detail'(String buildToolType, String httpResponseBody) {
         given:
-        def scanDetailService = new ScanDetailService(getTestConfig())
-        def httpClientFactory = Stub(HttpClientFactory)
-        scanDetailService.httpClientFactory = httpClientFactory
-        def httpClient = Stub(CloseableHttpClient)
-        def response1 = Stub(CloseableHttpResponse)
-        response1.getStatusLine() >> new BasicStatusLine(HttpVersion.HTTP_1_1, HttpStatus.SC_OK, "")
-        response1.getEntity() >> new StringEntity(
-                """
-                    {
-                        "buildToolType": "${buildToolType}",
-                        "buildToolVersion": "7.5.1"   
-                    }
-                """.stripIndent())
-        def response2 = Stub(CloseableHttpResponse)
-        response2.getStatusLine() >> new BasicStatusLine(HttpVersion.HTTP_1_1, HttpStatus.SC_OK, "")
-        response2.getEntity() >> new StringEntity(httpResponseBody)
-        httpClient.execute(_) >>> [response1, response2]
-        httpClientFactory.buildHttpClient(_,_,_) >> httpClient
+        String authorization = null
+        String attributesPath = null
+        def mockDevelocity = GroovyEmbeddedApp.of {
+            handlers {
+                get("api/builds/scanId") {
+                    authorization = request.headers.get("Authorization")
+                    response.send(buildsResponse(buildToolType))
+                }
+                get("api/builds/scanId/:attributes") {
+                    attributesPath = request.path
+                    response.send(httpResponseBody)
+                }
+            }
+        }
+        def scanDetailService = new ScanDetailService(getTestConfig(mockDevelocity))
 
         when:
         def scanDetailResult = scanDetailService.getScanDetail("https://foo.bar/s/scanId")
@@ -203,6 +167,10 @@ class ScanDetailServiceTest extends Specification {
         scanDetail.tasks == [ "clean", "build" ]
         !scanDetail.hasFailed
 
+        and:
+        authorization.startsWith("Bearer ")
+        attributesPath == "api/builds/scanId/${buildToolType}-attributes"
+
         where:
         buildToolType | httpResponseBody
         "gradle"      | '{"foo":"bar","rootProjectName":"project","requestedTasks":["clean","build"],"hasFailed":false}'
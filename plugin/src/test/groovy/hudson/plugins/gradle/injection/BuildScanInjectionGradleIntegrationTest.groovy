@@ -14,7 +14,6 @@ import hudson.plugins.gradle.Gradle
 import hudson.plugins.timestamper.TimestampNote
 import hudson.plugins.timestamper.TimestamperBuildWrapper
 import hudson.slaves.DumbSlave
-import hudson.slaves.EnvironmentVariablesNodeProperty
 import hudson.util.Secret
 import org.apache.commons.lang3.StringUtils
 import org.jenkinsci.plugins.plaincredentials.impl.StringCredentialsImpl
@@ -33,7 +32,6 @@ class BuildScanInjectionGradleIntegrationTest extends BaseGradleIntegrationTest
 
     private static final List<String> GRADLE_VERSIONS = ['7.6.4', '8.9']
 
-    private static final EnvVars EMPTY_ENV = new EnvVars()
 
     def "does not capture build agent errors if checking for errors is disabled"() {
         given:
@@ -404,12 +402,14 @@ class BuildScanInjectionGradleIntegrationTest extends BaseGradleIntegrationTest
 
         then:
         initScript.exists()
+        initScriptMarker(initScript).exists()
 
         when:
         disableBuildInjection(slave)
 
         then:
         !initScript.exists()
+        !initScriptMarker(initScript).exists()
 
         where:
         gradleVersion << GRADLE_VERSIONS
@@ -701,16 +701,14 @@ class BuildScanInjectionGradleIntegrationTest extends BaseGradleIntegrationTest
         then:
         initScriptFile(agent, gradleVersion).exists()
 
-        with(agent.getNodeProperty(EnvironmentVariablesNodeProperty.class)) {
-            verifyAll(getEnvVars()) {
-                get("DEVELOCITY_INJECTION_URL") == "http://localhost"
-                get("DEVELOCITY_INJECTION_DEVELOCITY_PLUGIN_VERSION") == this.DEVELOCITY_PLUGIN_VERSION
-                get("DEVELOCITY_INJECTION_ALLOW_UNTRUSTED_SERVER") == null
-                get("DEVELOCITY_INJECTION_ENFORCE_URL") == null
-                get("DEVELOCITY_INJECTION_PLUGIN_REPOSITORY_URL") == null
-                get("DEVELOCITY_INJECTION_CCUD_PLUGIN_VERSION") == null
-                get("DEVELOCITY_INJECTION_CAPTURE_FILE_FINGERPRINTS") == 'true'
-            }
+        verifyAll(agentEnvVars(agent)) {
+            get("DEVELOCITY_INJECTION_URL") == "http://localhost"
+            get("DEVELOCITY_INJECTION_DEVELOCITY_PLUGIN_VERSION") == this.DEVELOCITY_PLUGIN_VERSION
+            get("DEVELOCITY_INJECTION_ALLOW_UNTRUSTED_SERVER") == null
+            get("DEVELOCITY_INJECTION_ENFORCE_URL") == null
+            get("DEVELOCITY_INJECTION_PLUGIN_REPOSITORY_URL") == null
+            get("DEVELOCITY_INJECTION_CCUD_PLUGIN_VERSION") == null
+            get("DEVELOCITY_INJECTION_CAPTURE_FILE_FINGERPRINTS") == 'true'
         }
 
         when:
@@ -725,16 +723,14 @@ class BuildScanInjectionGradleIntegrationTest extends BaseGradleIntegrationTest
         then:
         !initScriptFile(agent, gradleVersion).exists()
 
-        with(agent.getNodeProperty(EnvironmentVariablesNodeProperty.class)) {
-            verifyAll(getEnvVars()) {
-                get("DEVELOCITY_INJECTION_URL") == null
-                get("DEVELOCITY_INJECTION_DEVELOCITY_PLUGIN_VERSION") == null
-                get("DEVELOCITY_INJECTION_ALLOW_UNTRUSTED_SERVER") == null
-                get("DEVELOCITY_INJECTION_ENFORCE_URL") == null
-                get("DEVELOCITY_INJECTION_PLUGIN_REPOSITORY_URL") == null
-                get("DEVELOCITY_INJECTION_CCUD_PLUGIN_VERSION") == null
-                get("DEVELOCITY_INJECTION_CAPTURE_FILE_FINGERPRINTS") == null
-            }
+        verifyAll(agentEnvVars(agent)) {
+            get("DEVELOCITY_INJECTION_URL") == null
+            get("DEVELOCITY_INJECTION_DEVELOCITY_PLUGIN_VERSION") == null
+            get("DEVELOCITY_INJECTION_ALLOW_UNTRUSTED_SERVER") == null
+            get("DEVELOCITY_INJECTION_ENFORCE_URL") == null
+            get("DEVELOCITY_INJECTION_PLUGIN_REPOSITORY_URL") == null
+            get("DEVELOCITY_INJECTION_CCUD_PLUGIN_VERSION") == null
+            get("DEVELOCITY_INJECTION_CAPTURE_FILE_FINGERPRINTS") == null
         }
     }
 
@@ -766,17 +762,15 @@ class BuildScanInjectionGradleIntegrationTest extends BaseGradleIntegrationTest
         then:
         initScriptFile(agent, gradleVersion).exists()
 
-        with(agent.getNodeProperty(EnvironmentVariablesNodeProperty.class)) {
-            verifyAll(getEnvVars()) {
-                get("DEVELOCITY_INJECTION_URL") == "http://localhost"
-                get("DEVELOCITY_INJECTION_ENFORCE_URL") == "true"
-                get("DEVELOCITY_INJECTION_DEVELOCITY_PLUGIN_VERSION") == this.DEVELOCITY_PLUGIN_VERSION
-                get("DEVELOCITY_INJECTION_ALLOW_UNTRUSTED_SERVER") == "true"
-                get("DEVELOCITY_INJECTION_PLUGIN_REPOSITORY_URL") == "http://localhost/repository"
-                get("DEVELOCITY_INJECTION_CCUD_PLUGIN_VERSION") == "2.0"
-                get("DEVELOCITY_INJECTION_CAPTURE_FILE_FINGERPRINTS") == "true"
-                get("DEVELOCITY_INJECTION_CUSTOM_VALUE") == "Jenkins"
-            }
+        verifyAll(agentEnvVars(agent)) {
+            get("DEVELOCITY_INJECTION_URL") == "http://localhost"
+            get("DEVELOCITY_INJECTION_ENFORCE_URL") == "true"
+            get("DEVELOCITY_INJECTION_DEVELOCITY_PLUGIN_VERSION") == this.DEVELOCITY_PLUGIN_VERSION
+            get("DEVELOCITY_INJECTION_ALLOW_UNTRUSTED_SERVER") == "true"
+            get("DEVELOCITY_INJECTION_PLUGIN_REPOSITORY_URL") == "http://localhost/repository"
+            get("DEVELOCITY_INJECTION_CCUD_PLUGIN_VERSION") == "2.0"
+            get("DEVELOCITY_INJECTION_CAPTURE_FILE_FINGERPRINTS") == "true"
+            get("DEVELOCITY_INJECTION_CUSTOM_VALUE") == "Jenkins"
         }
 
         when:
@@ -795,17 +789,15 @@ class BuildScanInjectionGradleIntegrationTest extends BaseGradleIntegrationTest
         then:
         !initScriptFile(agent, gradleVersion).exists()
 
-        with(agent.getNodeProperty(EnvironmentVariablesNodeProperty.class)) {
-            verifyAll(getEnvVars()) {
-                get("DEVELOCITY_INJECTION_URL") == null
-                get("DEVELOCITY_INJECTION_DEVELOCITY_PLUGIN_VERSION") == null
-                get("DEVELOCITY_INJECTION_ALLOW_UNTRUSTED_SERVER") == null
-                get("DEVELOCITY_INJECTION_PLUGIN_REPOSITORY_URL") == null
-                get("DEVELOCITY_INJECTION_CCUD_PLUGIN_VERSION") == null
-                get("DEVELOCITY_INJECTION_ALLOW_UNTRUSTED_SERVER") == null
-                get("DEVELOCITY_INJECTION_CAPTURE_FILE_FINGERPRINTS") == null
-                get("DEVELOCITY_INJECTION_CUSTOM_VALUE") == null
-            }
+        verifyAll(agentEnvVars(agent)) {
+            get("DEVELOCITY_INJECTION_URL") == null
+            get("DEVELOCITY_INJECTION_DEVELOCITY_PLUGIN_VERSION") == null
+            get("DEVELOCITY_INJECTION_ALLOW_UNTRUSTED_SERVER") == null
+            get("DEVELOCITY_INJECTION_PLUGIN_REPOSITORY_URL") == null
+            get("DEVELOCITY_INJECTION_CCUD_PLUGIN_VERSION") == null
+            get("DEVELOCITY_INJECTION_ALLOW_UNTRUSTED_SERVER") == null
+            get("DEVELOCITY_INJECTION_CAPTURE_FILE_FINGERPRINTS") == null
+            get("DEVELOCITY_INJECTION_CUSTOM_VALUE") == null
         }
     }
 
@@ -998,6 +990,10 @@ task hello {
         return new File("${getGradleHome(agent, gradleVersion)}/init.d/init-build-scan.gradle")
     }
 
+    private static File initScriptMarker(File initScript) {
+        return new File(initScript.parentFile, ".init-build-scan.gradle.generation")
+    }
+
     private void disableBuildInjection(DumbSlave slave) {
         withInjectionConfig {
             enabled = false
@@ -1016,7 +1012,6 @@ task hello {
     }
 
     private static EnvVars agentEnvVars(Slave agent) {
-        def nodeProperty = agent.getNodeProperties().get(EnvironmentVariablesNodeProperty.class)
-        return nodeProperty != null ? nodeProperty.getEnvVars() : EMPTY_ENV
+        return InjectionEnvironment.get().getEnvironment(agent)
     }
 }
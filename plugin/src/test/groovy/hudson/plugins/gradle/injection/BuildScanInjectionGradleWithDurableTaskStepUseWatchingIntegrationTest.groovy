@@ -6,7 +6,6 @@ import hudson.slaves.DumbSlave
 import org.junit.Rule
 import org.junit.rules.TestRule
 import org.jvnet.hudson.test.FlagRule
-import spock.lang.PendingFeature
 import spock.lang.Unroll
 
 @Unroll
@@ -17,8 +16,7 @@ class BuildScanInjectionGradleWithDurableTaskStepUseWatchingIntegrationTest exte
     @Rule
     public final TestRule durableTaskStepRule = FlagRule.systemProperty("org.jenkinsci.plugins.workflow.steps.durable_task.DurableTaskStep.USE_WATCHING", "true")
 
-    @PendingFeature
-    def "cannot capture build agent errors in pipeline build if DurableTaskStep.USE_WATCHING=true"() {
+    def "captures build agent errors in pipeline build if DurableTaskStep.USE_WATCHING=true"() {
         given:
         gradleInstallationRule.addInstallation()
 
@@ -25,6 +25,7 @@ import org.jvnet.hudson.test.JenkinsRule
 import ratpack.groovy.test.embed.GroovyEmbeddedApp
 import spock.lang.Issue
 import spock.lang.Unroll
+import spock.util.concurrent.PollingConditions
 
 import static hudson.plugins.gradle.injection.MavenBuildScanInjection.JENKINSGRADLEPLUGIN_MAVEN_PLUGIN_CONFIG_ALLOW_UNTRUSTED_SERVER
 import static hudson.plugins.gradle.injection.MavenBuildScanInjection.JENKINSGRADLEPLUGIN_MAVEN_PLUGIN_CONFIG_EXT_CLASSPATH
@@ -144,7 +145,7 @@ class BuildScanInjectionMavenIntegrationTest extends BaseMavenIntegrationTest {
         restartSlave(agent)
 
         then:
-        getMavenOptsFromNodeProperties(agent) == mavenOpts
+        getNodeMavenOpts(agent) == mavenOpts
     }
 
     def 'does not take into account MAVEN_OPTS set on the node level'() {
@@ -156,7 +157,7 @@ class BuildScanInjectionMavenIntegrationTest extends BaseMavenIntegrationTest {
         turnOnBuildInjectionAndRestart(agent)
 
         then:
-        with(getMavenOptsFromNodeProperties(agent).split(" ").iterator()) {
+        with(getNodeMavenOpts(agent).split(" ").iterator()) {
             with(it.next()) {
                 it.startsWith('-Dmaven.ext.class.path=')
                 it.contains('develocity-maven-extension.jar')
@@ -209,7 +210,7 @@ class BuildScanInjectionMavenIntegrationTest extends BaseMavenIntegrationTest {
         turnOnBuildInjectionAndRestart(agent, true, true)
 
         then:
-        with(getMavenOptsFromNodeProperties(agent).split(" ").iterator()) {
+        with(getNodeMavenOpts(agent).split(" ").iterator()) {
             with(it.next()) {
                 it == mavenOpts
             }
@@ -246,15 +247,15 @@ class BuildScanInjectionMavenIntegrationTest extends BaseMavenIntegrationTest {
         turnOffBuildInjectionAndRestart(agent)
 
         then:
-        getMavenOptsFromNodeProperties(agent) == mavenOpts
+        getNodeMavenOpts(agent) == mavenOpts
     }
 
-    def 'does not create new EnvironmentVariablesNodeProperty when MAVEN_OPTS changes'() {
+    def 'does not store the injected variables in the node configuration'() {
         when:
         def slave = createSlaveAndTurnOnInjection()
 
         then:
-        slave.getNodeProperties().getAll(EnvironmentVariablesNodeProperty.class).size() == 1
+        slave.getNodeProperties().getAll(EnvironmentVariablesNodeProperty.class).isEmpty()
 
         hasJarInMavenExt(slave, DEVELOCITY_EXTENSION_JAR)
         !hasJarInMavenExt(slave, CCUD_EXTENSION_JAR)
@@ -263,7 +264,7 @@ class BuildScanInjectionMavenIntegrationTest extends BaseMavenIntegrationTest {
         turnOnBuildInjectionAndRestart(slave)
 
         then:
-        slave.getNodeProperties().getAll(EnvironmentVariablesNodeProperty.class).size() == 1
+        slave.getNodeProperties().getAll(EnvironmentVariablesNodeProperty.class).isEmpty()
 
         hasJarInMavenExt(slave, DEVELOCITY_EXTENSION_JAR)
         hasJarInMavenExt(slave, CCUD_EXTENSION_JAR)
@@ -272,7 +273,7 @@ class BuildScanInjectionMavenIntegrationTest extends BaseMavenIntegrationTest {
         turnOffBuildInjectionAndRestart(slave)
 
         then:
-        slave.getNodeProperties().getAll(EnvironmentVariablesNodeProperty.class).size() == 1
+        slave.getNodeProperties().getAll(EnvironmentVariablesNodeProperty.class).isEmpty()
 
         noMavenOpts(slave)
     }
@@ -295,6 +296,32 @@ class BuildScanInjectionMavenIntegrationTest extends BaseMavenIntegrationTest {
         hasBuildScanPublicationAttempt(log)
     }
 
+    def 'records the build scan links written by the pipeline steps outside withGradle'() {
+        given:
+        createSlaveAndTurnOnInjection()
+
+        def pipelineJob = j.createProject(WorkflowJob)
+        pipelineJob.setDefinition(new CpsFlowDefinition("""
+node('foo') {
+    if (isUnix()) {
+        sh 'echo https://scans.gradle.com/s/first >> "\$DEVELOCITY_INJECTION_BUILD_SCAN_LINKS_FILE"'
+        sh 'echo https://scans.gradle.com/s/second >> "\$DEVELOCITY_INJECTION_BUILD_SCAN_LINKS_FILE"'
+    } else {
+        bat 'echo https://scans.gradle.com/s/first>> "%DEVELOCITY_INJECTION_BUILD_SCAN_LINKS_FILE%"'
+        bat 'echo https://scans.gradle.com/s/second>> "%DEVELOCITY_INJECTION_BUILD_SCAN_LINKS_FILE%"'
+    }
+}
+""", false))
+
+        when:
+        def build = j.buildAndAssertSuccess(pipelineJob)
+
+        then:
+        new PollingConditions(timeout: 10).eventually {
+            assert build.getAction(BuildScanAction)?.scanUrls as Set == ['https://scans.gradle.com/s/first', 'https://scans.gradle.com/s/second'] as Set
+        }
+    }
+
     def 'short lived token is injected into the simple pipeline'() {
         given:
         createSlaveAndTurnOnInjection()
@@ -660,8 +687,8 @@ node {
         def slave = createSlaveAndTurnOnInjection()
 
         then:
-        getEnvVarFromNodeProperties(slave, JENKINSGRADLEPLUGIN_MAVEN_PLUGIN_CONFIG_SERVER_URL) == 'https://scans.gradle.com'
-        getEnvVarFromNodeProperties(slave, JENKINSGRADLEPLUGIN_MAVEN_PLUGIN_CONFIG_ALLOW_UNTRUSTED_SERVER) == null
+        getNodeEnvVar(slave, JENKINSGRADLEPLUGIN_MAVEN_PLUGIN_CONFIG_SERVER_URL) == 'https://scans.gradle.com'
+        getNodeEnvVar(slave, JENKINSGRADLEPLUGIN_MAVEN_PLUGIN_CONFIG_ALLOW_UNTRUSTED_SERVER) == null
         assertMavenConfigClasspathJars(slave, DEVELOCITY_EXTENSION_JAR, CONFIGURATION_EXTENSION_JAR)
 
         when:
@@ -671,8 +698,8 @@ node {
         restartSlave(slave)
 
         then:
-        getEnvVarFromNodeProperties(slave, JENKINSGRADLEPLUGIN_MAVEN_PLUGIN_CONFIG_SERVER_URL) == 'https://scans.gradle.com'
-        getEnvVarFromNodeProperties(slave, JENKINSGRADLEPLUGIN_MAVEN_PLUGIN_CONFIG_ALLOW_UNTRUSTED_SERVER) == "true"
+        getNodeEnvVar(slave, JENKINSGRADLEPLUGIN_MAVEN_PLUGIN_CONFIG_SERVER_URL) == 'https://scans.gradle.com'
+        getNodeEnvVar(slave, JENKINSGRADLEPLUGIN_MAVEN_PLUGIN_CONFIG_ALLOW_UNTRUSTED_SERVER) == "true"
         assertMavenConfigClasspathJars(slave, DEVELOCITY_EXTENSION_JAR, CONFIGURATION_EXTENSION_JAR)
 
         when:
@@ -683,17 +710,17 @@ node {
         restartSlave(slave)
 
         then:
-        getEnvVarFromNodeProperties(slave, JENKINSGRADLEPLUGIN_MAVEN_PLUGIN_CONFIG_SERVER_URL) == 'https://scans.gradle.com'
-        getEnvVarFromNodeProperties(slave, JENKINSGRADLEPLUGIN_MAVEN_PLUGIN_CONFIG_ALLOW_UNTRUSTED_SERVER) == null
+        getNodeEnvVar(slave, JENKINSGRADLEPLUGIN_MAVEN_PLUGIN_CONFIG_SERVER_URL) == 'https://scans.gradle.com'
+        getNodeEnvVar(slave, JENKINSGRADLEPLUGIN_MAVEN_PLUGIN_CONFIG_ALLOW_UNTRUSTED_SERVER) == null
         assertMavenConfigClasspathJars(slave, DEVELOCITY_EXTENSION_JAR, CCUD_EXTENSION_JAR, CONFIGURATION_EXTENSION_JAR)
 
         when:
         turnOffBuildInjectionAndRestart(slave)
 
         then:
-        getEnvVarFromNodeProperties(slave, JENKINSGRADLEPLUGIN_MAVEN_PLUGIN_CONFIG_SERVER_URL) == null
-        getEnvVarFromNodeProperties(slave, JENKINSGRADLEPLUGIN_MAVEN_PLUGIN_CONFIG_ALLOW_UNTRUSTED_SERVER) == null
-        getEnvVarFromNodeProperties(slave, JENKINSGRADLEPLUGIN_MAVEN_PLUGIN_CONFIG_EXT_CLASSPATH) == null
+        getNodeEnvVar(slave, JENKINSGRADLEPLUGIN_MAVEN_PLUGIN_CONFIG_SERVER_URL) == null
+        getNodeEnvVar(slave, JENKINSGRADLEPLUGIN_MAVEN_PLUGIN_CONFIG_ALLOW_UNTRUSTED_SERVER) == null
+        getNodeEnvVar(slave, JENKINSGRADLEPLUGIN_MAVEN_PLUGIN_CONFIG_EXT_CLASSPATH) == null
     }
 
     @SuppressWarnings("GStringExpressionWithinString")
@@ -984,7 +1011,7 @@ node {
     }
 
     private static void assertMavenConfigClasspathJars(DumbSlave slave, String... jars) {
-        def classpath = getEnvVarFromNodeProperties(slave, JENKINSGRADLEPLUGIN_MAVEN_PLUGIN_CONFIG_EXT_CLASSPATH)
+        def classpath = getNodeEnvVar(slave, JENKINSGRADLEPLUGIN_MAVEN_PLUGIN_CONFIG_EXT_CLASSPATH)
         assert classpath != null
 
         def files = classpath.split(slave.toComputer().isUnix() ? ":" : ";")
@@ -1038,21 +1065,20 @@ node {
     }
 
     private static boolean hasJarInMavenExt(DumbSlave slave, String jar) {
-        def mavenOpts = getMavenOptsFromNodeProperties(slave)
+        def mavenOpts = getNodeMavenOpts(slave)
         return mavenOpts && mavenOpts ==~ /.*-Dmaven\.ext\.class\.path=.*${jar}.*/
     }
 
     private static boolean noMavenOpts(DumbSlave slave) {
-        getMavenOptsFromNodeProperties(slave) == null
+        getNodeMavenOpts(slave) == null
     }
 
-    private static String getMavenOptsFromNodeProperties(DumbSlave slave) {
-        return getEnvVarFromNodeProperties(slave, "MAVEN_OPTS")
+    private static String getNodeMavenOpts(DumbSlave slave) {
+        return getNodeEnvVar(slave, "MAVEN_OPTS")
     }
 
-    private static String getEnvVarFromNodeProperties(DumbSlave slave, String envVar) {
-        def all = slave.getNodeProperties().getAll(EnvironmentVariablesNodeProperty.class)
-        return all.empty ? null : all.last().getEnvVars().get(envVar)
+    private static String getNodeEnvVar(DumbSlave slave, String envVar) {
+        return InjectionEnvironment.get().getEnvironment(slave).get(envVar)
     }
 
     private static boolean hasBuildScanPublicationAttempt(String log) {
@@ -0,0 +1,110 @@
+package hudson.plugins.gradle.injection
+
+import hudson.XmlFile
+import hudson.model.Job
+import hudson.model.Result
+import hudson.model.Run
+import hudson.plugins.gradle.BuildAgentError
+import hudson.plugins.gradle.BuildScanAction
+import hudson.plugins.gradle.BuildToolType
+import hudson.util.XStream2
+import spock.lang.Specification
+import spock.lang.Subject
+import spock.lang.TempDir
+
+import java.nio.file.Path
+
+@Subject(DevelocityErrorsIndex.class)
+class DevelocityErrorsIndexTest extends Specification {
+
+    @TempDir
+    Path rootDir
+
+    DevelocityErrorsIndex newIndex(int maxEntries = 100) {
+        new DevelocityErrorsIndex(maxEntries, new XmlFile(new XStream2(), rootDir.resolve("index.xml").toFile()))
+    }
+
+    Run run(String jobName, int number, long start, BuildToolType... errors) {
+        def job = Stub(Job)
+        job.getFullName() >> jobName
+        def action = new BuildScanAction()
+        errors.each { action.addBuildAgentError(new BuildAgentError(it)) }
+        def run = Stub(Run)
+        run.getParent() >> job
+        run.getNumber() >> number
+        run.getUrl() >> "job/${jobName}/${number}/"
+        run.getStartTimeInMillis() >> start
+        run.getResult() >> Result.FAILURE
+        run.getAction(_) >> action
+        run
+    }
+
+    def "indexes runs with errors from newest to oldest"() {
+        given:
+        def index = newIndex()
+
+        when:
+        index.add(run("a", 1, 100, BuildToolType.GRADLE))
+        index.add(run("b", 1, 300, BuildToolType.MAVEN))
+        index.add(run("a", 2, 200, BuildToolType.GRADLE, BuildToolType.MAVEN))
+        index.add(run("c", 1, 400))
+
+        then:
+        index.size() == 3
+        index.getEntries(0, 10).collect { "${it.job}#${it.number}" } == ["b#1", "a#2", "a#1"]
+        index.getEntries(1, 1).collect { "${it.job}#${it.number}" } == ["a#2"]
+        index.getEntries(5, 10).isEmpty()
+    }
+
+    def "keeps the newest runs only"() {
+        given:
+        def index = newIndex(2)
+
+        when:
+        (1..5).each { index.add(run("a", it, it * 100L, BuildToolType.GRADLE)) }
+
+        then:
+        index.getEntries(0, 10).collect { it.number } == [5, 4]
+    }
+
+    def "prunes deleted runs and jobs"() {
+        given:
+        def index = newIndex()
+        index.add(run("folder/a", 1, 100, BuildToolType.GRADLE))
+        index.add(run("folder/a", 2, 200, BuildToolType.GRADLE))
+        index.add(run("folder/b", 1, 300, BuildToolType.GRADLE))
+        index.add(run("folder-c", 1, 400, BuildToolType.GRADLE))
+
+        when:
+        index.remove(run("folder/a", 2, 200))
+
+        then:
+        index.getEntries(0, 10).collect { "${it.job}#${it.number}" } == ["folder-c#1", "folder/b#1", "folder/a#1"]
+
+        when:
+        index.removeJobs("folder")
+
+        then:
+        index.getEntries(0, 10).collect { "${it.job}#${it.number}" } == ["folder-c#1"]
+    }
+
+    def "persists the index"() {
+        given:
+        def index = newIndex()
+        index.add(run("a", 1, 100, BuildToolType.MAVEN))
+
+        when:
+        def reloaded = newIndex()
+
+        then:
+        reloaded.size() == 1
+        with(reloaded.getEntries(0, 1)[0]) {
+            job == "a"
+            number == 1
+            url == "job/a/1/"
+            start == 100
+            result == Result.FAILURE
+            buildToolTypes == [BuildToolType.MAVEN]
+        }
+    }
+}
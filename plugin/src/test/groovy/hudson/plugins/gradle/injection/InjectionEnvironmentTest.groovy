@@ -0,0 +1,98 @@
+package hudson.plugins.gradle.injection
+
+import hudson.EnvVars
+import hudson.model.Node
+import hudson.model.Saveable
+import hudson.slaves.EnvironmentVariablesNodeProperty
+import hudson.slaves.NodeProperty
+import hudson.slaves.NodePropertyDescriptor
+import hudson.util.DescribableList
+import spock.lang.Specification
+import spock.lang.Subject
+
+class InjectionEnvironmentTest extends Specification {
+
+    @Subject
+    def injectionEnvironment = new InjectionEnvironment()
+
+    def nodeProperties = new DescribableList<NodeProperty<?>, NodePropertyDescriptor>(Saveable.NOOP)
+    def node = Mock(Node) {
+        getNodeName() >> "agent"
+        getNodeProperties() >> nodeProperties
+    }
+
+    def "contributes the variables injected for the node"() {
+        given:
+        injectionEnvironment.setGradleVariables(node, [DEVELOCITY_INJECTION_ENABLED: "true"])
+        injectionEnvironment.setMavenVariables(node, [JENKINSGRADLEPLUGIN_MAVEN_AUTO_INJECTION: "true"], [mavenOpt("develocity.url", "https://localhost")])
+        def env = new EnvVars(MAVEN_OPTS: "-Dfrom.agent=true")
+
+        when:
+        injectionEnvironment.buildEnvironmentFor(node, env)
+
+        then:
+        env == new EnvVars(
+            DEVELOCITY_INJECTION_ENABLED: "true",
+            JENKINSGRADLEPLUGIN_MAVEN_AUTO_INJECTION: "true",
+            MAVEN_OPTS: "-Ddevelocity.url=https://localhost"
+        )
+        nodeProperties.isEmpty()
+    }
+
+    def "appends the injected system properties to the MAVEN_OPTS of the node configuration"() {
+        given:
+        nodeProperties.add(new EnvironmentVariablesNodeProperty(new EnvironmentVariablesNodeProperty.Entry("MAVEN_OPTS", "-Dfoo=bar -Ddevelocity.url=https://old")))
+        injectionEnvironment.setMavenVariables(node, [:], [mavenOpt("develocity.url", "https://localhost")])
+
+        expect:
+        injectionEnvironment.getEnvironment(node)["MAVEN_OPTS"] == "-Dfoo=bar -Ddevelocity.url=https://localhost"
+    }
+
+    def "keeps the variables already set for a step"() {
+        given:
+        injectionEnvironment.setGradleVariables(node, [DEVELOCITY_INJECTION_ENABLED: "true", DEVELOCITY_INJECTION_URL: "https://localhost"])
+        injectionEnvironment.setMavenVariables(node, [JENKINSGRADLEPLUGIN_MAVEN_AUTO_INJECTION: "true"], [mavenOpt("develocity.url", "https://localhost")])
+        def env = new EnvVars(DEVELOCITY_INJECTION_ENABLED: "false", MAVEN_OPTS: "-Xmx4g -Ddevelocity.url=https://old")
+
+        when:
+        injectionEnvironment.buildStepEnvironmentFor(node, env, false)
+
+        then:
+        env == new EnvVars(
+            DEVELOCITY_INJECTION_ENABLED: "false",
+            DEVELOCITY_INJECTION_URL: "https://localhost",
+            JENKINSGRADLEPLUGIN_MAVEN_AUTO_INJECTION: "true",
+            MAVEN_OPTS: "-Xmx4g -Ddevelocity.url=https://localhost"
+        )
+    }
+
+    def "leaves MAVEN_OPTS as is when the run overrides it"() {
+        given:
+        injectionEnvironment.setMavenVariables(node, [:], [mavenOpt("develocity.url", "https://localhost")])
+        def env = new EnvVars(MAVEN_OPTS: "-Dfoo=bar")
+
+        when:
+        injectionEnvironment.buildStepEnvironmentFor(node, env, true)
+
+        then:
+        env == new EnvVars(MAVEN_OPTS: "-Dfoo=bar")
+    }
+
+    def "forgets the variables of a node"() {
+        given:
+        injectionEnvironment.setGradleVariables(node, [DEVELOCITY_INJECTION_ENABLED: "true"])
+        injectionEnvironment.setMavenVariables(node, [JENKINSGRADLEPLUGIN_MAVEN_AUTO_INJECTION: "true"], [])
+
+        when:
+        injectionEnvironment.removeGradleVariables(node)
+        injectionEnvironment.removeMavenVariables(node)
+
+        then:
+        !injectionEnvironment.isInjected(node)
+        injectionEnvironment.getEnvironment(node).isEmpty()
+    }
+
+    private static SystemProperty mavenOpt(String key, String value) {
+        new SystemProperty(SystemProperty.Key.required(key), value)
+    }
+}
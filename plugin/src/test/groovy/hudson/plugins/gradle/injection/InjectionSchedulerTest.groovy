@@ -0,0 +1,114 @@
+package hudson.plugins.gradle.injection
+
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.util.concurrent.ExecutionException
+
+class InjectionSchedulerTest extends Specification {
+
+    List<Runnable> queued = []
+
+    @Subject
+    def scheduler = new InjectionScheduler({ Runnable r -> queued << r })
+
+    def "coalesces injections waiting for the same node"() {
+        given:
+        def injected = []
+
+        when:
+        scheduler.schedule("agent1", { injected << "config change" })
+        scheduler.schedule("agent1", { injected << "reconnect" })
+        scheduler.schedule("agent2", { injected << "agent2" })
+
+        then:
+        queued.size() == 2
+        scheduler.statuses*.state == [InjectionScheduler.NodeStatus.State.PENDING] * 2
+
+        when:
+        queued.each { it.run() }
+
+        then:
+        injected == ["reconnect", "agent2"]
+        scheduler.statuses*.state == [InjectionScheduler.NodeStatus.State.SUCCEEDED] * 2
+    }
+
+    def "runs an injection scheduled while another one is running for the node"() {
+        given:
+        def injected = []
+
+        when:
+        scheduler.schedule("agent1", {
+            injected << "first"
+            scheduler.schedule("agent1", { injected << "second" })
+        })
+        queued.each { it.run() }
+
+        then:
+        queued.size() == 1
+        injected == ["first", "second"]
+    }
+
+    def "reports failed injections"() {
+        when:
+        scheduler.schedule("", { throw new ExpectedException() })
+        queued.each { it.run() }
+
+        then:
+        def status = scheduler.statuses[0]
+        status.nodeName == "built-in node"
+        status.state == InjectionScheduler.NodeStatus.State.FAILED
+        status.error.contains("ExpectedException")
+    }
+
+    def "keeps injecting a node after an error"() {
+        given:
+        def injected = []
+
+        when:
+        scheduler.schedule("agent1", { throw new NoClassDefFoundError("hudson/Missing") })
+        queued.each { it.run() }
+
+        then:
+        scheduler.statuses[0].state == InjectionScheduler.NodeStatus.State.FAILED
+        scheduler.statuses[0].error.contains("NoClassDefFoundError")
+
+        when:
+        queued.clear()
+        scheduler.schedule("agent1", { injected << "retry" })
+        queued.each { it.run() }
+
+        then:
+        queued.size() == 1
+        injected == ["retry"]
+        scheduler.statuses[0].state == InjectionScheduler.NodeStatus.State.SUCCEEDED
+        scheduler.statuses[0].error == null
+    }
+
+    def "completes the injections once they or the ones replacing them are done"() {
+        when:
+        def replaced = scheduler.schedule("agent1", {})
+        def replacing = scheduler.schedule("agent1", {})
+        def failing = scheduler.schedule("agent2", { throw new ExpectedException() })
+
+        then:
+        !replaced.done
+        !replacing.done
+        !failing.done
+
+        when:
+        queued.each { it.run() }
+
+        then:
+        replaced.done
+        replacing.done
+        failing.done
+
+        when:
+        failing.get()
+
+        then:
+        def e = thrown(ExecutionException)
+        e.cause instanceof ExpectedException
+    }
+}
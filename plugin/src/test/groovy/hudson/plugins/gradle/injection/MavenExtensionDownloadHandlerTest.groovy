@@ -36,16 +36,16 @@ class MavenExtensionDownloadHandlerTest extends Specification {
         originalDevelocityDigest != null && originalCcudDigest != null
 
         when:
-        def originalDevelocityLastModified = new File(controllerFolder, MavenExtensionDownloadHandler.DOWNLOAD_CACHE_DIR + "/" + MavenExtension.DEVELOCITY.getEmbeddedJarName()).lastModified()
-        def originalCcudLastModified = new File(controllerFolder, MavenExtensionDownloadHandler.DOWNLOAD_CACHE_DIR + "/" + MavenExtension.CCUD.getEmbeddedJarName()).lastModified()
+        def originalDevelocityLastModified = storedExtension(controllerFolder, originalDevelocityDigest).lastModified()
+        def originalCcudLastModified = storedExtension(controllerFolder, originalCcudDigest).lastModified()
 
         def sameExtensions = mavenExtensionDownloadHandler.ensureExtensionsDownloaded({ controllerFolder }, originalConfig)
 
         then:
         sameExtensions.size() == 2
 
-        def sameDevelocityLastModified = new File(controllerFolder, MavenExtensionDownloadHandler.DOWNLOAD_CACHE_DIR + "/" + MavenExtension.DEVELOCITY.getEmbeddedJarName()).lastModified()
-        def sameCcudLastModified = new File(controllerFolder, MavenExtensionDownloadHandler.DOWNLOAD_CACHE_DIR + "/" + MavenExtension.CCUD.getEmbeddedJarName()).lastModified()
+        def sameDevelocityLastModified = storedExtension(controllerFolder, originalDevelocityDigest).lastModified()
+        def sameCcudLastModified = storedExtension(controllerFolder, originalCcudDigest).lastModified()
 
         def sameDevelocityDigest = sameExtensions.get(MavenExtension.DEVELOCITY)
         def sameCcudDigest = sameExtensions.get(MavenExtension.CCUD)
@@ -98,4 +98,42 @@ class MavenExtensionDownloadHandlerTest extends Specification {
         redownloadedDevelocityDigest != originalDevelocityDigest && redownloadedCcudDigest != originalCcudDigest
     }
 
+    def 'switching back to a previous version uses the stored extensions'() {
+        given:
+        def controllerFolder = tempFolder.newFolder()
+
+        def originalConfig = Mock(InjectionConfig)
+        with(originalConfig) {
+            enabled >> true
+            server >> 'https://scans.gradle.com'
+            mavenExtensionVersion >> '1.22'
+            ccudExtensionVersion >> '2.0'
+        }
+        def updatedConfig = Mock(InjectionConfig)
+        with(updatedConfig) {
+            enabled >> true
+            server >> 'https://scans.gradle.com'
+            mavenExtensionVersion >> '2.1'
+            ccudExtensionVersion >> '2.0.1'
+        }
+
+        def originalExtensions = mavenExtensionDownloadHandler.ensureExtensionsDownloaded({ controllerFolder }, originalConfig)
+        def updatedExtensions = mavenExtensionDownloadHandler.ensureExtensionsDownloaded({ controllerFolder }, updatedConfig)
+        def originalDevelocityLastModified = storedExtension(controllerFolder, originalExtensions.get(MavenExtension.DEVELOCITY)).lastModified()
+
+        when:
+        def restoredExtensions = mavenExtensionDownloadHandler.ensureExtensionsDownloaded({ controllerFolder }, originalConfig)
+
+        then:
+        restoredExtensions == originalExtensions
+        storedExtension(controllerFolder, originalExtensions.get(MavenExtension.DEVELOCITY)).lastModified() == originalDevelocityLastModified
+
+        and:
+        mavenExtensionDownloadHandler.getExtensionDigests({ controllerFolder }, originalConfig) == originalExtensions
+        mavenExtensionDownloadHandler.getExtensionDigests({ controllerFolder }, updatedConfig) == updatedExtensions
+    }
+
+    private static File storedExtension(File controllerFolder, String digest) {
+        new File(controllerFolder, MavenExtensionDownloadHandler.DOWNLOAD_CACHE_DIR + "/" + MavenExtensionStore.getObjectPath(digest))
+    }
 }
@@ -0,0 +1,143 @@
+package hudson.plugins.gradle.injection
+
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+import java.nio.file.Path
+
+class MavenExtensionStoreTest extends Specification {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder()
+
+    Path root
+
+    @Subject
+    MavenExtensionStore store
+
+    List<String> downloads = []
+
+    def setup() {
+        root = tempFolder.newFolder().toPath()
+        store = new MavenExtensionStore(root)
+    }
+
+    def "stores the extensions under their digest"() {
+        when:
+        def digest = store.getOrDownload(MavenExtension.CCUD, "2.0", download("ccud-2.0"))
+
+        then:
+        digest == DigestUtil.sha256(bytes("ccud-2.0"))
+        read(digest) == "ccud-2.0"
+        store.get(MavenExtension.CCUD, "2.0") == Optional.of(digest)
+        store.get(MavenExtension.CCUD, "2.0.1") == Optional.empty()
+        objects() == [MavenExtensionStore.getObjectPath(digest)]
+    }
+
+    def "doesn't download the stored versions again"() {
+        given:
+        def original = store.getOrDownload(MavenExtension.CCUD, "2.0", download("ccud-2.0"))
+        def updated = store.getOrDownload(MavenExtension.CCUD, "2.0.1", download("ccud-2.0.1"))
+
+        when:
+        def restored = store.getOrDownload(MavenExtension.CCUD, "2.0", download("ccud-2.0"))
+
+        then:
+        restored == original
+        updated != original
+        downloads == ["ccud-2.0", "ccud-2.0.1"]
+    }
+
+    def "downloads the versions whose file is missing again"() {
+        given:
+        def digest = store.getOrDownload(MavenExtension.CCUD, "2.0", download("ccud-2.0"))
+        Files.delete(root.resolve(MavenExtensionStore.getObjectPath(digest)))
+
+        expect:
+        store.get(MavenExtension.CCUD, "2.0") == Optional.empty()
+
+        when:
+        store.getOrDownload(MavenExtension.CCUD, "2.0", download("ccud-2.0"))
+
+        then:
+        downloads == ["ccud-2.0", "ccud-2.0"]
+        read(digest) == "ccud-2.0"
+    }
+
+    def "evicts the least recently used versions of an extension"() {
+        given:
+        def develocity = store.getOrDownload(MavenExtension.DEVELOCITY, "2.1", download("develocity-2.1"))
+        def digests = (1..MavenExtensionStore.MAX_VERSIONS_PER_EXTENSION).collect {
+            store.getOrDownload(MavenExtension.CCUD, "2.0.$it", download("ccud-2.0.$it"))
+        }
+
+        when: "the oldest version is used again and a new one is downloaded"
+        store.getOrDownload(MavenExtension.CCUD, "2.0.1", download("ccud-2.0.1"))
+        def newest = store.getOrDownload(MavenExtension.CCUD, "2.1", download("ccud-2.1"))
+
+        then: "the least recently used version is evicted"
+        store.get(MavenExtension.CCUD, "2.0.2") == Optional.empty()
+        !Files.exists(root.resolve(MavenExtensionStore.getObjectPath(digests[1])))
+
+        and:
+        store.get(MavenExtension.CCUD, "2.0.1") == Optional.of(digests[0])
+        store.get(MavenExtension.CCUD, "2.1") == Optional.of(newest)
+        store.get(MavenExtension.DEVELOCITY, "2.1") == Optional.of(develocity)
+        objects().size() == MavenExtensionStore.MAX_VERSIONS_PER_EXTENSION + 1
+    }
+
+    def "leaves nothing behind when a download fails"() {
+        when:
+        store.getOrDownload(MavenExtension.CCUD, "2.0") { OutputStream os ->
+            os.write(bytes("partial"))
+            throw new IOException("Connection reset")
+        }
+
+        then:
+        thrown(IOException)
+        store.get(MavenExtension.CCUD, "2.0") == Optional.empty()
+        objects().isEmpty()
+    }
+
+    def "imports the extension downloaded by a previous version"() {
+        given:
+        Files.write(root.resolve(MavenExtension.CCUD.getEmbeddedJarName()), bytes("ccud-2.0"))
+        Files.write(root.resolve(MavenExtension.CCUD.getDownloadMetadataFileName()), bytes("2.0,4b5d2b9c8bdd7bc4ecc3f4b2ba7d5a01"))
+
+        expect:
+        store.get(MavenExtension.CCUD, "2.0.1") == Optional.empty()
+
+        when:
+        def digest = store.get(MavenExtension.CCUD, "2.0")
+
+        then:
+        digest == Optional.of(DigestUtil.sha256(bytes("ccud-2.0")))
+        read(digest.get()) == "ccud-2.0"
+        !Files.exists(root.resolve(MavenExtension.CCUD.getEmbeddedJarName()))
+        !Files.exists(root.resolve(MavenExtension.CCUD.getDownloadMetadataFileName()))
+    }
+
+    private MavenExtensionStore.Download download(String content) {
+        return { OutputStream os ->
+            downloads << content
+            os.write(bytes(content))
+        } as MavenExtensionStore.Download
+    }
+
+    private String read(String digest) {
+        new String(Files.readAllBytes(root.resolve(MavenExtensionStore.getObjectPath(digest))), StandardCharsets.UTF_8)
+    }
+
+    private List<String> objects() {
+        def objects = root.resolve("objects").toFile()
+        objects.exists() ? objects.list().collect { "objects/$it".toString() } : []
+    }
+
+    private static byte[] bytes(String content) {
+        content.getBytes(StandardCharsets.UTF_8)
+    }
+}
@@ -46,26 +46,24 @@ class MavenExtensionsHandlerIntegrationTest extends Specification {
         def agentFolder = tempFolder.newFolder()
         def controllerRoot = new FilePath(controllerFolder)
         def agentRoot = new FilePath(agentFolder)
-        def cacheDirectory = controllerRoot.child(MavenExtensionDownloadHandler.DOWNLOAD_CACHE_DIR)
+        def store = new MavenExtensionStore(controllerFolder.toPath().resolve(MavenExtensionDownloadHandler.DOWNLOAD_CACHE_DIR))
 
-        cacheDirectory.child(MavenExtension.DEVELOCITY.getEmbeddedJarName()).write()
-                .withCloseable {
-                    extensionClient.downloadExtension(MavenExtension.DEVELOCITY.createDownloadUrl("2.1", null), null, it)
-                }
+        def develocityDigest = store.getOrDownload(MavenExtension.DEVELOCITY, "2.1") {
+            extensionClient.downloadExtension(MavenExtension.DEVELOCITY.createDownloadUrl("2.1", null), null, it)
+        }
 
-        cacheDirectory.child(MavenExtension.CCUD.getEmbeddedJarName()).write()
-                .withCloseable {
-                    extensionClient.downloadExtension(MavenExtension.CCUD.createDownloadUrl("2.0.1", null), null, it)
-                }
+        def ccudDigest = store.getOrDownload(MavenExtension.CCUD, "2.0.1") {
+            extensionClient.downloadExtension(MavenExtension.CCUD.createDownloadUrl("2.0.1", null), null, it)
+        }
 
         when:
-        def firstFilePath = mavenExtensionsHandler.copyExtensionToAgent(MavenExtension.DEVELOCITY, controllerRoot, agentRoot, null)
+        def firstFilePath = mavenExtensionsHandler.copyExtensionToAgent(MavenExtension.DEVELOCITY, controllerRoot, agentRoot, develocityDigest)
 
         then:
         firstFilePath.exists()
 
         when:
-        def secondFilePath = mavenExtensionsHandler.copyExtensionToAgent(MavenExtension.CCUD, controllerRoot, agentRoot, null)
+        def secondFilePath = mavenExtensionsHandler.copyExtensionToAgent(MavenExtension.CCUD, controllerRoot, agentRoot, ccudDigest)
 
         then:
         secondFilePath.exists()
@@ -77,26 +75,24 @@ class MavenExtensionsHandlerIntegrationTest extends Specification {
         def agentFolder = tempFolder.newFolder()
         def controllerRoot = new FilePath(controllerFolder)
         def agentRoot = new FilePath(agentFolder)
-        def cacheDirectory = controllerRoot.child(MavenExtensionDownloadHandler.DOWNLOAD_CACHE_DIR)
+        def store = new MavenExtensionStore(controllerFolder.toPath().resolve(MavenExtensionDownloadHandler.DOWNLOAD_CACHE_DIR))
 
-        cacheDirectory.child(MavenExtension.DEVELOCITY.getEmbeddedJarName()).write()
-                .withCloseable {
-                    extensionClient.downloadExtension(MavenExtension.DEVELOCITY.createDownloadUrl("2.1", null), null, it)
-                }
+        def develocityDigest = store.getOrDownload(MavenExtension.DEVELOCITY, "2.1") {
+            extensionClient.downloadExtension(MavenExtension.DEVELOCITY.createDownloadUrl("2.1", null), null, it)
+        }
 
-        cacheDirectory.child(MavenExtension.CCUD.getEmbeddedJarName()).write()
-                .withCloseable {
-                    extensionClient.downloadExtension(MavenExtension.CCUD.createDownloadUrl("2.0.1", null), null, it)
-                }
+        def ccudDigest = store.getOrDownload(MavenExtension.CCUD, "2.0.1") {
+            extensionClient.downloadExtension(MavenExtension.CCUD.createDownloadUrl("2.0.1", null), null, it)
+        }
 
         when:
-        def firstFilePath = mavenExtensionsHandler.copyExtensionToAgent(MavenExtension.DEVELOCITY, controllerRoot, agentRoot, null)
+        def firstFilePath = mavenExtensionsHandler.copyExtensionToAgent(MavenExtension.DEVELOCITY, controllerRoot, agentRoot, develocityDigest)
 
         then:
         firstFilePath.exists()
 
         when:
-        def secondFilePath = mavenExtensionsHandler.copyExtensionToAgent(MavenExtension.CCUD, controllerRoot, agentRoot, null)
+        def secondFilePath = mavenExtensionsHandler.copyExtensionToAgent(MavenExtension.CCUD, controllerRoot, agentRoot, ccudDigest)
 
         then:
         secondFilePath.exists()
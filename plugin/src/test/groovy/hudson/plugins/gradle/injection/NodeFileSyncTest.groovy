@@ -0,0 +1,157 @@
+package hudson.plugins.gradle.injection
+
+import hudson.FilePath
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+
+class NodeFileSyncTest extends Specification {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder()
+
+    FilePath root
+
+    def setup() {
+        root = new FilePath(tempFolder.newFolder())
+    }
+
+    def "writes missing and outdated files only"() {
+        given:
+        def missing = root.child("lib/missing.jar")
+        def outdated = root.child("lib/outdated.jar")
+        def upToDate = root.child("lib/up-to-date.jar")
+        outdated.write("old", "UTF-8")
+        upToDate.write("current", "UTF-8")
+        def reads = []
+
+        when:
+        def written = new NodeFileSync()
+            .write(missing, digest("new"), payload("new", reads))
+            .write(outdated, digest("new"), payload("new", reads))
+            .write(upToDate, digest("current"), payload("current", reads))
+            .sync()
+
+        then:
+        written == [missing.remote, outdated.remote] as Set
+        reads == ["new", "new"]
+        missing.readToString() == "new"
+        outdated.readToString() == "new"
+        upToDate.readToString() == "current"
+    }
+
+    def "always writes files without digest"() {
+        given:
+        def file = root.child("file.jar")
+        file.write("content", "UTF-8")
+
+        when:
+        def written = new NodeFileSync().write(file, null, payload("content", [])).sync()
+
+        then:
+        written == [file.remote] as Set
+        file.readToString() == "content"
+        root.list().size() == 1
+    }
+
+    def "deletes files"() {
+        given:
+        def existing = root.child("existing.jar")
+        existing.write("content", "UTF-8")
+
+        when:
+        def written = new NodeFileSync()
+            .delete(existing)
+            .delete(root.child("missing.jar"))
+            .sync()
+
+        then:
+        written.isEmpty()
+        !existing.exists()
+    }
+
+    def "does nothing without files"() {
+        expect:
+        new NodeFileSync().sync().isEmpty()
+    }
+
+    def "trusts the marker of an unchanged deployment, even after a restart of the controller"() {
+        given:
+        def file = root.child("lib/file.jar")
+        def marker = root.child(".lib.generation")
+        def sync = { new NodeFileSync(marker).write(file, digest("content"), payload("content", [])).sync() }
+
+        when:
+        def written = sync()
+
+        then:
+        written == [file.remote] as Set
+        marker.exists()
+
+        when: "the file changes without its size nor modification time changing"
+        def lastModified = file.lastModified()
+        file.write("CONTENT", "UTF-8")
+        file.touch(lastModified)
+        written = sync()
+
+        then: "it isn't hashed again"
+        written.isEmpty()
+        file.readToString() == "CONTENT"
+    }
+
+    def "verifies the files when the marker doesn't match them"() {
+        given:
+        def file = root.child("lib/file.jar")
+        def marker = root.child(".lib.generation")
+        def sync = { new NodeFileSync(marker).write(file, digest("content"), payload("content", [])).sync() }
+        sync()
+
+        when:
+        modify(file, marker)
+        def written = sync()
+
+        then:
+        written == [file.remote] as Set
+        file.readToString() == "content"
+
+        where:
+        modify << [
+            { FilePath file, FilePath marker -> file.write("modified", "UTF-8"); file.touch(file.lastModified() + 1000) },
+            { FilePath file, FilePath marker -> file.delete() },
+            { FilePath file, FilePath marker -> marker.delete(); file.write("CONTENT", "UTF-8") },
+        ]
+    }
+
+    def "verifies the files when the manifest changes"() {
+        given:
+        def file = root.child("lib/file.jar")
+        def marker = root.child(".lib.generation")
+        new NodeFileSync(marker).write(file, digest("content"), payload("content", [])).sync()
+
+        when:
+        def written = new NodeFileSync(marker).write(file, digest("new"), payload("new", [])).sync()
+
+        then:
+        written == [file.remote] as Set
+        file.readToString() == "new"
+
+        when:
+        new NodeFileSync(marker).delete(file).sync()
+
+        then:
+        !file.exists()
+    }
+
+    private static String digest(String content) {
+        DigestUtil.sha256(content.getBytes(StandardCharsets.UTF_8))
+    }
+
+    private static NodeFileSync.Payload payload(String content, List<String> reads) {
+        return {
+            reads << content
+            content.getBytes(StandardCharsets.UTF_8)
+        } as NodeFileSync.Payload
+    }
+}
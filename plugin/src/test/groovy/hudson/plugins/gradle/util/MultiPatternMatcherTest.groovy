@@ -0,0 +1,56 @@
+package hudson.plugins.gradle.util
+
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.nio.charset.StandardCharsets
+
+@Subject(MultiPatternMatcher)
+class MultiPatternMatcherTest extends Specification {
+
+    def "reports all occurrences of all patterns"() {
+        given:
+        def matcher = MultiPatternMatcher.compile([he: 'he', she: 'she', his: 'his', hers: 'hers'])
+        def matches = []
+
+        when:
+        matcher.forEachMatch('ushers', { value, start -> matches << "${value}@${start}".toString() } as MultiPatternMatcher.MatchConsumer)
+
+        then:
+        matches == ['she@1', 'he@2', 'hers@2']
+    }
+
+    def "checks whether any pattern occurs"() {
+        given:
+        def matcher = MultiPatternMatcher.compile(['Publishing build scan...': 1, 'Internal error in ': 2])
+
+        expect:
+        matcher.containsAny(text) == expected
+        matcher.containsAny(text.getBytes(StandardCharsets.UTF_8), text.getBytes(StandardCharsets.UTF_8).length) == expected
+
+        where:
+        text                                              | expected
+        'Publishing build scan...'                        | true
+        '[INFO] Publishing build scan...'                 | true
+        'Publishing build information...'                 | false
+        'Internal error in Develocity Gradle plugin: foo' | true
+        'Intérnal error in Develocity Gradle plugin: foo' | false
+        ''                                                | false
+    }
+
+    def "matches nothing without patterns"() {
+        given:
+        def matcher = MultiPatternMatcher.compile([:])
+
+        expect:
+        !matcher.containsAny('anything')
+    }
+
+    def "rejects non-ASCII patterns"() {
+        when:
+        MultiPatternMatcher.compile(['héllo': 1])
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}